@@ -0,0 +1,43 @@
+package com.ums.bms.engine.benchmark;
+
+import com.ums.bms.engine.model.Context;
+import com.ums.bms.engine.processor.Processor;
+import com.ums.bms.engine.processor.ProcessorRegistry;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 基准测试使用的处理器
+ *
+ * @author violet
+ * @since 2025/5/26
+ */
+final class BenchmarkProcessors {
+    static final String NOOP = "noop";
+    static final String CPU = "cpu";
+    /* 每个CPU密集型节点消耗的JMH token数, 约为数微秒 */
+    static final long CPU_TOKENS = 1_000;
+
+    private BenchmarkProcessors() {}
+
+    static ProcessorRegistry registry() {
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register(NOOP, new NoopProcessor());
+        registry.register(CPU, new CpuProcessor());
+        return registry;
+    }
+
+    static class NoopProcessor implements Processor<Boolean> {
+        @Override
+        public Boolean process(Context context) {
+            return Boolean.TRUE;
+        }
+    }
+
+    static class CpuProcessor implements Processor<Boolean> {
+        @Override
+        public Boolean process(Context context) {
+            Blackhole.consumeCPU(CPU_TOKENS);
+            return Boolean.TRUE;
+        }
+    }
+}
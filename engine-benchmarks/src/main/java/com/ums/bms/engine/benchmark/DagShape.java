@@ -0,0 +1,105 @@
+package com.ums.bms.engine.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 基准测试使用的合成DAG形状
+ * <p>
+ * 节点序号即声明顺序, {@link #deps(int, int)}返回的依赖序号总是小于节点自身的序号.
+ *
+ * @author violet
+ * @since 2025/5/26
+ */
+public enum DagShape {
+    /* 单链, 深度等于节点数 */
+    CHAIN {
+        @Override
+        int[] deps(int ordinal, int size) {
+            return ordinal == 0 ? NONE : new int[]{ordinal - 1};
+        }
+    },
+    /* 一个源节点扇出到所有中间节点, 再汇聚到一个汇节点 */
+    FAN_OUT {
+        @Override
+        int[] deps(int ordinal, int size) {
+            if (ordinal == 0) {
+                return NONE;
+            }
+            if (ordinal < size - 1 || size < 3) {
+                return new int[]{0};
+            }
+            int[] deps = new int[size - 2];
+            for (int i = 0; i < deps.length; i++) {
+                deps[i] = i + 1;
+            }
+            return deps;
+        }
+    },
+    /* 宽度为sqrt(N)的菱形格, 每个节点依赖上一行同列和左侧列的节点 */
+    DIAMOND {
+        @Override
+        int[] deps(int ordinal, int size) {
+            int width = width(size);
+            int row = ordinal / width;
+            int col = ordinal % width;
+            if (row == 0) {
+                return NONE;
+            }
+            int up = ordinal - width;
+            return col == 0 ? new int[]{up} : new int[]{up - 1, up};
+        }
+    },
+    /* 宽度为sqrt(N)的分层图, 每个节点随机依赖上一层的1~3个节点, 固定随机种子保证可复现 */
+    RANDOM_LAYERED {
+        @Override
+        int[] deps(int ordinal, int size) {
+            int width = width(size);
+            int layer = ordinal / width;
+            if (layer == 0) {
+                return NONE;
+            }
+            Random random = new Random(SEED ^ ordinal);
+            int from = (layer - 1) * width;
+            int count = 1 + random.nextInt(Math.min(3, width));
+            Set<Integer> deps = new LinkedHashSet<>();
+            while (deps.size() < count) {
+                deps.add(from + random.nextInt(width));
+            }
+            return deps.stream().mapToInt(Integer::intValue).toArray();
+        }
+    };
+
+    private static final int[] NONE = new int[0];
+    private static final long SEED = 0x5EEDL;
+
+    /**
+     * @param ordinal 节点序号
+     * @param size    节点总数
+     * @return 依赖的节点序号
+     */
+    abstract int[] deps(int ordinal, int size);
+
+    /**
+     * 节点ID
+     */
+    static String id(int ordinal) {
+        return "n" + ordinal;
+    }
+
+    List<String> depIds(int ordinal, int size) {
+        int[] deps = deps(ordinal, size);
+        List<String> ids = new ArrayList<>(deps.length);
+        for (int dep : deps) {
+            ids.add(id(dep));
+        }
+        return ids;
+    }
+
+    private static int width(int size) {
+        return Math.max(1, (int) Math.sqrt(size));
+    }
+}
@@ -0,0 +1,61 @@
+package com.ums.bms.engine.benchmark;
+
+import com.ums.bms.engine.Engine;
+import com.ums.bms.engine.EngineConfig;
+import com.ums.bms.engine.model.ExecutionMode;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 端到端执行已编译的流程
+ *
+ * @author violet
+ * @since 2025/5/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({"CHAIN", "FAN_OUT", "DIAMOND", "RANDOM_LAYERED"})
+    private DagShape shape;
+
+    @Param({"10", "1000", "10000", "100000"})
+    private int size;
+
+    @Param({"SERIAL", "PARALLEL"})
+    private ExecutionMode mode;
+
+    @Param({BenchmarkProcessors.NOOP, BenchmarkProcessors.CPU})
+    private String processor;
+
+    private Engine engine;
+    private ExecutionPlan plan;
+
+    @Setup
+    public void setUp() {
+        engine = new Engine(BenchmarkProcessors.registry(), EngineConfig.builder().mode(mode).build());
+        plan = engine.compile(SyntheticFlows.flow(shape, size, processor));
+    }
+
+    @Benchmark
+    public Map<String, Object> execute() {
+        return engine.execute(plan, null);
+    }
+}
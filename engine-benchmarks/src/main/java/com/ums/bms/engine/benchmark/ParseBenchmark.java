@@ -0,0 +1,51 @@
+package com.ums.bms.engine.benchmark;
+
+import com.ums.bms.engine.parser.FlowConfig;
+import com.ums.bms.engine.parser.YamlConfigParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * YAML流程配置解析(包含校验)
+ *
+ * @author violet
+ * @since 2025/5/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"CHAIN", "FAN_OUT", "DIAMOND", "RANDOM_LAYERED"})
+    private DagShape shape;
+
+    @Param({"10", "1000", "10000", "100000"})
+    private int size;
+
+    private byte[] content;
+
+    @Setup
+    public void setUp() {
+        content = SyntheticFlows.yaml(shape, size, BenchmarkProcessors.NOOP).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public FlowConfig parseYaml() {
+        return YamlConfigParser.parse(content);
+    }
+}
@@ -0,0 +1,70 @@
+package com.ums.bms.engine.benchmark;
+
+import com.ums.bms.engine.plan.ExecutionPlan;
+import com.ums.bms.engine.scheduler.ParallelScheduler;
+import com.ums.bms.engine.scheduler.PriorityScheduler;
+import com.ums.bms.engine.scheduler.SerialScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 就绪节点调度循环的开销, 节点任务为空操作
+ *
+ * @author violet
+ * @since 2025/5/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchedulerBenchmark {
+
+    @Param({"CHAIN", "FAN_OUT", "DIAMOND", "RANDOM_LAYERED"})
+    private DagShape shape;
+
+    @Param({"10", "1000", "10000", "100000"})
+    private int size;
+
+    private ExecutionPlan plan;
+    private SerialScheduler serial;
+    private ParallelScheduler parallel;
+    private PriorityScheduler priority;
+
+    @Setup
+    public void setUp() {
+        plan = ExecutionPlan.compile(SyntheticFlows.flow(shape, size, BenchmarkProcessors.NOOP));
+        serial = new SerialScheduler();
+        parallel = new ParallelScheduler(ForkJoinPool.commonPool());
+        priority = new PriorityScheduler(ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism(), null);
+    }
+
+    @Benchmark
+    public void serial(Blackhole bh) {
+        serial.schedule(plan, bh::consume);
+    }
+
+    @Benchmark
+    public void parallel(Blackhole bh) {
+        parallel.schedule(plan, bh::consume);
+    }
+
+    @Benchmark
+    public void priority(Blackhole bh) {
+        priority.schedule(plan, bh::consume);
+    }
+}
@@ -0,0 +1,72 @@
+package com.ums.bms.engine.benchmark;
+
+import com.ums.bms.engine.model.DAGGraph;
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.model.NodeType;
+import com.ums.bms.engine.parser.FlowConfig;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 生成合成的流程配置及其YAML文本
+ *
+ * @author violet
+ * @since 2025/5/26
+ */
+final class SyntheticFlows {
+
+    private SyntheticFlows() {}
+
+    /**
+     * @param shape     DAG形状
+     * @param size      节点数量
+     * @param processor 每个节点使用的处理器名称
+     * @return 流程配置
+     */
+    static FlowConfig flow(DagShape shape, int size, String processor) {
+        Map<String, Node> nodes = new LinkedHashMap<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            Node node = new Node();
+            node.setId(DagShape.id(i));
+            node.setName(node.getId());
+            node.setType(NodeType.PROCESSOR);
+            node.setProcessor(processor);
+            node.setDeps(shape.depIds(i, size));
+            nodes.put(node.getId(), node);
+        }
+        DAGGraph dag = new DAGGraph();
+        dag.setNodes(nodes);
+        return FlowConfig.builder()
+                .id(shape.name().toLowerCase() + "-" + size)
+                .name(shape.name())
+                .version("1")
+                .dag(dag)
+                .build();
+    }
+
+    /**
+     * 与{@link #flow(DagShape, int, String)}等价的YAML文本
+     */
+    static String yaml(DagShape shape, int size, String processor) {
+        StringBuilder yaml = new StringBuilder(size * 64)
+                .append("id: ").append(shape.name().toLowerCase()).append('-').append(size).append('\n')
+                .append("name: ").append(shape.name()).append('\n')
+                .append("version: \"1\"\n")
+                .append("dag:\n")
+                .append("  nodes:\n");
+        for (int i = 0; i < size; i++) {
+            String id = DagShape.id(i);
+            yaml.append("    - id: ").append(id).append('\n')
+                    .append("      name: ").append(id).append('\n')
+                    .append("      type: PROCESSOR\n")
+                    .append("      processor: ").append(processor).append('\n');
+            List<String> deps = shape.depIds(i, size);
+            if (!deps.isEmpty()) {
+                yaml.append("      deps: [").append(String.join(", ", deps)).append("]\n");
+            }
+        }
+        return yaml.toString();
+    }
+}
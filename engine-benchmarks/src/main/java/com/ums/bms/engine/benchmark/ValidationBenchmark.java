@@ -0,0 +1,62 @@
+package com.ums.bms.engine.benchmark;
+
+import com.ums.bms.engine.model.DAGGraph;
+import com.ums.bms.engine.model.DAGValidator;
+import com.ums.bms.engine.model.ValidationReport;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DAG校验与执行计划编译
+ *
+ * @author violet
+ * @since 2025/5/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+    @Param({"CHAIN", "FAN_OUT", "DIAMOND", "RANDOM_LAYERED"})
+    private DagShape shape;
+
+    @Param({"10", "1000", "10000", "100000"})
+    private int size;
+
+    private DAGGraph dag;
+
+    @Setup
+    public void setUp() {
+        dag = SyntheticFlows.flow(shape, size, BenchmarkProcessors.NOOP).getDag();
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return dag.validate();
+    }
+
+    @Benchmark
+    public ValidationReport report() {
+        return DAGValidator.validate(dag);
+    }
+
+    @Benchmark
+    public ExecutionPlan compile() {
+        return ExecutionPlan.compile(dag);
+    }
+}
@@ -1,21 +1,113 @@
 package com.ums.bms.engine;
 
+import com.ums.bms.engine.bulkhead.BulkheadRegistry;
+import com.ums.bms.engine.checkpoint.CheckpointStore;
+import com.ums.bms.engine.checkpoint.NodeRecord;
+import com.ums.bms.engine.checkpoint.RunCheckpoint;
+import com.ums.bms.engine.checkpoint.RunHeader;
+import com.ums.bms.engine.exception.FlowConfigParserException;
+import com.ums.bms.engine.jfr.FlowRunEvent;
+import com.ums.bms.engine.jfr.NodeExecutedEvent;
+import com.ums.bms.engine.jfr.NodeScheduledEvent;
+import com.ums.bms.engine.jfr.ProcessorInitialEvent;
+import com.ums.bms.engine.jfr.ProcessorProcessEvent;
+import com.ums.bms.engine.listener.ExecutionListener;
+import com.ums.bms.engine.listener.NodeTiming;
+import com.ums.bms.engine.memo.Memoizer;
 import com.ums.bms.engine.model.Context;
-import com.ums.bms.engine.model.DAGGraph;
+import com.ums.bms.engine.model.ExecutionMode;
 import com.ums.bms.engine.model.Node;
 import com.ums.bms.engine.parser.FlowConfig;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import com.ums.bms.engine.plan.NodeCondition;
+import com.ums.bms.engine.processor.Processor;
+import com.ums.bms.engine.processor.ProcessorLease;
+import com.ums.bms.engine.processor.ProcessorPool;
+import com.ums.bms.engine.processor.ProcessorRegistry;
+import com.ums.bms.engine.repository.CompiledFlow;
+import com.ums.bms.engine.repository.FlowRepository;
+import com.ums.bms.engine.runtime.ExecutionInstance;
+import com.ums.bms.engine.scheduler.ParallelScheduler;
+import com.ums.bms.engine.scheduler.PriorityScheduler;
+import com.ums.bms.engine.scheduler.Scheduler;
+import com.ums.bms.engine.scheduler.SerialScheduler;
+import com.ums.bms.engine.scheduler.StreamingScheduler;
+import com.ums.bms.engine.scheduler.VirtualThreadScheduler;
+import com.ums.bms.engine.stream.BatchProcessor;
+import com.ums.bms.engine.stream.StreamingPipeline;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * @author violet
  * @since 2025/4/27
  */
 @Slf4j
-public class Engine {
+public class Engine implements AutoCloseable {
+
+    private final ProcessorPool processorPool;
+    private final EngineConfig config;
+    private final ExecutionListener listener;
+    /* 未配置记忆化存储时为空 */
+    private final Memoizer memoizer;
+    /* 未配置检查点存储时为空 */
+    private final CheckpointStore checkpoints;
+    /* 按资源类别隔离的节点执行资源, 串行和流式模式不使用 */
+    private final BulkheadRegistry bulkheads;
+    private final Map<ExecutionMode, Scheduler> schedulers = new EnumMap<>(ExecutionMode.class);
+    /* 引擎为虚拟线程和流式模式创建的执行器, 关闭引擎时关闭; 配置传入的执行器由调用方关闭 */
+    private final List<ExecutorService> ownedExecutors = new ArrayList<>();
+    private boolean closed;
+
+    /**
+     * 使用ServiceLoader加载的处理器串行执行
+     */
+    public Engine() {
+        this(defaultRegistry(), ExecutionMode.SERIAL, null);
+    }
+
+    public Engine(ProcessorRegistry registry) {
+        this(registry, ExecutionMode.SERIAL, null);
+    }
+
+    /**
+     * @param registry 处理器注册表
+     * @param mode     执行模式
+     * @param executor 并行模式使用的执行器, 为空时使用{@link ForkJoinPool#commonPool()}, 由调用方负责关闭
+     */
+    public Engine(ProcessorRegistry registry, ExecutionMode mode, ExecutorService executor) {
+        this(registry, EngineConfig.builder().mode(mode).executor(executor).build());
+    }
+
+    public Engine(ProcessorRegistry registry, EngineConfig config) {
+        this.processorPool = new ProcessorPool(registry);
+        this.config = config;
+        ExecutionListener listener = config.getListener() != null ? config.getListener() : ExecutionListener.NOOP;
+        this.listener = config.getDurationStats() != null
+                ? ExecutionListener.composite(listener, config.getDurationStats())
+                : listener;
+        this.memoizer = config.getMemoStore() != null ? new Memoizer(config.getMemoStore()) : null;
+        this.checkpoints = config.getCheckpointStore();
+        this.bulkheads = new BulkheadRegistry(registry, config.getBulkheadConcurrency(),
+                config.getDefaultBulkheadConcurrency());
+    }
+
+    private static ProcessorRegistry defaultRegistry() {
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.registry();
+        return registry;
+    }
 
     /**
      * 执行流程
@@ -24,68 +116,458 @@ public class Engine {
      * @return 执行结果
      */
     public Map<String, Object> execute(FlowConfig flowConfig) {
-        Context ctx = new Context();
-        DAGGraph dag = flowConfig.getDag();
-        // 验证DAG是否有效
-        if (!dag.validate()) {
-            log.error("DAG validation failed for flow: {}", flowConfig.getName());
-            throw new RuntimeException("Invalid DAG configuration");
-        }
-        // 执行DAG
-        while (dag.isCompleted()) {
-            List<Node> readyNodes = dag.getReadyNodes();
-            if (readyNodes.isEmpty() && dag.isCompleted()) {
-                log.error("No nodes are ready to execute, but DAG is not completed. Possible deadlock.");
-                throw new RuntimeException("Execution deadlock detected");
-            }
-            // 执行所有就绪的节点
-            for (Node node : readyNodes) {
-                executeNode(node, ctx, dag, flowConfig.getGlobalParameters());
+        return execute(compile(flowConfig), null);
+    }
+
+    /**
+     * 只执行计算目标节点所需的节点, 即目标节点及其沿依赖可达的所有上游节点, 其余节点标记为SKIPPED
+     *
+     * @param flowConfig    流程配置
+     * @param targetNodeIds 目标节点ID
+     * @return 执行结果, 包含目标节点的结果
+     * @throws IllegalArgumentException 目标节点不存在时抛出
+     */
+    public Map<String, Object> execute(FlowConfig flowConfig, Set<String> targetNodeIds) {
+        return execute(compile(flowConfig), null, targetNodeIds);
+    }
+
+    /**
+     * 执行已编译的流程中计算目标节点所需的节点
+     *
+     * @param plan          执行计划
+     * @param parameters    本次运行覆盖的全局参数, 可以为空
+     * @param targetNodeIds 目标节点ID
+     * @return 执行结果, 包含目标节点的结果
+     */
+    public Map<String, Object> execute(ExecutionPlan plan, Map<String, Object> parameters, Set<String> targetNodeIds) {
+        return run(plan, parameters, targetNodeIds).getContext().getNodeResults();
+    }
+
+    /**
+     * 执行已编译的流程
+     *
+     * @param plan       执行计划
+     * @param parameters 本次运行覆盖的全局参数, 可以为空
+     * @return 执行结果, 默认只包含汇点和声明了retain参数的节点
+     * @see EngineConfig#isReleaseResults()
+     */
+    public Map<String, Object> execute(ExecutionPlan plan, Map<String, Object> parameters) {
+        // 上下文随运行结束而丢弃, 直接返回结果Map, 不再复制
+        return run(plan, parameters).getContext().getNodeResults();
+    }
+
+    /**
+     * 编译流程配置, 编译结果可以被多次并发执行
+     *
+     * @param flowConfig 流程配置
+     * @return 执行计划
+     */
+    public ExecutionPlan compile(FlowConfig flowConfig) {
+        // 编译DAG为执行计划, 同时校验依赖缺失和环
+        try {
+            return ExecutionPlan.compile(flowConfig);
+        } catch (FlowConfigParserException e) {
+            log.error("DAG validation failed for flow: {}", flowConfig.getName(), e);
+            throw new RuntimeException("Invalid DAG configuration", e);
+        }
+    }
+
+    /**
+     * 创建新的运行实例并执行
+     *
+     * @param plan       执行计划
+     * @param parameters 本次运行覆盖的全局参数, 可以为空
+     * @return 运行实例
+     */
+    public ExecutionInstance run(ExecutionPlan plan, Map<String, Object> parameters) {
+        return run(plan, parameters, null);
+    }
+
+    /**
+     * 创建新的运行实例, 只执行计算目标节点所需的节点
+     *
+     * @param plan          执行计划
+     * @param parameters    本次运行覆盖的全局参数, 可以为空
+     * @param targetNodeIds 目标节点ID, 为空时执行所有节点
+     * @return 运行实例, 不需要执行的节点为SKIPPED
+     */
+    public ExecutionInstance run(ExecutionPlan plan, Map<String, Object> parameters, Set<String> targetNodeIds) {
+        ExecutionInstance instance = newInstance(UUID.randomUUID().toString(), plan, parameters, targetNodeIds);
+        run(instance);
+        return instance;
+    }
+
+    /**
+     * 按引擎配置的结果存储创建运行实例, 不执行
+     *
+     * @param runId         运行ID
+     * @param plan          执行计划
+     * @param parameters    本次运行覆盖的全局参数, 可以为空
+     * @param targetNodeIds 目标节点ID, 为空时执行所有节点
+     * @return 运行实例
+     * @throws IllegalArgumentException 目标节点不存在时抛出
+     */
+    public ExecutionInstance newInstance(String runId, ExecutionPlan plan, Map<String, Object> parameters,
+                                         Set<String> targetNodeIds) {
+        ExecutionInstance instance = new ExecutionInstance(runId, plan, parameters,
+                config.getResultStore().apply(plan.size()));
+        if (targetNodeIds != null) {
+            instance.selectTargets(targetNodeIds);
+        }
+        return instance;
+    }
+
+    /**
+     * 从检查点恢复失败的运行, 只重新执行未完成(FAILED/PENDING)的节点
+     *
+     * @param runId 运行ID
+     * @param plan  运行使用的执行计划, 流程ID和版本必须与检查点一致
+     * @return 运行实例, 运行ID与原运行相同
+     * @throws IllegalStateException 未配置检查点存储或检查点与执行计划不一致时抛出
+     */
+    public ExecutionInstance resume(String runId, ExecutionPlan plan) {
+        RunCheckpoint checkpoint = checkpoint(runId);
+        RunHeader header = checkpoint.header();
+        if (!Objects.equals(header.flowId(), plan.flowId()) || !Objects.equals(header.version(), plan.version())) {
+            throw new IllegalStateException("Checkpoint of run " + runId + " belongs to flow "
+                    + header.flowId() + ":" + header.version() + ", not " + plan.flowId() + ":" + plan.version());
+        }
+        ExecutionInstance instance = new ExecutionInstance(runId, plan, header.parameters(),
+                config.getResultStore().apply(plan.size()));
+        if (header.targets() != null) {
+            instance.selectTargets(header.targets());
+        }
+        int restored = checkpoint.restore(instance);
+        log.info("Resuming run {} of flow {}:{}, {} of {} nodes restored", runId, plan.flowId(), plan.version(),
+                restored, plan.size());
+        run(instance, true);
+        return instance;
+    }
+
+    /**
+     * 从检查点恢复失败的运行, 执行计划按检查点记录的流程ID和版本从仓库中查找
+     *
+     * @param runId 运行ID
+     * @param flows 流程仓库
+     * @return 运行实例
+     */
+    public ExecutionInstance resume(String runId, FlowRepository flows) {
+        RunHeader header = checkpoint(runId).header();
+        CompiledFlow flow = flows.get(header.flowId(), header.version());
+        if (flow == null) {
+            throw new IllegalStateException("Flow " + header.flowId() + ":" + header.version()
+                    + " of run " + runId + " is not loaded");
+        }
+        return resume(runId, flow.plan());
+    }
+
+    private RunCheckpoint checkpoint(String runId) {
+        if (checkpoints == null) {
+            throw new IllegalStateException("Checkpoint store is not configured");
+        }
+        RunCheckpoint checkpoint = checkpoints.load(runId);
+        if (checkpoint == null) {
+            throw new IllegalStateException("No checkpoint found for run " + runId);
+        }
+        return checkpoint;
+    }
+
+    /**
+     * 执行运行实例
+     *
+     * @param instance 运行实例
+     * @throws java.util.concurrent.CancellationException 运行被{@link ExecutionInstance#cancel()}取消时抛出
+     */
+    public void run(ExecutionInstance instance) {
+        run(instance, false);
+    }
+
+    private void run(ExecutionInstance instance, boolean resumed) {
+        ExecutionPlan plan = instance.getPlan();
+        ExecutionMode mode = plan.executionMode() != null ? plan.executionMode() : config.getMode();
+        // 运行前已处于终止状态的节点(从检查点恢复或不在目标节点的祖先闭包中)不再执行, 也不触发节点事件
+        boolean[] settled = new boolean[plan.size()];
+        for (int i = 0; i < settled.length; i++) {
+            settled[i] = instance.getStatus(i) != Node.NodeStatus.PENDING;
+        }
+        StreamingPipeline pipeline = mode == ExecutionMode.STREAMING
+                ? new StreamingPipeline(plan, config.getStreamBufferSize(), ordinal -> !settled[ordinal])
+                : null;
+        // 就绪时间由调度线程写入, 调度器保证其先于节点任务发生
+        long[] readyNanos = new long[plan.size()];
+        if (checkpoints != null && resumed) {
+            checkpoints.resume(instance.getRunId());
+        } else if (checkpoints != null) {
+            checkpoints.begin(new RunHeader(instance.getRunId(), plan.flowId(), plan.version(),
+                    new HashMap<>(instance.getContext().getGlobalParameters()), instance.getTargets()));
+        }
+        FlowRunEvent event = new FlowRunEvent();
+        event.begin();
+        listener.runStarted(instance);
+        try {
+            scheduler(mode).schedule(plan,
+                    ordinal -> {
+                        // 取消只在节点任务中检查, 所有调度器都把节点任务的异常作为调度失败处理
+                        if (settled[ordinal]) {
+                            return;
+                        }
+                        readyNanos[ordinal] = System.nanoTime();
+                        NodeScheduledEvent scheduled = NodeScheduledEvent.start();
+                        if (scheduled != null) {
+                            scheduled.commit(instance, plan.node(ordinal));
+                        }
+                        listener.nodeReady(instance, ordinal);
+                    },
+                    ordinal -> {
+                        if (instance.isCancelled()) {
+                            throw new CancellationException("Run " + instance.getRunId() + " cancelled");
+                        }
+                        if (settled[ordinal]) {
+                            if (pipeline == null && config.isReleaseResults()) {
+                                releaseInputs(instance, ordinal);
+                            }
+                            return;
+                        }
+                        executeNode(instance, ordinal, pipeline, readyNanos[ordinal]);
+                    });
+        } catch (RuntimeException | Error e) {
+            event.commit(instance, mode, true);
+            if (checkpoints != null) {
+                checkpoints.finish(instance.getRunId(), false);
             }
+            listener.runFinished(instance, e);
+            throw e;
+        }
+        event.commit(instance, mode, false);
+        if (checkpoints != null) {
+            checkpoints.finish(instance.getRunId(), true);
         }
-        return new HashMap<>(ctx.getNodeResults());
+        listener.runFinished(instance, null);
     }
 
     /**
      * 执行单个节点
      *
-     * @param node             节点
-     * @param dag              DAG
-     * @param globalParameters 全局参数
+     * @param instance   运行实例
+     * @param ordinal    节点序号
+     * @param pipeline   流式流水线, 非流式模式为空
+     * @param readyNanos 节点进入就绪队列的时间
      */
-    private void executeNode(Node node, Context ctx, DAGGraph dag, Map<String, Object> globalParameters) {
+    private void executeNode(ExecutionInstance instance, int ordinal, StreamingPipeline pipeline, long readyNanos) {
+        Node node = instance.getPlan().node(ordinal);
+        Context ctx = instance.getContext();
+        long startNanos = System.nanoTime();
+        long initialNanos = startNanos;
+        long processNanos = startNanos;
+        NodeExecutedEvent event = NodeExecutedEvent.start();
         try {
+            if (skipped(instance, ordinal, pipeline)) {
+                if (pipeline != null) {
+                    pipeline.skip(ordinal);
+                } else if (config.isReleaseResults()) {
+                    releaseInputs(instance, ordinal);
+                }
+                instance.setStatus(ordinal, Node.NodeStatus.SKIPPED);
+                executed(event, instance, node, Node.NodeStatus.SKIPPED, startNanos - readyNanos);
+                nodeFinished(instance, ordinal, readyNanos, startNanos, initialNanos, processNanos, null, null);
+                log.info("Node skipped: {}", node.getId());
+                return;
+            }
             log.info("Executing node: {}", node.getId());
-            node.setStatus(Node.NodeStatus.RUNNING);
+            instance.setStatus(ordinal, Node.NodeStatus.RUNNING);
+            listener.nodeStarted(instance, ordinal);
 
-            // 获取节点依赖的输入数据
-            Map<String, Object> inputs = new HashMap<>();
-            for (String depId : node.getDeps()) {
-                inputs.put(depId, ctx.getNodeResults().get(depId));
+            // 执行节点对应的处理器, 未配置处理器的节点没有输出, 流式模式下原样转发记录
+            // 流式节点的结果为输出的记录数, 非流式的批量节点结果为输出记录列表
+            Object result = null;
+            // 命中记忆化缓存时不再执行处理器, 流式节点的结果是输出记录数, 不参与记忆化
+            String memoKey = memoizer != null && pipeline == null ? memoizer.key(node, ctx) : null;
+            boolean memoHit = false;
+            if (memoKey != null) {
+                result = memoizer.get(memoKey);
+                memoHit = result != null;
+                listener.nodeMemoized(instance, ordinal, memoHit);
+            }
+            ProcessorLease lease = memoHit ? null : processorPool.acquire(node);
+            if (lease != null) {
+                try {
+                    Processor<?> processor = lease.processor();
+                    processor.beforeProcess(node);
+                    ProcessorInitialEvent initialEvent = ProcessorInitialEvent.start();
+                    lease.initial(node, ctx);
+                    if (initialEvent != null) {
+                        initialEvent.commit(instance, node);
+                    }
+                    initialNanos = System.nanoTime();
+                    ProcessorProcessEvent processEvent = ProcessorProcessEvent.start();
+                    if (pipeline != null) {
+                        result = pipeline.run(ordinal, processor, ctx);
+                    } else if (processor instanceof BatchProcessor<?, ?> batchProcessor) {
+                        result = StreamingPipeline.runCollected(batchProcessor, node, ctx);
+                    } else {
+                        result = processor.process(ctx);
+                    }
+                    if (processEvent != null) {
+                        processEvent.commit(instance, node);
+                    }
+                    processNanos = System.nanoTime();
+                    processor.afterProcess(node);
+                } catch (Exception e) {
+                    lease.invalidate();
+                    throw e;
+                } finally {
+                    lease.close();
+                }
+            } else if (pipeline != null) {
+                initialNanos = System.nanoTime();
+                result = pipeline.run(ordinal, null, ctx);
+                processNanos = System.nanoTime();
             }
 
-            // 根据节点类型执行不同的操作
-            Object result = null;
-            switch (node.getType()) {
-                case SOURCE:
-                    break;
-                case PROCESSOR:
-                    break;
-                case SINK:
-                    break;
-                default:
-                    throw new RuntimeException("Unknown node type: " + node.getType());
+            if (memoKey != null && !memoHit && result != null) {
+                memoizer.put(memoKey, result);
             }
 
-            // 存储节点执行结果
-            ctx.setNodeResult(node.getId(), result);
-            node.setStatus(Node.NodeStatus.COMPLETED);
-            log.info("Node completed: {}", node.getId());
+            // 存储节点执行结果, 释放所有下游都已完成的上游结果
+            ctx.setResult(ordinal, result);
+            if (checkpoints != null && pipeline == null) {
+                checkpoints.append(instance.getRunId(), new NodeRecord(node.getId(), Node.NodeStatus.COMPLETED, result));
+            }
+            if (pipeline == null && config.isReleaseResults()) {
+                releaseInputs(instance, ordinal);
+            }
+            instance.setStatus(ordinal, Node.NodeStatus.COMPLETED);
+            executed(event, instance, node, Node.NodeStatus.COMPLETED, startNanos - readyNanos);
+            nodeFinished(instance, ordinal, readyNanos, startNanos, initialNanos, processNanos, result, null);
+            log.info(memoHit ? "Node completed from memo: {}" : "Node completed: {}", node.getId());
         } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             log.error("Error executing node: " + node.getId(), e);
-            node.setStatus(Node.NodeStatus.FAILED);
+            instance.setStatus(ordinal, Node.NodeStatus.FAILED);
+            if (checkpoints != null && pipeline == null) {
+                appendFailure(instance, node);
+            }
+            executed(event, instance, node, Node.NodeStatus.FAILED, startNanos - readyNanos);
+            nodeFinished(instance, ordinal, readyNanos, startNanos, initialNanos, processNanos, null, e);
             throw new RuntimeException("Error executing node: " + node.getId(), e);
         }
     }
 
+    /**
+     * 所有依赖都被跳过或执行条件不满足时跳过节点. 流式模式下依赖同时运行, 只按条件判断
+     */
+    private static boolean skipped(ExecutionInstance instance, int ordinal, StreamingPipeline pipeline) {
+        ExecutionPlan plan = instance.getPlan();
+        int[] predecessors = plan.predecessors(ordinal);
+        if (pipeline == null && predecessors.length > 0) {
+            boolean allSkipped = true;
+            for (int predecessor : predecessors) {
+                if (instance.getStatus(predecessor) != Node.NodeStatus.SKIPPED) {
+                    allSkipped = false;
+                    break;
+                }
+            }
+            if (allSkipped) {
+                return true;
+            }
+        }
+        NodeCondition condition = plan.condition(ordinal);
+        return condition != null && !condition.test(plan.node(ordinal), ordinal, instance.getContext());
+    }
+
+    private void appendFailure(ExecutionInstance instance, Node node) {
+        // 失败记录只用于排查, 写入失败不能掩盖节点本身的异常
+        try {
+            checkpoints.append(instance.getRunId(), new NodeRecord(node.getId(), Node.NodeStatus.FAILED, null));
+        } catch (RuntimeException e) {
+            log.warn("Failed to checkpoint failure of node {} in run {}", node.getId(), instance.getRunId(), e);
+        }
+    }
+
+    /**
+     * 流式模式下上游可能在下游结束之后才写入结果(输出记录数), 因此只在非流式模式下释放
+     */
+    private static void releaseInputs(ExecutionInstance instance, int ordinal) {
+        ExecutionPlan plan = instance.getPlan();
+        for (int predecessor : plan.predecessors(ordinal)) {
+            if (instance.consumerDone(predecessor) && !instance.retained(predecessor)) {
+                instance.getContext().setResult(predecessor, null);
+            }
+        }
+    }
+
+    private static void executed(NodeExecutedEvent event, ExecutionInstance instance, Node node,
+                                 Node.NodeStatus status, long queueNanos) {
+        if (event != null) {
+            event.commit(instance, node, status, queueNanos);
+        }
+    }
+
+    /**
+     * 通知监听器节点结束, 没有监听器时不创建{@link NodeTiming}
+     */
+    private void nodeFinished(ExecutionInstance instance, int ordinal, long readyNanos, long startNanos,
+                              long initialNanos, long processNanos, Object result, Throwable error) {
+        if (listener == ExecutionListener.NOOP) {
+            return;
+        }
+        // 失败时未执行到的阶段耗时记为0
+        long endNanos = System.nanoTime();
+        initialNanos = Math.max(initialNanos, startNanos);
+        processNanos = Math.max(processNanos, initialNanos);
+        listener.nodeFinished(instance, ordinal,
+                new NodeTiming(readyNanos, startNanos, initialNanos, processNanos, endNanos), result, error);
+    }
+
+    public ProcessorPool getProcessorPool() {
+        return processorPool;
+    }
+
+    /**
+     * 资源类别隔离舱, 用于查看饱和度或注册指标
+     */
+    public BulkheadRegistry getBulkheads() {
+        return bulkheads;
+    }
+
+    private synchronized Scheduler scheduler(ExecutionMode mode) {
+        if (closed) {
+            throw new IllegalStateException("Engine is closed");
+        }
+        return schedulers.computeIfAbsent(mode, it -> switch (it) {
+            case SERIAL -> new SerialScheduler();
+            case PARALLEL -> new ParallelScheduler(
+                    config.getExecutor() != null ? config.getExecutor() : ForkJoinPool.commonPool(), bulkheads);
+            case VIRTUAL -> new VirtualThreadScheduler(ownedExecutor(),
+                    config.getProcessorConcurrency(), config.getProcessorConcurrencyOverrides(), bulkheads);
+            case PRIORITY -> new PriorityScheduler(
+                    config.getExecutor() != null ? config.getExecutor() : ForkJoinPool.commonPool(),
+                    config.getPriorityParallelism(), config.getDurationStats(), bulkheads);
+            case STREAMING -> new StreamingScheduler(ownedExecutor());
+        });
+    }
+
+    private ExecutorService ownedExecutor() {
+        ExecutorService executor = VirtualThreadScheduler.newVirtualThreadExecutor();
+        ownedExecutors.add(executor);
+        return executor;
+    }
+
+    /**
+     * 关闭引擎创建的执行器和隔离舱线程池, 执行中的运行会继续完成; 关闭后不能再执行运行
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        ownedExecutors.forEach(ExecutorService::shutdown);
+        ownedExecutors.clear();
+        schedulers.clear();
+        bulkheads.close();
+    }
+
 }
@@ -0,0 +1,69 @@
+package com.ums.bms.engine;
+
+import com.ums.bms.engine.checkpoint.CheckpointStore;
+import com.ums.bms.engine.listener.ExecutionListener;
+import com.ums.bms.engine.memo.MemoStore;
+import com.ums.bms.engine.model.ExecutionMode;
+import com.ums.bms.engine.scheduler.NodeDurationStats;
+import com.ums.bms.engine.store.HeapResultStore;
+import com.ums.bms.engine.store.ResultStore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.function.IntFunction;
+
+/**
+ * 执行引擎配置
+ *
+ * @author violet
+ * @since 2025/5/8
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EngineConfig {
+    /* 流程未指定执行模式时使用的默认模式 */
+    @Builder.Default
+    private ExecutionMode mode = ExecutionMode.SERIAL;
+    /* 并行和关键路径优先模式使用的执行器, 为空时使用ForkJoinPool.commonPool(), 由调用方负责关闭 */
+    private ExecutorService executor;
+    /* 虚拟线程模式下每种处理器的默认最大并发数 */
+    @Builder.Default
+    private int processorConcurrency = 256;
+    /* 虚拟线程模式下按处理器名称覆盖的最大并发数 */
+    @Builder.Default
+    private Map<String, Integer> processorConcurrencyOverrides = new HashMap<>();
+    /* 按资源类别配置的隔离舱最大并发数, 优先于节点参数max-concurrency和@ResourceClass注解 */
+    @Builder.Default
+    private Map<String, Integer> bulkheadConcurrency = new HashMap<>();
+    /* 资源类别未声明最大并发数时的默认值 */
+    @Builder.Default
+    private int defaultBulkheadConcurrency = Runtime.getRuntime().availableProcessors();
+    /* 关键路径优先模式的最大并发节点数 */
+    @Builder.Default
+    private int priorityParallelism = Runtime.getRuntime().availableProcessors();
+    /* 节点耗时统计, 用于关键路径优先模式的路径加权, 为空时按节点数计算路径长度 */
+    private NodeDurationStats durationStats;
+    /* 流式模式下节点输入缓冲区的默认记录数, 可以通过节点参数buffer-size覆盖 */
+    @Builder.Default
+    private int streamBufferSize = 1024;
+    /* 节点的所有下游完成后从上下文中释放其结果, 汇点和声明retain参数的节点除外; 流式模式下不释放 */
+    @Builder.Default
+    private boolean releaseResults = true;
+    /* 每次运行按节点数量创建的结果存储, 大结果可以使用SpillingResultStore溢出到内存映射文件 */
+    @Builder.Default
+    private IntFunction<ResultStore> resultStore = HeapResultStore::new;
+    /* 节点结果的记忆化存储, 为空时不启用; 只对声明了memoize参数的节点生效, 流式模式下不生效 */
+    private MemoStore memoStore;
+    /* 运行检查点存储, 为空时不写检查点; 流式模式下节点结果不写入检查点 */
+    private CheckpointStore checkpointStore;
+    /* 执行事件监听器, 多个监听器使用ExecutionListener.composite组合 */
+    @Builder.Default
+    private ExecutionListener listener = ExecutionListener.NOOP;
+}
@@ -0,0 +1,139 @@
+package com.ums.bms.engine.bulkhead;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 资源类别的隔离舱
+ * <p>
+ * 平台线程调度器把节点派发到隔离舱独占的固定大小线程池, 等待中的节点只占用队列, 不会阻塞其他类别的工作线程;
+ * 虚拟线程调度器中每个节点已有独立线程, 隔离舱退化为许可池. 两种方式共享同一组统计.
+ *
+ * @author violet
+ * @since 2025/6/19
+ */
+public class Bulkhead implements AutoCloseable {
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final String name;
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final ThreadPoolExecutor pool;
+    private final Executor executor = this::dispatch;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger peakActive = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    /**
+     * @param name           资源类别
+     * @param maxConcurrency 最大并发数
+     */
+    public Bulkhead(String name, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency of bulkhead " + name + " must be positive: " + maxConcurrency);
+        }
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency);
+        // 空闲线程超时退出, 不使用的类别不占用线程
+        this.pool = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory(name));
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * 派发到隔离舱线程池的执行器
+     */
+    public Executor executor() {
+        return executor;
+    }
+
+    /**
+     * 获取许可, 用于已经运行在独立线程上的节点
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    public void acquire() throws InterruptedException {
+        waiting.incrementAndGet();
+        long enqueued = System.nanoTime();
+        try {
+            permits.acquire();
+        } finally {
+            waiting.decrementAndGet();
+        }
+        waitNanos.add(System.nanoTime() - enqueued);
+        enter();
+    }
+
+    /**
+     * 释放{@link #acquire()}获取的许可
+     */
+    public void release() {
+        exit();
+        permits.release();
+    }
+
+    public BulkheadStats stats() {
+        return new BulkheadStats(name, maxConcurrency, active.get(), waiting.get(), peakActive.get(),
+                completed.sum(), waitNanos.sum());
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private void dispatch(Runnable task) {
+        waiting.incrementAndGet();
+        long enqueued = System.nanoTime();
+        try {
+            pool.execute(() -> {
+                waiting.decrementAndGet();
+                waitNanos.add(System.nanoTime() - enqueued);
+                enter();
+                try {
+                    task.run();
+                } finally {
+                    exit();
+                }
+            });
+        } catch (RuntimeException e) {
+            waiting.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void enter() {
+        peakActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+    }
+
+    private void exit() {
+        active.decrementAndGet();
+        completed.increment();
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "bulkhead-" + name + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
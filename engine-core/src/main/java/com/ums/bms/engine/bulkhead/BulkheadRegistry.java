@@ -0,0 +1,142 @@
+package com.ums.bms.engine.bulkhead;
+
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import com.ums.bms.engine.processor.ProcessorDefinition;
+import com.ums.bms.engine.processor.ProcessorRegistry;
+import com.ums.bms.engine.processor.ResourceClass;
+import com.ums.bms.engine.utils.ParameterUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 按资源类别管理隔离舱
+ * <p>
+ * 节点的资源类别依次取节点参数{@value #RESOURCE_CLASS}和处理器上的{@link ResourceClass}注解,
+ * 最大并发数依次取引擎配置、节点参数{@value #MAX_CONCURRENCY}、注解和默认值. 隔离舱在第一次使用时创建,
+ * 每个执行计划的节点解析结果缓存到计划被回收为止.
+ *
+ * @author violet
+ * @since 2025/6/19
+ */
+@Slf4j
+public class BulkheadRegistry implements BulkheadResolver, AutoCloseable {
+    /* 节点参数, 资源类别 */
+    public static final String RESOURCE_CLASS = "resource-class";
+    /* 节点参数, 资源类别的最大并发数 */
+    public static final String MAX_CONCURRENCY = "max-concurrency";
+
+    private final ProcessorRegistry processors;
+    private final Map<String, Integer> limits;
+    private final int defaultConcurrency;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final Map<ExecutionPlan, Bulkhead[]> resolved = Collections.synchronizedMap(new WeakHashMap<>());
+    private final List<Consumer<Bulkhead>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param processors         处理器注册表, 用于读取处理器上的注解
+     * @param limits             按资源类别配置的最大并发数, 优先于节点参数和注解
+     * @param defaultConcurrency 未声明最大并发数时的默认值
+     */
+    public BulkheadRegistry(ProcessorRegistry processors, Map<String, Integer> limits, int defaultConcurrency) {
+        if (defaultConcurrency <= 0) {
+            throw new IllegalArgumentException("defaultConcurrency must be positive: " + defaultConcurrency);
+        }
+        this.processors = processors;
+        this.limits = limits == null ? Map.of() : Map.copyOf(limits);
+        this.defaultConcurrency = defaultConcurrency;
+    }
+
+    @Override
+    public Bulkhead bulkhead(ExecutionPlan plan, int ordinal) {
+        Bulkhead[] nodes = resolved.get(plan);
+        if (nodes == null) {
+            // 并发解析结果相同, 重复计算无副作用
+            nodes = resolve(plan);
+            resolved.put(plan, nodes);
+        }
+        return nodes[ordinal];
+    }
+
+    /**
+     * 获取或创建隔离舱
+     *
+     * @param name           资源类别
+     * @param maxConcurrency 声明的最大并发数, 小于等于0时使用默认值
+     */
+    public Bulkhead bulkhead(String name, int maxConcurrency) {
+        Bulkhead bulkhead = bulkheads.get(name);
+        if (bulkhead != null) {
+            return bulkhead;
+        }
+        boolean[] created = new boolean[1];
+        bulkhead = bulkheads.computeIfAbsent(name, key -> {
+            created[0] = true;
+            return new Bulkhead(key, limits.getOrDefault(key, maxConcurrency > 0 ? maxConcurrency : defaultConcurrency));
+        });
+        if (created[0]) {
+            log.info("Created bulkhead {} with max concurrency {}", name, bulkhead.getMaxConcurrency());
+            for (Consumer<Bulkhead> listener : listeners) {
+                listener.accept(bulkhead);
+            }
+        }
+        return bulkhead;
+    }
+
+    /**
+     * 所有隔离舱的饱和度快照
+     */
+    public List<BulkheadStats> stats() {
+        List<BulkheadStats> stats = new ArrayList<>(bulkheads.size());
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            stats.add(bulkhead.stats());
+        }
+        return stats;
+    }
+
+    /**
+     * 监听隔离舱的创建, 已创建的隔离舱立即回调
+     */
+    public void onCreated(Consumer<Bulkhead> listener) {
+        listeners.add(listener);
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            listener.accept(bulkhead);
+        }
+    }
+
+    @Override
+    public void close() {
+        bulkheads.values().forEach(Bulkhead::close);
+    }
+
+    private Bulkhead[] resolve(ExecutionPlan plan) {
+        Bulkhead[] nodes = new Bulkhead[plan.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = resolve(plan.node(i));
+        }
+        return nodes;
+    }
+
+    private Bulkhead resolve(Node node) {
+        Object declared = node.getParameter(RESOURCE_CLASS);
+        int maxConcurrency = ParameterUtil.intValue(node, MAX_CONCURRENCY, 0);
+        String name = declared == null ? null : declared.toString().trim();
+        if (name == null && node.getProcessor() != null) {
+            ProcessorDefinition definition = processors.getDefinition(node.getProcessor());
+            ResourceClass annotation = definition == null ? null : definition.getType().getAnnotation(ResourceClass.class);
+            if (annotation != null) {
+                name = annotation.value();
+                maxConcurrency = maxConcurrency > 0 ? maxConcurrency : annotation.maxConcurrency();
+            }
+        }
+        return name == null || name.isEmpty() ? null : bulkhead(name, maxConcurrency);
+    }
+}
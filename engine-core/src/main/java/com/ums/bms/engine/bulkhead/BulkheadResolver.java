@@ -0,0 +1,20 @@
+package com.ums.bms.engine.bulkhead;
+
+import com.ums.bms.engine.plan.ExecutionPlan;
+
+/**
+ * 查找节点所属的隔离舱
+ *
+ * @author violet
+ * @since 2025/6/19
+ */
+@FunctionalInterface
+public interface BulkheadResolver {
+
+    /**
+     * @param plan    执行计划
+     * @param ordinal 节点序号
+     * @return 隔离舱, 节点未声明资源类别时为空
+     */
+    Bulkhead bulkhead(ExecutionPlan plan, int ordinal);
+}
@@ -0,0 +1,32 @@
+package com.ums.bms.engine.bulkhead;
+
+/**
+ * 隔离舱的饱和度快照
+ *
+ * @param name           资源类别
+ * @param maxConcurrency 最大并发数
+ * @param active         执行中的节点数
+ * @param waiting        等待执行的节点数
+ * @param peakActive     执行中节点数的峰值
+ * @param completed      已完成的节点数
+ * @param waitNanos      累计等待时间
+ * @author violet
+ * @since 2025/6/19
+ */
+public record BulkheadStats(String name, int maxConcurrency, int active, int waiting, int peakActive,
+                            long completed, long waitNanos) {
+
+    /**
+     * 执行中的节点数占最大并发数的比例, 有节点等待时说明已饱和
+     */
+    public double saturation() {
+        return (double) active / maxConcurrency;
+    }
+
+    /**
+     * 已完成节点的平均等待时间
+     */
+    public double averageWaitNanos() {
+        return completed == 0 ? 0 : (double) waitNanos / completed;
+    }
+}
@@ -0,0 +1,51 @@
+package com.ums.bms.engine.checkpoint;
+
+/**
+ * 运行检查点存储
+ * <p>
+ * 按运行ID追加写入节点的终止状态和结果, 失败的运行可以通过{@code Engine.resume}从已完成的节点继续执行.
+ * 并行模式下同一运行的记录会被多个线程并发追加, 实现必须线程安全.
+ *
+ * @author violet
+ * @since 2025/6/9
+ */
+public interface CheckpointStore {
+
+    /**
+     * 开始新的运行, 覆盖同一运行ID已有的检查点
+     *
+     * @param header 运行信息
+     */
+    void begin(RunHeader header);
+
+    /**
+     * 恢复运行, 之后的记录继续追加到已有的检查点
+     *
+     * @param runId 运行ID
+     */
+    void resume(String runId);
+
+    /**
+     * 追加节点记录, 方法返回时记录已持久化
+     *
+     * @param runId  运行ID
+     * @param record 节点记录
+     */
+    void append(String runId, NodeRecord record);
+
+    /**
+     * 读取运行的检查点, 同一节点以最后一条记录为准
+     *
+     * @param runId 运行ID
+     * @return 检查点, 不存在时为空
+     */
+    RunCheckpoint load(String runId);
+
+    /**
+     * 运行结束, 释放运行占用的资源
+     *
+     * @param runId     运行ID
+     * @param succeeded 是否成功, 成功的运行不再需要恢复, 检查点可以删除
+     */
+    void finish(String runId, boolean succeeded);
+}
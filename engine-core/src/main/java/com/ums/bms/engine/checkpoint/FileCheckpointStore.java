@@ -0,0 +1,267 @@
+package com.ums.bms.engine.checkpoint;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * 本地追加写文件检查点
+ * <p>
+ * 每个运行一个文件, 记录以{@code [长度][CRC32][Java序列化数据]}的帧追加写入, 第一帧为{@link RunHeader}.
+ * 开启同步时每次追加后调用{@link FileChannel#force(boolean)}, 进程崩溃后已返回的记录不会丢失;
+ * 崩溃时写了一半的末尾帧在读取时通过长度和校验和识别并丢弃.
+ * <p>
+ * 结果不可序列化的节点不写入记录, 恢复时重新执行.
+ * <p>
+ * 运行ID只能包含字母、数字和{@code . _ -}, 不能逃出检查点目录. 读取时按白名单反序列化,
+ * 默认只允许{@code java.base}和检查点记录类型, 其他结果类型需要通过构造参数放行;
+ * 被拒绝的节点记录会被丢弃, 恢复时重新执行该节点.
+ *
+ * @author violet
+ * @since 2025/6/9
+ */
+@Slf4j
+public class FileCheckpointStore implements CheckpointStore {
+    private static final String SUFFIX = ".ckpt";
+    private static final int FRAME_HEADER = Integer.BYTES * 2;
+    private static final Pattern RUN_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,127}");
+    /* 默认允许反序列化的类型, 末尾的!*拒绝其他所有类型 */
+    private static final String DEFAULT_FILTER = "maxdepth=64;java.base/*;"
+            + "com.ums.bms.engine.checkpoint.RunHeader;com.ums.bms.engine.checkpoint.NodeRecord;"
+            + "com.ums.bms.engine.model.Node$NodeStatus";
+
+    private final Path directory;
+    private final boolean sync;
+    private final ObjectInputFilter filter;
+    private final Map<String, FileChannel> channels = new ConcurrentHashMap<>();
+
+    public FileCheckpointStore(Path directory) {
+        this(directory, true);
+    }
+
+    /**
+     * @param directory 检查点目录, 不存在时创建
+     * @param sync      每次追加后是否同步到磁盘
+     */
+    public FileCheckpointStore(Path directory, boolean sync) {
+        this(directory, sync, null);
+    }
+
+    /**
+     * @param directory      检查点目录, 不存在时创建
+     * @param sync           每次追加后是否同步到磁盘
+     * @param allowedClasses 额外允许反序列化的结果类型, {@link ObjectInputFilter.Config#createFilter(String)}格式,
+     *                       例如{@code com.example.model.*}, 为空时只允许默认类型
+     */
+    public FileCheckpointStore(Path directory, boolean sync, String allowedClasses) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create checkpoint directory " + directory, e);
+        }
+        this.directory = directory.toAbsolutePath().normalize();
+        this.sync = sync;
+        this.filter = ObjectInputFilter.Config.createFilter(DEFAULT_FILTER
+                + (allowedClasses == null || allowedClasses.isBlank() ? "" : ";" + allowedClasses) + ";!*");
+    }
+
+    @Override
+    public void begin(RunHeader header) {
+        byte[] frame;
+        try {
+            frame = frame(header);
+        } catch (NotSerializableException e) {
+            throw new IllegalArgumentException("Checkpoint requires serializable global parameters: " + e.getMessage(), e);
+        }
+        closeChannel(header.runId());
+        try {
+            FileChannel channel = FileChannel.open(file(header.runId()), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            channels.put(header.runId(), channel);
+            write(channel, frame);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to begin checkpoint of run " + header.runId(), e);
+        }
+    }
+
+    @Override
+    public void resume(String runId) {
+        closeChannel(runId);
+        try {
+            channels.put(runId, openAppend(runId));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open checkpoint of run " + runId, e);
+        }
+    }
+
+    @Override
+    public void append(String runId, NodeRecord record) {
+        byte[] frame;
+        try {
+            frame = frame(record);
+        } catch (NotSerializableException e) {
+            log.warn("Skip checkpoint of node {} in run {}, result is not serializable: {}",
+                    record.nodeId(), runId, e.getMessage());
+            return;
+        }
+        try {
+            FileChannel channel = channels.get(runId);
+            if (channel != null) {
+                write(channel, frame);
+                return;
+            }
+            // 运行已结束(例如失败后仍在执行的并行节点), 单独追加这一条记录
+            try (FileChannel late = openAppend(runId)) {
+                write(late, frame);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to checkpoint node " + record.nodeId() + " of run " + runId, e);
+        }
+    }
+
+    @Override
+    public RunCheckpoint load(String runId) {
+        byte[] data;
+        try {
+            data = Files.readAllBytes(file(runId));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read checkpoint of run " + runId, e);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        RunHeader header = null;
+        Map<String, NodeRecord> nodes = new LinkedHashMap<>();
+        while (buffer.remaining() >= FRAME_HEADER) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                log.warn("Checkpoint of run {} has a truncated tail, ignoring {} bytes", runId, buffer.remaining());
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data, buffer.position(), length);
+            if ((int) crc.getValue() != checksum) {
+                log.warn("Checkpoint of run {} has a corrupt frame at {}, ignoring the rest", runId,
+                        buffer.position() - FRAME_HEADER);
+                break;
+            }
+            Object value = read(runId, data, buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            if (value instanceof RunHeader runHeader) {
+                header = runHeader;
+            } else if (value instanceof NodeRecord record) {
+                nodes.put(record.nodeId(), record);
+            }
+        }
+        if (header == null) {
+            return null;
+        }
+        return new RunCheckpoint(header, nodes);
+    }
+
+    @Override
+    public void finish(String runId, boolean succeeded) {
+        closeChannel(runId);
+        if (succeeded) {
+            try {
+                Files.deleteIfExists(file(runId));
+            } catch (IOException e) {
+                log.warn("Failed to delete checkpoint of run {}", runId, e);
+            }
+        }
+    }
+
+    private FileChannel openAppend(String runId) throws IOException {
+        return FileChannel.open(file(runId), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void closeChannel(String runId) {
+        FileChannel channel = channels.remove(runId);
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Failed to close checkpoint of run {}", runId, e);
+        }
+    }
+
+    private void write(FileChannel channel, byte[] frame) throws IOException {
+        // 同一运行的记录由多个线程追加, 一帧必须连续写入
+        synchronized (channel) {
+            ByteBuffer buffer = ByteBuffer.wrap(frame);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (sync) {
+                channel.force(false);
+            }
+        }
+    }
+
+    private static byte[] frame(Object value) throws NotSerializableException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.writeBytes(new byte[FRAME_HEADER]);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (NotSerializableException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] frame = bytes.toByteArray();
+        int length = frame.length - FRAME_HEADER;
+        CRC32 crc = new CRC32();
+        crc.update(frame, FRAME_HEADER, length);
+        ByteBuffer.wrap(frame).putInt(length).putInt((int) crc.getValue());
+        return frame;
+    }
+
+    private Object read(String runId, byte[] data, int offset, int length) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data, offset, length))) {
+            in.setObjectInputFilter(filter);
+            return in.readObject();
+        } catch (EOFException e) {
+            return null;
+        } catch (InvalidClassException e) {
+            log.warn("Checkpoint of run {} has a frame with a disallowed class, ignoring it: {}", runId, e.getMessage());
+            return null;
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Failed to read checkpoint of run " + runId, e);
+        }
+    }
+
+    private Path file(String runId) {
+        if (runId == null || !RUN_ID.matcher(runId).matches()) {
+            throw new IllegalArgumentException("Invalid run id for checkpoint: " + runId);
+        }
+        Path file = directory.resolve(runId + SUFFIX).normalize();
+        if (!directory.equals(file.getParent())) {
+            throw new IllegalArgumentException("Invalid run id for checkpoint: " + runId);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ums.bms.engine.checkpoint;
+
+import com.ums.bms.engine.model.Node;
+
+import java.io.Serializable;
+
+/**
+ * 节点的检查点记录
+ *
+ * @param nodeId 节点ID
+ * @param status 终止状态
+ * @param result 节点结果, 失败时为空
+ * @author violet
+ * @since 2025/6/9
+ */
+public record NodeRecord(String nodeId, Node.NodeStatus status, Object result) implements Serializable {
+}
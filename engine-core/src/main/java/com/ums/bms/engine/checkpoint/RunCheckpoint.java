@@ -0,0 +1,63 @@
+package com.ums.bms.engine.checkpoint;
+
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import com.ums.bms.engine.runtime.ExecutionInstance;
+
+import java.util.Map;
+
+/**
+ * 读取的运行检查点
+ *
+ * @param header 运行信息
+ * @param nodes  按节点ID保存的最后一条记录
+ * @author violet
+ * @since 2025/6/9
+ */
+public record RunCheckpoint(RunHeader header, Map<String, NodeRecord> nodes) {
+
+    /**
+     * 将已完成的节点还原到运行实例, 其余未终止的节点保持PENDING等待重新执行
+     * <p>
+     * 只有被保留或者仍有下游需要重新执行的节点才会载入结果.
+     *
+     * @param instance 新建的运行实例
+     * @return 还原的节点数
+     */
+    public int restore(ExecutionInstance instance) {
+        ExecutionPlan plan = instance.getPlan();
+        boolean[] completed = new boolean[plan.size()];
+        int restored = 0;
+        for (int i = 0; i < plan.size(); i++) {
+            NodeRecord record = nodes.get(plan.node(i).getId());
+            if (record != null && record.status() == Node.NodeStatus.COMPLETED
+                    && instance.getStatus(i) == Node.NodeStatus.PENDING) {
+                completed[i] = true;
+                restored++;
+            }
+        }
+        for (int i = 0; i < plan.size(); i++) {
+            if (!completed[i]) {
+                continue;
+            }
+            instance.setStatus(i, Node.NodeStatus.COMPLETED);
+            if (needed(instance, completed, i)) {
+                instance.getContext().setResult(i, nodes.get(plan.node(i).getId()).result());
+            }
+        }
+        return restored;
+    }
+
+    private static boolean needed(ExecutionInstance instance, boolean[] completed, int ordinal) {
+        ExecutionPlan plan = instance.getPlan();
+        if (instance.retained(ordinal)) {
+            return true;
+        }
+        for (int successor : plan.successors(ordinal)) {
+            if (!completed[successor] && instance.getStatus(successor) == Node.NodeStatus.PENDING) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
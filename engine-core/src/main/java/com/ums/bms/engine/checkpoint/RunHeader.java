@@ -0,0 +1,20 @@
+package com.ums.bms.engine.checkpoint;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 检查点的运行信息, 恢复时用于匹配执行计划并还原全局参数
+ *
+ * @param runId      运行ID
+ * @param flowId     流程ID
+ * @param version    流程版本
+ * @param parameters 运行时的全部全局参数
+ * @param targets    运行指定的目标节点ID, 执行所有节点时为空
+ * @author violet
+ * @since 2025/6/9
+ */
+public record RunHeader(String runId, String flowId, String version,
+                        Map<String, Object> parameters, Set<String> targets) implements Serializable {
+}
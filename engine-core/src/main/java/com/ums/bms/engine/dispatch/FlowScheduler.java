@@ -0,0 +1,505 @@
+package com.ums.bms.engine.dispatch;
+
+import com.ums.bms.engine.Engine;
+import com.ums.bms.engine.exception.RunRejectedException;
+import com.ums.bms.engine.runtime.ExecutionInstance;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 多租户流程调度器
+ * <p>
+ * 调用方提交运行请求后立即返回{@link RunHandle}, 运行在调度器的工作线程上执行, 同时执行的运行数不超过{@code workers}.
+ * <ul>
+ *     <li>准入控制: 排队总数和单租户排队数有上限, 总队列满时丢弃优先级更低的排队运行(优先丢弃按权重排队最多的租户的最新运行),
+ *     没有更低优先级的运行时拒绝提交; 排队超过{@code maxQueueTime}的运行在出队时丢弃</li>
+ *     <li>公平调度: 每个租户一个按优先级和提交顺序排序的队列, 租户之间按加权公平排队(start-time fair queueing)选择,
+ *     每执行一个运行租户的虚拟时间增加{@code 1/weight}, 突发提交的租户只会排在自己的队列后面; 优先级只决定租户内的顺序</li>
+ *     <li>租户生命周期: 租户在第一次提交时创建, 可以限制为只接受配置了权重的租户, 租户总数有上限;
+ *     空闲超过{@code tenantIdleTimeout}的租户被移除, 通过{@link #onTenantRemoved(Consumer)}通知指标等注销</li>
+ * </ul>
+ *
+ * @author violet
+ * @since 2025/6/23
+ */
+@Slf4j
+public class FlowScheduler implements AutoCloseable {
+    private static final Comparator<RunHandle> ORDER = Comparator.comparingInt(RunHandle::getPriority).reversed()
+            .thenComparingLong(RunHandle::sequence);
+
+    private final Engine engine;
+    private final FlowSchedulerConfig config;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final long createdNanos = System.nanoTime();
+    /* 排队和执行中的运行, 用于按运行ID查找 */
+    private final Map<String, RunHandle> runs = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> createdListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<String>> removedListeners = new CopyOnWriteArrayList<>();
+    /* 按发生顺序通知租户事件, 同一租户的创建和移除不会乱序 */
+    private final Object notifyLock = new Object();
+    /* 以下状态由this保护 */
+    private final Map<String, Tenant> tenants = new LinkedHashMap<>();
+    private final ArrayDeque<TenantEvent> tenantEvents = new ArrayDeque<>();
+    private double virtualTime;
+    private long sequence;
+    private int queued;
+    private int running;
+    private boolean closed;
+
+    public FlowScheduler(Engine engine, FlowSchedulerConfig config) {
+        if (config.getWorkers() <= 0) {
+            throw new IllegalArgumentException("workers must be positive: " + config.getWorkers());
+        }
+        if (config.getQueueCapacity() <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be positive: " + config.getQueueCapacity());
+        }
+        this.engine = engine;
+        this.config = config;
+        this.ownsExecutor = config.getExecutor() == null;
+        this.executor = ownsExecutor ? Executors.newFixedThreadPool(config.getWorkers(), threadFactory()) : config.getExecutor();
+    }
+
+    /**
+     * 提交运行
+     *
+     * @param request 运行请求
+     * @return 运行句柄
+     * @throws RunRejectedException 队列已满且没有可丢弃的更低优先级运行, 或调度器已关闭时抛出
+     */
+    public RunHandle submit(RunRequest request) {
+        Admission admission;
+        try {
+            admission = admit(request);
+        } finally {
+            // 被拒绝的提交也可能创建或移除租户
+            fireTenantEvents();
+        }
+        RunHandle shed = admission.shed();
+        if (shed != null) {
+            log.warn("Shedding queued run {} of tenant {} with priority {}", shed.getRunId(), shed.getTenant(),
+                    shed.getPriority());
+            reject(shed, "Run shed by higher priority submission");
+        }
+        dispatch();
+        return admission.handle();
+    }
+
+    /**
+     * 准入控制并入队
+     */
+    private synchronized Admission admit(RunRequest request) {
+        if (closed) {
+            throw new RunRejectedException("Flow scheduler is closed");
+        }
+        long now = System.nanoTime();
+        expireIdleTenants(now);
+        Tenant tenant = tenant(request.tenant());
+        tenant.submitted++;
+        tenant.activeNanos = now;
+        RunHandle handle = new RunHandle(UUID.randomUUID().toString(), request, sequence++, now);
+        int tenantCapacity = config.getTenantQueueCapacity();
+        if (tenantCapacity > 0 && tenant.queue.size() >= tenantCapacity) {
+            tenant.rejected++;
+            throw new RunRejectedException("Queue of tenant " + tenant.name + " is full: " + tenantCapacity);
+        }
+        RunHandle shed = null;
+        if (queued >= config.getQueueCapacity()) {
+            shed = victim(request.priority());
+            if (shed == null) {
+                tenant.rejected++;
+                throw new RunRejectedException("Flow scheduler queue is full: " + config.getQueueCapacity());
+            }
+            Tenant owner = tenants.get(shed.getTenant());
+            owner.queue.remove(shed);
+            owner.rejected++;
+            queued--;
+        }
+        if (tenant.queue.isEmpty()) {
+            // 重新进入积压状态的租户不能使用空闲期间累积的份额
+            tenant.tag = Math.max(tenant.tag, virtualTime);
+        }
+        tenant.queue.add(handle);
+        queued++;
+        runs.put(handle.getRunId(), handle);
+        return new Admission(handle, shed);
+    }
+
+    /**
+     * 按运行ID查找排队或执行中的运行
+     *
+     * @return 运行句柄, 运行已结束或不存在时为空
+     */
+    public RunHandle get(String runId) {
+        return runs.get(runId);
+    }
+
+    /**
+     * 取消运行: 排队中的运行直接出队, 执行中的运行不再开始新节点, 在已开始的节点完成后结束
+     *
+     * @param runId 运行ID
+     * @return 运行仍在排队或执行中并已请求取消时返回true
+     */
+    public boolean cancel(String runId) {
+        RunHandle handle = runs.get(runId);
+        if (handle == null) {
+            return false;
+        }
+        synchronized (this) {
+            Tenant tenant = tenants.get(handle.getTenant());
+            if (tenant == null || !tenant.queue.remove(handle)) {
+                if (tenant == null || handle.getState().isTerminal()) {
+                    return false;
+                }
+                // 已出队, 正在或即将执行
+                handle.requestCancel();
+                return true;
+            }
+            queued--;
+        }
+        runs.remove(runId);
+        if (handle.transition(RunHandle.State.QUEUED, RunHandle.State.CANCELLED)) {
+            handle.result().completeExceptionally(new CancellationException("Run " + runId + " cancelled"));
+        }
+        return true;
+    }
+
+    /**
+     * 所有租户的排队和吞吐快照
+     */
+    public synchronized List<TenantStats> stats() {
+        long now = System.nanoTime();
+        List<TenantStats> stats = new ArrayList<>(tenants.size());
+        for (Tenant tenant : tenants.values()) {
+            stats.add(snapshot(tenant, now));
+        }
+        return stats;
+    }
+
+    /**
+     * 单个租户的快照, 租户未提交过运行或已被移除时为空
+     */
+    public synchronized TenantStats stats(String tenant) {
+        Tenant state = tenants.get(tenant);
+        return state == null ? null : snapshot(state, System.nanoTime());
+    }
+
+    /**
+     * 监听新租户的第一次提交, 已存在的租户立即回调
+     */
+    public void onTenantCreated(Consumer<String> listener) {
+        synchronized (notifyLock) {
+            List<String> existing;
+            synchronized (this) {
+                createdListeners.add(listener);
+                existing = new ArrayList<>(tenants.keySet());
+            }
+            existing.forEach(listener);
+        }
+    }
+
+    /**
+     * 监听空闲租户的移除
+     */
+    public void onTenantRemoved(Consumer<String> listener) {
+        removedListeners.add(listener);
+    }
+
+    /**
+     * 停止接收提交并拒绝排队中的运行, 执行中的运行继续完成
+     */
+    @Override
+    public void close() {
+        List<RunHandle> pending = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            for (Tenant tenant : tenants.values()) {
+                tenant.rejected += tenant.queue.size();
+                pending.addAll(tenant.queue);
+                tenant.queue.clear();
+            }
+            queued = 0;
+        }
+        pending.forEach(handle -> reject(handle, "Flow scheduler is closed"));
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    private void dispatch() {
+        List<RunHandle> batch = null;
+        List<RunHandle> expired = null;
+        long now = System.nanoTime();
+        long maxQueueNanos = config.getMaxQueueTime() == null ? Long.MAX_VALUE : config.getMaxQueueTime().toNanos();
+        synchronized (this) {
+            while (running < config.getWorkers()) {
+                Tenant tenant = next();
+                if (tenant == null) {
+                    break;
+                }
+                RunHandle handle = tenant.queue.pollFirst();
+                queued--;
+                if (now - handle.submittedNanos() > maxQueueNanos) {
+                    tenant.rejected++;
+                    if (expired == null) {
+                        expired = new ArrayList<>();
+                    }
+                    expired.add(handle);
+                    continue;
+                }
+                virtualTime = tenant.tag;
+                tenant.tag += 1 / tenant.weight;
+                tenant.running++;
+                tenant.started++;
+                long queueNanos = now - handle.submittedNanos();
+                tenant.queueNanos += queueNanos;
+                tenant.maxQueueNanos = Math.max(tenant.maxQueueNanos, queueNanos);
+                running++;
+                if (batch == null) {
+                    batch = new ArrayList<>();
+                }
+                batch.add(handle);
+            }
+        }
+        if (expired != null) {
+            expired.forEach(handle -> reject(handle, "Run exceeded max queue time " + config.getMaxQueueTime()));
+        }
+        if (batch == null) {
+            return;
+        }
+        for (RunHandle handle : batch) {
+            try {
+                executor.execute(() -> execute(handle));
+            } catch (RejectedExecutionException e) {
+                log.error("Executor rejected run: {}", handle.getRunId(), e);
+                finish(handle, null, e);
+            }
+        }
+    }
+
+    /**
+     * 积压租户中虚拟时间最小的租户, 相同时按首次提交顺序
+     */
+    private Tenant next() {
+        Tenant next = null;
+        for (Tenant tenant : tenants.values()) {
+            if (!tenant.queue.isEmpty() && (next == null || tenant.tag < next.tag)) {
+                next = tenant;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * 优先级低于提交的最低优先级排队运行, 同一优先级中选按权重排队最多的租户的最新运行
+     */
+    private RunHandle victim(int priority) {
+        RunHandle victim = null;
+        double victimLoad = 0;
+        for (Tenant tenant : tenants.values()) {
+            if (tenant.queue.isEmpty()) {
+                continue;
+            }
+            RunHandle last = tenant.queue.last();
+            double load = tenant.queue.size() / tenant.weight;
+            if (last.getPriority() < priority && (victim == null || last.getPriority() < victim.getPriority()
+                    || last.getPriority() == victim.getPriority() && load > victimLoad)) {
+                victim = last;
+                victimLoad = load;
+            }
+        }
+        return victim;
+    }
+
+    private void execute(RunHandle handle) {
+        if (!handle.transition(RunHandle.State.QUEUED, RunHandle.State.RUNNING)) {
+            finish(handle, null, null);
+            return;
+        }
+        if (handle.isCancelRequested()) {
+            finish(handle, null, new CancellationException("Run " + handle.getRunId() + " cancelled"));
+            return;
+        }
+        RunRequest request = handle.getRequest();
+        ExecutionInstance instance = null;
+        try {
+            instance = engine.newInstance(handle.getRunId(), request.plan(), request.parameters(), request.targets());
+            handle.started(System.nanoTime(), instance);
+            engine.run(instance);
+        } catch (Throwable t) {
+            finish(handle, instance, t);
+            return;
+        }
+        finish(handle, instance, null);
+    }
+
+    private void finish(RunHandle handle, ExecutionInstance instance, Throwable error) {
+        synchronized (this) {
+            long now = System.nanoTime();
+            Tenant tenant = tenants.get(handle.getTenant());
+            tenant.running--;
+            tenant.activeNanos = now;
+            if (error == null) {
+                tenant.completed++;
+            } else {
+                tenant.failed++;
+            }
+            running--;
+            expireIdleTenants(now);
+        }
+        fireTenantEvents();
+        runs.remove(handle.getRunId());
+        if (error == null) {
+            if (handle.transition(RunHandle.State.RUNNING, RunHandle.State.SUCCEEDED)) {
+                handle.result().complete(instance);
+            }
+        } else {
+            RunHandle.State state = error instanceof CancellationException ? RunHandle.State.CANCELLED : RunHandle.State.FAILED;
+            if (handle.transition(RunHandle.State.RUNNING, state) || handle.transition(RunHandle.State.QUEUED, state)) {
+                handle.result().completeExceptionally(error);
+            }
+        }
+        dispatch();
+    }
+
+    private void reject(RunHandle handle, String reason) {
+        runs.remove(handle.getRunId());
+        if (handle.transition(RunHandle.State.QUEUED, RunHandle.State.REJECTED)) {
+            handle.result().completeExceptionally(new RunRejectedException(reason));
+        }
+    }
+
+    /**
+     * 查找或创建租户, 未知租户或租户数达到上限时拒绝
+     */
+    private Tenant tenant(String name) {
+        Tenant tenant = tenants.get(name);
+        if (tenant != null) {
+            return tenant;
+        }
+        Double weight = config.getTenantWeights().get(name);
+        if (weight == null && config.isKnownTenantsOnly()) {
+            throw new RunRejectedException("Unknown tenant: " + name);
+        }
+        if (config.getMaxTenants() > 0 && tenants.size() >= config.getMaxTenants()) {
+            throw new RunRejectedException("Too many tenants: " + config.getMaxTenants());
+        }
+        tenant = new Tenant(name, weight != null ? weight : config.getDefaultWeight());
+        tenants.put(name, tenant);
+        tenantEvents.add(new TenantEvent(name, true));
+        return tenant;
+    }
+
+    /**
+     * 移除空闲超时的租户
+     */
+    private void expireIdleTenants(long now) {
+        if (config.getTenantIdleTimeout() == null) {
+            return;
+        }
+        long timeoutNanos = config.getTenantIdleTimeout().toNanos();
+        for (Iterator<Tenant> it = tenants.values().iterator(); it.hasNext(); ) {
+            Tenant tenant = it.next();
+            if (tenant.queue.isEmpty() && tenant.running == 0 && now - tenant.activeNanos > timeoutNanos) {
+                it.remove();
+                tenantEvents.add(new TenantEvent(tenant.name, false));
+                log.debug("Removed idle tenant {}", tenant.name);
+            }
+        }
+    }
+
+    /**
+     * 在锁外按顺序通知租户的创建和移除
+     */
+    private void fireTenantEvents() {
+        synchronized (notifyLock) {
+            while (true) {
+                TenantEvent event;
+                synchronized (this) {
+                    event = tenantEvents.poll();
+                }
+                if (event == null) {
+                    return;
+                }
+                for (Consumer<String> listener : event.created() ? createdListeners : removedListeners) {
+                    listener.accept(event.tenant());
+                }
+            }
+        }
+    }
+
+    private TenantStats snapshot(Tenant tenant, long now) {
+        double elapsedSeconds = Math.max(1e-9, (now - createdNanos) / 1e9);
+        return new TenantStats(tenant.name, tenant.weight, tenant.queue.size(), tenant.running,
+                tenant.submitted, tenant.completed, tenant.failed, tenant.rejected, tenant.started,
+                tenant.queueNanos, tenant.maxQueueNanos, (tenant.completed + tenant.failed) / elapsedSeconds);
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "flow-worker-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 租户的排队状态, 由调度器的锁保护
+     */
+    private static final class Tenant {
+        private final String name;
+        private final double weight;
+        private final TreeSet<RunHandle> queue = new TreeSet<>(ORDER);
+        /* 加权公平排队的虚拟开始时间 */
+        private double tag;
+        /* 最近一次提交或运行结束的时间, 用于空闲过期 */
+        private long activeNanos;
+        private int running;
+        private long submitted;
+        private long completed;
+        private long failed;
+        private long rejected;
+        private long started;
+        private long queueNanos;
+        private long maxQueueNanos;
+
+        private Tenant(String name, double weight) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("weight of tenant " + name + " must be positive: " + weight);
+            }
+            this.name = name;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * 入队的运行和为其让出队列位置的运行
+     */
+    private record Admission(RunHandle handle, RunHandle shed) {
+    }
+
+    /**
+     * 租户创建或移除事件
+     */
+    private record TenantEvent(String tenant, boolean created) {
+    }
+}
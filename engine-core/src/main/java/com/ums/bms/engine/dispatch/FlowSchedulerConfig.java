@@ -0,0 +1,50 @@
+package com.ums.bms.engine.dispatch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 流程调度器配置
+ *
+ * @author violet
+ * @since 2025/6/23
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlowSchedulerConfig {
+    /* 同时执行的最大运行数 */
+    @Builder.Default
+    private int workers = Runtime.getRuntime().availableProcessors();
+    /* 所有租户排队运行数的上限, 超出时丢弃优先级更低的运行或拒绝提交 */
+    @Builder.Default
+    private int queueCapacity = 1024;
+    /* 单个租户排队运行数的上限, 小于等于0时只受queueCapacity限制 */
+    private int tenantQueueCapacity;
+    /* 按租户配置的公平调度权重, 权重为2的租户获得的执行份额是权重为1的两倍 */
+    @Builder.Default
+    private Map<String, Double> tenantWeights = new HashMap<>();
+    /* 未配置权重的租户使用的权重 */
+    @Builder.Default
+    private double defaultWeight = 1.0;
+    /* 为true时只接受tenantWeights中配置的租户, 其他租户的提交被拒绝 */
+    private boolean knownTenantsOnly;
+    /* 同时存在的租户数上限, 达到上限后新租户的提交被拒绝, 小于等于0时不限制 */
+    @Builder.Default
+    private int maxTenants = 1024;
+    /* 没有排队和执行中运行的租户空闲超过该时间后被移除, 统计和指标一并移除; 为空时不移除 */
+    @Builder.Default
+    private Duration tenantIdleTimeout = Duration.ofMinutes(10);
+    /* 排队超过该时间的运行在出队时被丢弃, 为空时不限制 */
+    private Duration maxQueueTime;
+    /* 执行运行的线程池, 为空时由调度器创建并在关闭时关闭, 否则由调用方负责关闭 */
+    private ExecutorService executor;
+}
@@ -0,0 +1,121 @@
+package com.ums.bms.engine.dispatch;
+
+import com.ums.bms.engine.runtime.ExecutionInstance;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 提交到{@link FlowScheduler}的运行
+ * <p>
+ * 运行实例在开始执行时创建, 排队期间{@link #getInstance()}为空.
+ * {@link #result()}在运行成功时完成, 失败、被拒绝或取消时异常完成.
+ * 取消执行中的运行时已开始的节点会执行完成, 之后的节点不再执行.
+ *
+ * @author violet
+ * @since 2025/6/23
+ */
+public class RunHandle {
+    private final String runId;
+    private final RunRequest request;
+    /* 提交序号, 同一优先级按提交顺序执行 */
+    private final long sequence;
+    private final long submittedNanos;
+    private final AtomicReference<State> state = new AtomicReference<>(State.QUEUED);
+    private final CompletableFuture<ExecutionInstance> result = new CompletableFuture<>();
+    private volatile long startedNanos;
+    private volatile ExecutionInstance instance;
+    private volatile boolean cancelRequested;
+
+    RunHandle(String runId, RunRequest request, long sequence, long submittedNanos) {
+        this.runId = runId;
+        this.request = request;
+        this.sequence = sequence;
+        this.submittedNanos = submittedNanos;
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public RunRequest getRequest() {
+        return request;
+    }
+
+    public String getTenant() {
+        return request.tenant();
+    }
+
+    public int getPriority() {
+        return request.priority();
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * 运行实例, 开始执行前为空
+     */
+    public ExecutionInstance getInstance() {
+        return instance;
+    }
+
+    /**
+     * 排队时间, 尚未开始执行时为到当前为止的时间
+     */
+    public long getQueueNanos() {
+        long started = startedNanos;
+        return (started == 0 ? System.nanoTime() : started) - submittedNanos;
+    }
+
+    public CompletableFuture<ExecutionInstance> result() {
+        return result;
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    long submittedNanos() {
+        return submittedNanos;
+    }
+
+    boolean transition(State expected, State next) {
+        return state.compareAndSet(expected, next);
+    }
+
+    void started(long nanos, ExecutionInstance instance) {
+        this.startedNanos = nanos;
+        this.instance = instance;
+        if (cancelRequested) {
+            instance.cancel();
+        }
+    }
+
+    /**
+     * 请求取消执行中的运行, 运行实例尚未创建时在创建后取消
+     */
+    void requestCancel() {
+        cancelRequested = true;
+        ExecutionInstance current = instance;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    /**
+     * 运行状态
+     */
+    public enum State {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, REJECTED, CANCELLED;
+
+        public boolean isTerminal() {
+            return this != QUEUED && this != RUNNING;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ums.bms.engine.dispatch;
+
+import com.ums.bms.engine.plan.ExecutionPlan;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 提交给{@link FlowScheduler}的运行请求
+ *
+ * @param tenant     租户, 为空时归入{@link #DEFAULT_TENANT}
+ * @param priority   优先级, 数值越大越先执行, 队列满时优先丢弃低优先级的运行
+ * @param plan       执行计划
+ * @param parameters 本次运行覆盖的全局参数, 可以为空
+ * @param targets    目标节点ID, 为空时执行所有节点
+ * @author violet
+ * @since 2025/6/23
+ */
+public record RunRequest(String tenant, int priority, ExecutionPlan plan, Map<String, Object> parameters,
+                         Set<String> targets) {
+    public static final String DEFAULT_TENANT = "default";
+
+    public RunRequest {
+        if (plan == null) {
+            throw new IllegalArgumentException("plan must not be null");
+        }
+        tenant = tenant == null || tenant.isBlank() ? DEFAULT_TENANT : tenant;
+    }
+
+    public static RunRequest of(String tenant, ExecutionPlan plan, Map<String, Object> parameters) {
+        return new RunRequest(tenant, 0, plan, parameters, null);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ums.bms.engine.dispatch;
+
+/**
+ * 租户的排队和吞吐快照
+ *
+ * @param tenant     租户
+ * @param weight     公平调度权重
+ * @param queued     排队中的运行数
+ * @param running    执行中的运行数
+ * @param submitted  已提交的运行数, 包含被拒绝的
+ * @param completed  已成功完成的运行数
+ * @param failed     执行失败或执行中被取消的运行数
+ * @param rejected   提交被拒绝或排队中被丢弃的运行数
+ * @param started    已开始执行的运行数
+ * @param queueNanos 已开始执行的运行的累计排队时间
+ * @param maxQueueNanos 最长排队时间
+ * @param throughput 调度器启动以来每秒完成(成功或失败)的运行数
+ * @author violet
+ * @since 2025/6/23
+ */
+public record TenantStats(String tenant, double weight, int queued, int running, long submitted, long completed,
+                          long failed, long rejected, long started, long queueNanos, long maxQueueNanos,
+                          double throughput) {
+
+    /**
+     * 已开始执行的运行的平均排队时间
+     */
+    public double averageQueueNanos() {
+        return started == 0 ? 0 : (double) queueNanos / started;
+    }
+}
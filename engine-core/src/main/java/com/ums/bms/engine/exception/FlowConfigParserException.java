@@ -1,15 +1,32 @@
 package com.ums.bms.engine.exception;
 
+import com.ums.bms.engine.model.ValidationReport;
+
 /**
  * @author violet
  * @since 2025/4/27
  */
 public class FlowConfigParserException extends RuntimeException {
+    private final transient ValidationReport report;
+
     public FlowConfigParserException(String message) {
+        this(message, (ValidationReport) null);
+    }
+
+    public FlowConfigParserException(String message, ValidationReport report) {
         super(message);
+        this.report = report;
     }
 
     public FlowConfigParserException(String message, Throwable cause) {
         super(message, cause);
+        this.report = null;
+    }
+
+    /**
+     * DAG校验报告, 非DAG校验失败时为空
+     */
+    public ValidationReport getReport() {
+        return report;
     }
 }
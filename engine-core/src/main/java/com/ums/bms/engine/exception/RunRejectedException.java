@@ -0,0 +1,14 @@
+package com.ums.bms.engine.exception;
+
+/**
+ * 运行提交被拒绝或排队中的运行被丢弃: 队列已满、排队超时或调度器已关闭
+ *
+ * @author violet
+ * @since 2025/6/23
+ */
+public class RunRejectedException extends RuntimeException {
+
+    public RunRejectedException(String message) {
+        super(message);
+    }
+}
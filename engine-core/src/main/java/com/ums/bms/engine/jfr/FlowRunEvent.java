@@ -0,0 +1,47 @@
+package com.ums.bms.engine.jfr;
+
+import com.ums.bms.engine.model.ExecutionMode;
+import com.ums.bms.engine.runtime.ExecutionInstance;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 流程的单次运行
+ *
+ * @author violet
+ * @since 2025/5/29
+ */
+@Name("com.ums.bms.engine.FlowRun")
+@Label("Flow Run")
+@Description("A single run of a compiled flow")
+@Category({"Process Engine", "Flow"})
+public class FlowRunEvent extends Event {
+    @Label("Flow ID")
+    String flowId;
+    @Label("Flow Version")
+    String version;
+    @Label("Run ID")
+    String runId;
+    @Label("Execution Mode")
+    String mode;
+    @Label("Node Count")
+    int nodeCount;
+    @Label("Failed")
+    boolean failed;
+
+    public void commit(ExecutionInstance instance, ExecutionMode mode, boolean failed) {
+        if (!shouldCommit()) {
+            return;
+        }
+        this.flowId = instance.getPlan().flowId();
+        this.version = instance.getPlan().version();
+        this.runId = instance.getRunId();
+        this.mode = mode.name();
+        this.nodeCount = instance.getPlan().size();
+        this.failed = failed;
+        commit();
+    }
+}
@@ -0,0 +1,63 @@
+package com.ums.bms.engine.jfr;
+
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.runtime.ExecutionInstance;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import java.util.function.Supplier;
+
+/**
+ * 节点相关JFR事件的公共字段
+ *
+ * @author violet
+ * @since 2025/5/29
+ */
+@Category({"Process Engine", "Node"})
+@StackTrace(false)
+abstract class NodeEvent extends Event {
+    @Label("Flow ID")
+    String flowId;
+    @Label("Flow Version")
+    String version;
+    @Label("Run ID")
+    String runId;
+    @Label("Node ID")
+    String nodeId;
+    @Label("Processor")
+    String processor;
+
+    /**
+     * 事件类型启用时创建事件并开始计时, 未启用时返回空, 没有记录时执行节点不分配事件对象
+     */
+    static <T extends NodeEvent> T start(EventType type, Supplier<T> factory) {
+        if (!type.isEnabled()) {
+            return null;
+        }
+        T event = factory.get();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * 事件未启用或低于阈值时不填充字段直接返回
+     */
+    public final void commit(ExecutionInstance instance, Node node) {
+        if (!shouldCommit()) {
+            return;
+        }
+        fill(instance, node);
+        commit();
+    }
+
+    final void fill(ExecutionInstance instance, Node node) {
+        flowId = instance.getPlan().flowId();
+        version = instance.getPlan().version();
+        runId = instance.getRunId();
+        nodeId = node.getId();
+        processor = node.getProcessor();
+    }
+}
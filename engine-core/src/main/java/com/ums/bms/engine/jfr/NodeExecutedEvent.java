@@ -0,0 +1,45 @@
+package com.ums.bms.engine.jfr;
+
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.runtime.ExecutionInstance;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * 节点执行, 持续时间为开始执行到结束
+ *
+ * @author violet
+ * @since 2025/5/29
+ */
+@Name("com.ums.bms.engine.NodeExecuted")
+@Label("Node Executed")
+@Description("Execution of a single node including processor initial and process")
+public class NodeExecutedEvent extends NodeEvent {
+    @Label("Status")
+    String status;
+    @Label("Queue Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long queueTime;
+
+    private static final EventType TYPE = EventType.getEventType(NodeExecutedEvent.class);
+
+    /**
+     * 开始计时, 事件未启用时为空
+     */
+    public static NodeExecutedEvent start() {
+        return start(TYPE, NodeExecutedEvent::new);
+    }
+
+    public void commit(ExecutionInstance instance, Node node, Node.NodeStatus status, long queueNanos) {
+        if (!shouldCommit()) {
+            return;
+        }
+        fill(instance, node);
+        this.status = status.name();
+        this.queueTime = queueNanos;
+        commit();
+    }
+}
@@ -0,0 +1,26 @@
+package com.ums.bms.engine.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 节点的所有前驱完成, 进入就绪队列
+ *
+ * @author violet
+ * @since 2025/5/29
+ */
+@Name("com.ums.bms.engine.NodeScheduled")
+@Label("Node Scheduled")
+@Description("All dependencies of the node completed and it entered the ready queue")
+public class NodeScheduledEvent extends NodeEvent {
+    private static final EventType TYPE = EventType.getEventType(NodeScheduledEvent.class);
+
+    /**
+     * 开始计时, 事件未启用时为空
+     */
+    public static NodeScheduledEvent start() {
+        return start(TYPE, NodeScheduledEvent::new);
+    }
+}
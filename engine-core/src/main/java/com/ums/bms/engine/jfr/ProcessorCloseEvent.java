@@ -0,0 +1,28 @@
+package com.ums.bms.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 处理器实例close, 发生在RUN作用域执行结束、NODE作用域池满或驱逐时
+ *
+ * @author violet
+ * @since 2025/5/29
+ */
+@Name("com.ums.bms.engine.ProcessorClose")
+@Label("Processor Close")
+@Description("Processor instance released its resources")
+@Category({"Process Engine", "Processor"})
+@StackTrace(false)
+public class ProcessorCloseEvent extends Event {
+    @Label("Node ID")
+    public String nodeId;
+    @Label("Processor")
+    public String processor;
+    @Label("Processor Class")
+    public Class<?> processorClass;
+}
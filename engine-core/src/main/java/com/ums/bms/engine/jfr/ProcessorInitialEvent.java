@@ -0,0 +1,26 @@
+package com.ums.bms.engine.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 处理器initial
+ *
+ * @author violet
+ * @since 2025/5/29
+ */
+@Name("com.ums.bms.engine.ProcessorInitial")
+@Label("Processor Initial")
+@Description("Processor initial call, near zero for already initialized node scoped instances")
+public class ProcessorInitialEvent extends NodeEvent {
+    private static final EventType TYPE = EventType.getEventType(ProcessorInitialEvent.class);
+
+    /**
+     * 开始计时, 事件未启用时为空
+     */
+    public static ProcessorInitialEvent start() {
+        return start(TYPE, ProcessorInitialEvent::new);
+    }
+}
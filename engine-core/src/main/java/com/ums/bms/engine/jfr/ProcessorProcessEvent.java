@@ -0,0 +1,26 @@
+package com.ums.bms.engine.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 处理器process, 流式模式下为整个流式阶段
+ *
+ * @author violet
+ * @since 2025/5/29
+ */
+@Name("com.ums.bms.engine.ProcessorProcess")
+@Label("Processor Process")
+@Description("Processor process call, or the whole stage in streaming mode")
+public class ProcessorProcessEvent extends NodeEvent {
+    private static final EventType TYPE = EventType.getEventType(ProcessorProcessEvent.class);
+
+    /**
+     * 开始计时, 事件未启用时为空
+     */
+    public static ProcessorProcessEvent start() {
+        return start(TYPE, ProcessorProcessEvent::new);
+    }
+}
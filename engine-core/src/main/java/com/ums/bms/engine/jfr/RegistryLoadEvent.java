@@ -0,0 +1,24 @@
+package com.ums.bms.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 通过ServiceLoader加载处理器
+ *
+ * @author violet
+ * @since 2025/5/29
+ */
+@Name("com.ums.bms.engine.RegistryLoad")
+@Label("Processor Registry Load")
+@Description("Processors loaded through ServiceLoader")
+@Category({"Process Engine", "Processor"})
+public class RegistryLoadEvent extends Event {
+    @Label("Loaded")
+    public int loaded;
+    @Label("Skipped")
+    public int skipped;
+}
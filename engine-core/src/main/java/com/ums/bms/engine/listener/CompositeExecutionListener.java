@@ -0,0 +1,59 @@
+package com.ums.bms.engine.listener;
+
+import com.ums.bms.engine.runtime.ExecutionInstance;
+
+/**
+ * 按顺序回调多个监听器
+ *
+ * @author violet
+ * @since 2025/5/27
+ */
+final class CompositeExecutionListener implements ExecutionListener {
+    private final ExecutionListener[] listeners;
+
+    CompositeExecutionListener(ExecutionListener[] listeners) {
+        this.listeners = listeners;
+    }
+
+    @Override
+    public void runStarted(ExecutionInstance instance) {
+        for (ExecutionListener listener : listeners) {
+            listener.runStarted(instance);
+        }
+    }
+
+    @Override
+    public void runFinished(ExecutionInstance instance, Throwable error) {
+        for (ExecutionListener listener : listeners) {
+            listener.runFinished(instance, error);
+        }
+    }
+
+    @Override
+    public void nodeReady(ExecutionInstance instance, int ordinal) {
+        for (ExecutionListener listener : listeners) {
+            listener.nodeReady(instance, ordinal);
+        }
+    }
+
+    @Override
+    public void nodeStarted(ExecutionInstance instance, int ordinal) {
+        for (ExecutionListener listener : listeners) {
+            listener.nodeStarted(instance, ordinal);
+        }
+    }
+
+    @Override
+    public void nodeMemoized(ExecutionInstance instance, int ordinal, boolean hit) {
+        for (ExecutionListener listener : listeners) {
+            listener.nodeMemoized(instance, ordinal, hit);
+        }
+    }
+
+    @Override
+    public void nodeFinished(ExecutionInstance instance, int ordinal, NodeTiming timing, Object result, Throwable error) {
+        for (ExecutionListener listener : listeners) {
+            listener.nodeFinished(instance, ordinal, timing, result, error);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.ums.bms.engine.listener;
+
+import com.ums.bms.engine.runtime.ExecutionInstance;
+
+import java.util.List;
+
+/**
+ * 执行事件监听器
+ * <p>
+ * 回调在执行线程上同步调用, 实现必须线程安全、足够轻量且不应抛出异常.
+ * 节点回调的顺序为{@code nodeReady -> nodeStarted -> nodeFinished}, 被跳过的节点没有{@code nodeStarted},
+ * 节点终止状态通过{@link ExecutionInstance#getStatus(int)}获取.
+ *
+ * @author violet
+ * @since 2025/5/27
+ */
+public interface ExecutionListener {
+    ExecutionListener NOOP = new ExecutionListener() {
+    };
+
+    /**
+     * 运行开始
+     */
+    default void runStarted(ExecutionInstance instance) {
+    }
+
+    /**
+     * 运行结束
+     *
+     * @param instance 运行实例
+     * @param error    失败原因, 成功时为空
+     */
+    default void runFinished(ExecutionInstance instance, Throwable error) {
+    }
+
+    /**
+     * 节点的所有前驱已完成, 进入就绪队列
+     */
+    default void nodeReady(ExecutionInstance instance, int ordinal) {
+    }
+
+    /**
+     * 节点开始执行, 状态已切换为RUNNING
+     */
+    default void nodeStarted(ExecutionInstance instance, int ordinal) {
+    }
+
+    /**
+     * 启用记忆化的节点查找缓存之后, 在{@code nodeFinished}之前回调
+     *
+     * @param instance 运行实例
+     * @param ordinal  节点序号
+     * @param hit      是否命中, 命中时处理器不会执行
+     */
+    default void nodeMemoized(ExecutionInstance instance, int ordinal, boolean hit) {
+    }
+
+    /**
+     * 节点执行结束
+     *
+     * @param instance 运行实例
+     * @param ordinal  节点序号
+     * @param timing   各阶段耗时
+     * @param result   节点结果, 失败时为空
+     * @param error    失败原因, 成功时为空
+     */
+    default void nodeFinished(ExecutionInstance instance, int ordinal, NodeTiming timing, Object result, Throwable error) {
+    }
+
+    /**
+     * 组合多个监听器, 按顺序依次回调
+     */
+    static ExecutionListener composite(ExecutionListener... listeners) {
+        return composite(List.of(listeners));
+    }
+
+    static ExecutionListener composite(List<? extends ExecutionListener> listeners) {
+        if (listeners.isEmpty()) {
+            return NOOP;
+        }
+        if (listeners.size() == 1) {
+            return listeners.get(0);
+        }
+        return new CompositeExecutionListener(listeners.toArray(new ExecutionListener[0]));
+    }
+}
@@ -0,0 +1,43 @@
+package com.ums.bms.engine.listener;
+
+/**
+ * 单个节点执行各阶段的时间点, 单位为{@link System#nanoTime()}纳秒
+ *
+ * @param readyNanos     进入就绪队列
+ * @param startNanos     开始执行
+ * @param initialNanos   处理器initial完成, 未执行到该阶段时等于前一个时间点
+ * @param processNanos   处理器process完成, 未执行到该阶段时等于前一个时间点
+ * @param endNanos       执行结束
+ * @author violet
+ * @since 2025/5/27
+ */
+public record NodeTiming(long readyNanos, long startNanos, long initialNanos, long processNanos, long endNanos) {
+
+    /**
+     * 就绪到开始执行的等待时间
+     */
+    public long queueNanos() {
+        return startNanos - readyNanos;
+    }
+
+    /**
+     * 处理器initial耗时
+     */
+    public long initialDurationNanos() {
+        return initialNanos - startNanos;
+    }
+
+    /**
+     * 处理器process耗时
+     */
+    public long processDurationNanos() {
+        return processNanos - initialNanos;
+    }
+
+    /**
+     * 开始执行到结束的总耗时
+     */
+    public long durationNanos() {
+        return endNanos - startNanos;
+    }
+}
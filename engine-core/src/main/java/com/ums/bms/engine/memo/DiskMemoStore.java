@@ -0,0 +1,122 @@
+package com.ums.bms.engine.memo;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 本地磁盘存储, 每个键对应一个Java序列化文件
+ * <p>
+ * 写入先落到临时文件再原子重命名, 进程崩溃不会留下不完整的缓存; 读取失败(损坏或类不兼容)的文件被删除并视为未命中.
+ * 不可序列化的结果不缓存.
+ *
+ * @author violet
+ * @since 2025/6/5
+ */
+@Slf4j
+public class DiskMemoStore implements MemoStore {
+    private static final String SUFFIX = ".memo";
+
+    private final Path directory;
+
+    /**
+     * @param directory 缓存目录, 不存在时创建
+     */
+    public DiskMemoStore(Path directory) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create memo directory " + directory, e);
+        }
+        this.directory = directory;
+    }
+
+    @Override
+    public Object get(String key) {
+        Path file = file(key);
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file));
+             ObjectInputStream objects = new ObjectInputStream(in)) {
+            return objects.readObject();
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | ClassNotFoundException e) {
+            log.warn("Discard unreadable memo {}: {}", file, e.toString());
+            invalidate(key);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String key, Object result) {
+        if (!(result instanceof Serializable)) {
+            return;
+        }
+        Path file = file(key);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, key, ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp));
+                 ObjectOutputStream objects = new ObjectOutputStream(out)) {
+                objects.writeObject(result);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (NotSerializableException e) {
+            log.debug("Skip memo {}, result is not serializable: {}", key, e.getMessage());
+        } catch (IOException e) {
+            log.warn("Failed to write memo {}", file, e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    @Override
+    public void invalidate(String key) {
+        deleteQuietly(file(key));
+    }
+
+    @Override
+    public void clear() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to clear memo directory " + directory, e);
+        }
+    }
+
+    private Path file(String key) {
+        // 键为Memoizer生成的十六进制摘要, 可以直接作为文件名
+        return directory.resolve(key + SUFFIX);
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Failed to delete {}", file, e);
+        }
+    }
+}
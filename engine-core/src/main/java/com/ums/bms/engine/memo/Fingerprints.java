@@ -0,0 +1,162 @@
+package com.ums.bms.engine.memo;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 计算结果内容的稳定摘要
+ * <p>
+ * 摘要只取决于内容而不是对象标识, 因此同样的输入在不同运行、不同进程中得到相同的摘要.
+ * Map和Set与迭代顺序无关, 其他集合按顺序计算; 其余可序列化对象按序列化字节计算.
+ *
+ * @author violet
+ * @since 2025/6/5
+ */
+final class Fingerprints {
+    private static final String ALGORITHM = "SHA-256";
+
+    private Fingerprints() {}
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * 将值的摘要写入digest
+     *
+     * @return 值无法计算稳定摘要时返回false
+     */
+    static boolean update(MessageDigest digest, Object value) {
+        if (value == null) {
+            digest.update((byte) 'N');
+            return true;
+        }
+        if (value instanceof byte[] bytes) {
+            digest.update((byte) 'B');
+            updateLength(digest, bytes.length);
+            digest.update(bytes);
+            return true;
+        }
+        if (value instanceof ByteBuffer buffer) {
+            digest.update((byte) 'B');
+            updateLength(digest, buffer.remaining());
+            digest.update(buffer.duplicate());
+            return true;
+        }
+        if (value instanceof CharSequence sequence) {
+            updateString(digest, 'S', sequence.toString());
+            return true;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character || value instanceof Enum<?>) {
+            updateString(digest, 'P', value.getClass().getName());
+            updateString(digest, 'V', value.toString());
+            return true;
+        }
+        if (value instanceof Map<?, ?> map) {
+            List<byte[]> entries = new ArrayList<>(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                MessageDigest child = newDigest();
+                if (!update(child, entry.getKey()) || !update(child, entry.getValue())) {
+                    return false;
+                }
+                entries.add(child.digest());
+            }
+            return updateUnordered(digest, 'M', entries);
+        }
+        if (value instanceof Set<?> set) {
+            List<byte[]> elements = new ArrayList<>(set.size());
+            for (Object element : set) {
+                MessageDigest child = newDigest();
+                if (!update(child, element)) {
+                    return false;
+                }
+                elements.add(child.digest());
+            }
+            return updateUnordered(digest, 'E', elements);
+        }
+        if (value instanceof Collection<?> collection) {
+            return updateOrdered(digest, collection.size(), collection);
+        }
+        if (value instanceof Object[] array) {
+            return updateOrdered(digest, array.length, Arrays.asList(array));
+        }
+        if (value instanceof Serializable) {
+            updateString(digest, 'O', value.getClass().getName());
+            try (ObjectOutputStream out = new ObjectOutputStream(new DigestStream(digest))) {
+                out.writeObject(value);
+            } catch (IOException e) {
+                return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean updateOrdered(MessageDigest digest, int size, Iterable<?> elements) {
+        digest.update((byte) 'L');
+        updateLength(digest, size);
+        for (Object element : elements) {
+            if (!update(digest, element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean updateUnordered(MessageDigest digest, char tag, List<byte[]> digests) {
+        digests.sort(Arrays::compare);
+        digest.update((byte) tag);
+        updateLength(digest, digests.size());
+        for (byte[] child : digests) {
+            digest.update(child);
+        }
+        return true;
+    }
+
+    static void updateString(MessageDigest digest, char tag, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) tag);
+        updateLength(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    private static void updateLength(MessageDigest digest, long length) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            digest.update((byte) (length >>> shift));
+        }
+    }
+
+    private static final class DigestStream extends OutputStream {
+        private final MessageDigest digest;
+
+        private DigestStream(MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        @Override
+        public void write(int b) {
+            digest.update((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            digest.update(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.ums.bms.engine.memo;
+
+import com.ums.bms.engine.store.ResultSizes;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * 按结果大小淘汰的内存LRU存储
+ * <p>
+ * 缓存总大小超过容量时淘汰最久未访问的结果, 单个超过容量的结果不缓存.
+ *
+ * @author violet
+ * @since 2025/6/5
+ */
+public class LruMemoStore implements MemoStore {
+    /* 无法估算大小的结果按该大小计算 */
+    static final long UNKNOWN_SIZE = 1024;
+
+    private final long capacity;
+    private final ToLongFunction<Object> estimator;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    /**
+     * @param capacity 容量(字节)
+     */
+    public LruMemoStore(long capacity) {
+        this(capacity, ResultSizes::estimate);
+    }
+
+    /**
+     * @param capacity  容量(字节)
+     * @param estimator 结果大小估算, 返回负数表示无法估算
+     */
+    public LruMemoStore(long capacity, ToLongFunction<Object> estimator) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.estimator = estimator;
+    }
+
+    @Override
+    public synchronized Object get(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? null : entry.result;
+    }
+
+    @Override
+    public synchronized void put(String key, Object result) {
+        long weight = estimator.applyAsLong(result);
+        if (weight < 0) {
+            weight = UNKNOWN_SIZE;
+        }
+        if (weight > capacity) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(result, weight));
+        if (previous != null) {
+            size -= previous.weight;
+        }
+        size += weight;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (size > capacity && eldest.hasNext()) {
+            size -= eldest.next().weight;
+            eldest.remove();
+        }
+    }
+
+    @Override
+    public synchronized void invalidate(String key) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            size -= previous.weight;
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * 当前缓存的结果总大小
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * 当前缓存的结果数
+     */
+    public synchronized int count() {
+        return entries.size();
+    }
+
+    private record Entry(Object result, long weight) {
+    }
+}
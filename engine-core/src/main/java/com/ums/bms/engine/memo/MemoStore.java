@@ -0,0 +1,39 @@
+package com.ums.bms.engine.memo;
+
+/**
+ * 节点结果的记忆化存储
+ * <p>
+ * 以{@link Memoizer}计算的内容寻址键保存节点结果, 跨运行共享. 实现必须线程安全,
+ * 命中的结果会直接作为节点结果交给下游, 下游不应修改其内容.
+ *
+ * @author violet
+ * @since 2025/6/5
+ */
+public interface MemoStore {
+
+    /**
+     * 获取缓存的结果
+     *
+     * @param key 内容寻址键
+     * @return 缓存的结果, 未命中时为空
+     */
+    Object get(String key);
+
+    /**
+     * 缓存结果, 无法保存的结果(例如超过容量或不可序列化)直接忽略
+     *
+     * @param key    内容寻址键
+     * @param result 结果, 不为空
+     */
+    void put(String key, Object result);
+
+    /**
+     * 移除缓存的结果
+     */
+    void invalidate(String key);
+
+    /**
+     * 清空所有缓存
+     */
+    void clear();
+}
@@ -0,0 +1,95 @@
+package com.ums.bms.engine.memo;
+
+import com.ums.bms.engine.model.Context;
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.utils.ParameterUtil;
+
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 节点结果记忆化
+ * <p>
+ * 声明了{@value #MEMOIZE}参数的节点以内容寻址键查找缓存, 键由处理器名称、节点参数、相关全局参数和所有输入结果的摘要计算,
+ * 任何一项变化都会得到新的键, 因此缓存不需要主动失效. 相关全局参数默认为全部全局参数,
+ * 可以通过{@value #MEMO_GLOBALS}参数以逗号分隔列出, 避免无关参数变化导致未命中.
+ * <p>
+ * 处理器必须是确定性的: 相同的输入和参数总是产生相同的结果.
+ *
+ * @author violet
+ * @since 2025/6/5
+ */
+public class Memoizer {
+    /* 节点参数, 为true时启用记忆化 */
+    public static final String MEMOIZE = "memoize";
+    /* 节点参数, 参与计算缓存键的全局参数名, 逗号分隔 */
+    public static final String MEMO_GLOBALS = "memo-globals";
+    /* 键格式变化时递增, 使旧的磁盘缓存失效 */
+    private static final String KEY_VERSION = "1";
+
+    private final MemoStore store;
+
+    public Memoizer(MemoStore store) {
+        this.store = store;
+    }
+
+    public MemoStore getStore() {
+        return store;
+    }
+
+    /**
+     * 计算节点的缓存键
+     *
+     * @param node    节点
+     * @param context 上下文, 节点的所有输入已写入
+     * @return 缓存键, 节点未启用记忆化或输入无法计算摘要时为空
+     */
+    public String key(Node node, Context context) {
+        if (!ParameterUtil.booleanValue(node, MEMOIZE, false)) {
+            return null;
+        }
+        MessageDigest digest = Fingerprints.newDigest();
+        Fingerprints.updateString(digest, 'K', KEY_VERSION);
+        Fingerprints.updateString(digest, 'P', String.valueOf(node.getProcessor()));
+        Map<String, Object> parameters = node.getParameters() == null ? Map.of() : node.getParameters();
+        if (!Fingerprints.update(digest, parameters)
+                || !Fingerprints.update(digest, globals(node, context))) {
+            return null;
+        }
+        List<Object> inputs = context.getInputs(node);
+        for (int i = 0; i < inputs.size(); i++) {
+            if (!Fingerprints.update(digest, inputs.get(i))) {
+                return null;
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public Object get(String key) {
+        return store.get(key);
+    }
+
+    public void put(String key, Object result) {
+        store.put(key, result);
+    }
+
+    private static Map<String, Object> globals(Node node, Context context) {
+        Map<String, Object> globals = new HashMap<>();
+        Object names = node.getParameter(MEMO_GLOBALS);
+        if (names == null) {
+            globals.putAll(context.getGlobalParameters());
+            return globals;
+        }
+        Iterable<?> keys = names instanceof Iterable<?> iterable ? iterable : List.of(names.toString().split(","));
+        for (Object name : keys) {
+            String key = name.toString().trim();
+            if (!key.isEmpty()) {
+                globals.put(key, context.getGlobalParameter(key));
+            }
+        }
+        return globals;
+    }
+}
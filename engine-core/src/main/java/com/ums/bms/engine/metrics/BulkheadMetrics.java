@@ -0,0 +1,67 @@
+package com.ums.bms.engine.metrics;
+
+import com.ums.bms.engine.bulkhead.Bulkhead;
+import com.ums.bms.engine.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 隔离舱饱和度指标, 按bulkhead标签区分资源类别, 之后创建的隔离舱也会注册
+ * <ul>
+ *     <li>{@code flow.bulkhead.active}: 执行中的节点数</li>
+ *     <li>{@code flow.bulkhead.waiting}: 等待执行的节点数</li>
+ *     <li>{@code flow.bulkhead.saturation}: 执行中的节点数占最大并发数的比例</li>
+ *     <li>{@code flow.bulkhead.completed}: 已完成的节点数</li>
+ *     <li>{@code flow.bulkhead.wait}: 累计等待时间</li>
+ * </ul>
+ * <pre>
+ * new BulkheadMetrics(engine.getBulkheads()).bindTo(meterRegistry);
+ * </pre>
+ *
+ * @author violet
+ * @since 2025/6/19
+ */
+public class BulkheadMetrics implements MeterBinder {
+
+    private final BulkheadRegistry bulkheads;
+
+    public BulkheadMetrics(BulkheadRegistry bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bulkheads.onCreated(bulkhead -> register(registry, bulkhead));
+    }
+
+    private static void register(MeterRegistry registry, Bulkhead bulkhead) {
+        Tags tags = Tags.of("bulkhead", bulkhead.getName());
+        Gauge.builder("flow.bulkhead.active", bulkhead, it -> it.stats().active())
+                .tags(tags)
+                .description("隔离舱中执行中的节点数")
+                .register(registry);
+        Gauge.builder("flow.bulkhead.waiting", bulkhead, it -> it.stats().waiting())
+                .tags(tags)
+                .description("隔离舱中等待执行的节点数")
+                .register(registry);
+        Gauge.builder("flow.bulkhead.saturation", bulkhead, it -> it.stats().saturation())
+                .tags(tags)
+                .description("隔离舱执行中的节点数占最大并发数的比例")
+                .register(registry);
+        FunctionCounter.builder("flow.bulkhead.completed", bulkhead, it -> it.stats().completed())
+                .tags(tags)
+                .description("隔离舱已完成的节点数")
+                .register(registry);
+        FunctionCounter.builder("flow.bulkhead.wait", bulkhead,
+                        it -> it.stats().waitNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                .tags(tags)
+                .baseUnit("seconds")
+                .description("隔离舱中节点的累计等待时间")
+                .register(registry);
+    }
+}
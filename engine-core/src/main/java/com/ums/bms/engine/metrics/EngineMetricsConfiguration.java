@@ -0,0 +1,29 @@
+package com.ums.bms.engine.metrics;
+
+import com.ums.bms.engine.model.ExecutionMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * 存在MeterRegistry(例如Actuator自动配置的Prometheus注册表)时提供执行指标监听器,
+ * 通过{@code EngineConfig.listener}传给引擎
+ *
+ * @author violet
+ * @since 2025/5/27
+ */
+@AutoConfiguration(after = CompositeMeterRegistryAutoConfiguration.class)
+public class EngineMetricsConfiguration {
+
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnMissingBean
+    public MicrometerExecutionListener micrometerExecutionListener(MeterRegistry registry,
+                                                                   @Value("${engine.mode:SERIAL}") ExecutionMode mode) {
+        return new MicrometerExecutionListener(registry, mode);
+    }
+}
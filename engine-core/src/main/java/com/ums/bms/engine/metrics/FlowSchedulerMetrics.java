@@ -0,0 +1,85 @@
+package com.ums.bms.engine.metrics;
+
+import com.ums.bms.engine.dispatch.FlowScheduler;
+import com.ums.bms.engine.dispatch.TenantStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 流程调度器的租户指标, 按tenant标签区分, 之后出现的租户也会注册, 空闲过期的租户的指标随租户移除
+ * <ul>
+ *     <li>{@code flow.scheduler.queued}: 排队中的运行数</li>
+ *     <li>{@code flow.scheduler.running}: 执行中的运行数</li>
+ *     <li>{@code flow.scheduler.queue}: 排队时间, 计数为已开始执行的运行数</li>
+ *     <li>{@code flow.scheduler.runs}: 已结束的运行数, 附加outcome标签(success/failure/rejected), 按速率计算吞吐</li>
+ * </ul>
+ *
+ * @author violet
+ * @since 2025/6/23
+ */
+public class FlowSchedulerMetrics implements MeterBinder {
+
+    private final FlowScheduler scheduler;
+
+    public FlowSchedulerMetrics(FlowScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        scheduler.onTenantCreated(tenant -> register(registry, tenant));
+        scheduler.onTenantRemoved(tenant -> remove(registry, tenant));
+    }
+
+    private void register(MeterRegistry registry, String tenant) {
+        Tags tags = Tags.of("tenant", tenant);
+        Gauge.builder("flow.scheduler.queued", scheduler, stat(tenant, TenantStats::queued))
+                .tags(tags)
+                .description("排队中的运行数")
+                .register(registry);
+        Gauge.builder("flow.scheduler.running", scheduler, stat(tenant, TenantStats::running))
+                .tags(tags)
+                .description("执行中的运行数")
+                .register(registry);
+        FunctionTimer.builder("flow.scheduler.queue", scheduler,
+                        it -> (long) stat(tenant, TenantStats::started).applyAsDouble(it),
+                        stat(tenant, TenantStats::queueNanos), TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .description("运行的排队时间")
+                .register(registry);
+        counter(registry, tags.and("outcome", "success"), stat(tenant, TenantStats::completed));
+        counter(registry, tags.and("outcome", "failure"), stat(tenant, TenantStats::failed));
+        counter(registry, tags.and("outcome", "rejected"), stat(tenant, TenantStats::rejected));
+    }
+
+    private static void remove(MeterRegistry registry, String tenant) {
+        for (Meter meter : registry.getMeters()) {
+            Meter.Id id = meter.getId();
+            if (id.getName().startsWith("flow.scheduler.") && tenant.equals(id.getTag("tenant"))) {
+                registry.remove(meter);
+            }
+        }
+    }
+
+    private void counter(MeterRegistry registry, Tags tags, ToDoubleFunction<FlowScheduler> count) {
+        FunctionCounter.builder("flow.scheduler.runs", scheduler, count)
+                .tags(tags)
+                .description("已结束的运行数")
+                .register(registry);
+    }
+
+    private static ToDoubleFunction<FlowScheduler> stat(String tenant, ToDoubleFunction<TenantStats> value) {
+        return scheduler -> {
+            TenantStats stats = scheduler.stats(tenant);
+            return stats == null ? 0 : value.applyAsDouble(stats);
+        };
+    }
+}
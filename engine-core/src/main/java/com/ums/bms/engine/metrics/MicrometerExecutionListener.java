@@ -0,0 +1,251 @@
+package com.ums.bms.engine.metrics;
+
+import com.ums.bms.engine.listener.ExecutionListener;
+import com.ums.bms.engine.listener.NodeTiming;
+import com.ums.bms.engine.model.ExecutionMode;
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import com.ums.bms.engine.runtime.ExecutionInstance;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 基于Micrometer的执行指标
+ * <p>
+ * 节点指标按flow、version、node、processor打标签, 处理耗时发布百分位直方图, 可以在Prometheus中按节点计算分位数.
+ * 每个执行计划的节点指标只在首次使用时注册一次并缓存, 热路径上不再查找注册表.
+ * <ul>
+ *     <li>{@code flow.run}: 单次运行耗时, 附加outcome标签</li>
+ *     <li>{@code flow.node.queue}: 节点就绪到开始执行的等待时间</li>
+ *     <li>{@code flow.node.initial}: 处理器initial耗时</li>
+ *     <li>{@code flow.node.process}: 处理器process耗时</li>
+ *     <li>{@code flow.node.failures}: 节点失败次数</li>
+ *     <li>{@code flow.node.memo}: 记忆化查找次数, 附加result标签(hit/miss)</li>
+ *     <li>{@code flow.node.skipped}: 节点被跳过的次数</li>
+ *     <li>{@code flow.node.result.size}: 节点结果大小, 集合为元素数, 流式节点为输出记录数, 普通数值结果不记录</li>
+ *     <li>{@code flow.runs.active}: 运行中的流程数</li>
+ *     <li>{@code flow.nodes.ready}: 已就绪但尚未开始执行的节点数</li>
+ * </ul>
+ *
+ * @author violet
+ * @since 2025/5/27
+ */
+public class MicrometerExecutionListener implements ExecutionListener {
+    private static final String NONE = "none";
+
+    private final MeterRegistry registry;
+    private final ExecutionMode defaultMode;
+    private final AtomicInteger activeRuns = new AtomicInteger();
+    private final AtomicInteger readyNodes = new AtomicInteger();
+    /* 以执行计划实例为弱引用键, 计划被替换或丢弃后缓存随计划回收, 指标本身保留在注册表中 */
+    private final Map<ExecutionPlan, NodeMeters[]> nodeMeters = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<ExecutionInstance, RunState> runs = new ConcurrentHashMap<>();
+
+    public MicrometerExecutionListener(MeterRegistry registry) {
+        this(registry, null);
+    }
+
+    /**
+     * @param registry    指标注册表
+     * @param defaultMode 引擎的默认执行模式, 用于判断未声明执行模式的计划是否按流式执行
+     */
+    public MicrometerExecutionListener(MeterRegistry registry, ExecutionMode defaultMode) {
+        this.registry = registry;
+        this.defaultMode = defaultMode;
+        Gauge.builder("flow.runs.active", activeRuns, AtomicInteger::get)
+                .description("运行中的流程数")
+                .register(registry);
+        Gauge.builder("flow.nodes.ready", readyNodes, AtomicInteger::get)
+                .description("已就绪但尚未开始执行的节点数")
+                .register(registry);
+    }
+
+    @Override
+    public void runStarted(ExecutionInstance instance) {
+        activeRuns.incrementAndGet();
+        runs.put(instance, new RunState(System.nanoTime(), new AtomicIntegerArray(instance.getPlan().size())));
+    }
+
+    @Override
+    public void runFinished(ExecutionInstance instance, Throwable error) {
+        activeRuns.decrementAndGet();
+        RunState run = runs.remove(instance);
+        if (run == null) {
+            return;
+        }
+        // 失败时已就绪但未执行的节点不会再开始
+        for (int i = 0; i < run.pendingReady.length(); i++) {
+            if (run.pendingReady.getAndSet(i, 0) != 0) {
+                readyNodes.decrementAndGet();
+            }
+        }
+        Timer.builder("flow.run")
+                .description("流程运行耗时")
+                .tags(flowTags(instance.getPlan()).and("outcome", error == null ? "success" : "failure"))
+                .register(registry)
+                .record(System.nanoTime() - run.startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void nodeReady(ExecutionInstance instance, int ordinal) {
+        RunState run = runs.get(instance);
+        if (run != null && run.pendingReady.compareAndSet(ordinal, 0, 1)) {
+            readyNodes.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void nodeStarted(ExecutionInstance instance, int ordinal) {
+        RunState run = runs.get(instance);
+        if (run != null && run.pendingReady.compareAndSet(ordinal, 1, 0)) {
+            readyNodes.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void nodeMemoized(ExecutionInstance instance, int ordinal, boolean hit) {
+        NodeMeters meters = meters(instance.getPlan(), ordinal);
+        (hit ? meters.memoHits : meters.memoMisses).increment();
+    }
+
+    @Override
+    public void nodeFinished(ExecutionInstance instance, int ordinal, NodeTiming timing, Object result, Throwable error) {
+        NodeMeters meters = meters(instance.getPlan(), ordinal);
+        if (instance.getStatus(ordinal) == Node.NodeStatus.SKIPPED) {
+            // 跳过的节点没有nodeStarted回调
+            RunState run = runs.get(instance);
+            if (run != null && run.pendingReady.compareAndSet(ordinal, 1, 0)) {
+                readyNodes.decrementAndGet();
+            }
+            meters.skipped.increment();
+            return;
+        }
+        meters.queue.record(timing.queueNanos(), TimeUnit.NANOSECONDS);
+        if (error != null) {
+            meters.failures.increment();
+            return;
+        }
+        meters.initial.record(timing.initialDurationNanos(), TimeUnit.NANOSECONDS);
+        meters.process.record(timing.processDurationNanos(), TimeUnit.NANOSECONDS);
+        // 流式节点的结果是输出记录数, 其他节点的数值结果不是大小
+        long size = streaming(instance.getPlan()) && result instanceof Long count ? count : sizeOf(result);
+        if (size >= 0) {
+            meters.resultSize.record(size);
+        }
+    }
+
+    private boolean streaming(ExecutionPlan plan) {
+        ExecutionMode mode = plan.executionMode() != null ? plan.executionMode() : defaultMode;
+        return mode == ExecutionMode.STREAMING;
+    }
+
+    private NodeMeters meters(ExecutionPlan plan, int ordinal) {
+        NodeMeters[] planMeters = nodeMeters.computeIfAbsent(plan, it -> new NodeMeters[it.size()]);
+        NodeMeters meters = planMeters[ordinal];
+        if (meters == null) {
+            // 并发创建时注册表返回同一组指标, 重复赋值无副作用
+            meters = new NodeMeters(registry, nodeTags(plan, plan.node(ordinal)));
+            planMeters[ordinal] = meters;
+        }
+        return meters;
+    }
+
+    private static Tags flowTags(ExecutionPlan plan) {
+        return Tags.of("flow", valueOf(plan.flowId()), "version", valueOf(plan.version()));
+    }
+
+    private static Tags nodeTags(ExecutionPlan plan, Node node) {
+        return flowTags(plan).and("node", node.getId(), "processor", valueOf(node.getProcessor()));
+    }
+
+    private static String valueOf(String value) {
+        return value == null ? NONE : value;
+    }
+
+    /**
+     * 结果大小, 无法计算时返回-1; 数值不是大小, 同样返回-1
+     */
+    static long sizeOf(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (result instanceof CharSequence sequence) {
+            return sequence.length();
+        }
+        if (result != null && result.getClass().isArray()) {
+            return Array.getLength(result);
+        }
+        return -1;
+    }
+
+    /**
+     * @param startNanos   运行开始时间
+     * @param pendingReady 按节点序号标记已就绪未开始的节点
+     */
+    private record RunState(long startNanos, AtomicIntegerArray pendingReady) {
+    }
+
+    private static final class NodeMeters {
+        private final Timer queue;
+        private final Timer initial;
+        private final Timer process;
+        private final Counter failures;
+        private final Counter skipped;
+        private final Counter memoHits;
+        private final Counter memoMisses;
+        private final DistributionSummary resultSize;
+
+        private NodeMeters(MeterRegistry registry, Tags tags) {
+            this.queue = Timer.builder("flow.node.queue")
+                    .description("节点就绪到开始执行的等待时间")
+                    .tags(tags)
+                    .register(registry);
+            this.initial = Timer.builder("flow.node.initial")
+                    .description("处理器initial耗时")
+                    .tags(tags)
+                    .register(registry);
+            this.process = Timer.builder("flow.node.process")
+                    .description("处理器process耗时")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.failures = Counter.builder("flow.node.failures")
+                    .description("节点失败次数")
+                    .tags(tags)
+                    .register(registry);
+            this.skipped = Counter.builder("flow.node.skipped")
+                    .description("节点被跳过的次数")
+                    .tags(tags)
+                    .register(registry);
+            this.memoHits = Counter.builder("flow.node.memo")
+                    .description("记忆化查找次数")
+                    .tags(tags.and("result", "hit"))
+                    .register(registry);
+            this.memoMisses = Counter.builder("flow.node.memo")
+                    .description("记忆化查找次数")
+                    .tags(tags.and("result", "miss"))
+                    .register(registry);
+            this.resultSize = DistributionSummary.builder("flow.node.result.size")
+                    .description("节点结果大小")
+                    .tags(tags)
+                    .register(registry);
+        }
+    }
+}
@@ -1,18 +1,66 @@
 package com.ums.bms.engine.model;
 
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-import lombok.Data;
-
+import com.ums.bms.engine.plan.ExecutionPlan;
+import com.ums.bms.engine.store.ResultStore;
 /**
  * 流程上下文
+ * <p>
+ * 运行中的上下文按执行计划的节点序号保存结果, 读取上游输入不需要哈希查找也不会分配新的集合;
+ * 独立创建的上下文(例如测试或处理器初始化)没有执行计划, 按节点ID保存结果.
+ * 已知节点序号时优先使用按序号读取输入的方法, 按{@link Node}读取时需要先查找节点序号.
  */
-@Data
 public class Context {
-    private Map<String, Object> globalParameters = new HashMap<>();
-    private Map<String, Object> nodeResults = new HashMap<>();
-    
+    private final Map<String, Object> globalParameters = new HashMap<>();
+    /* 所属执行计划, 独立创建的上下文为空 */
+    private final ExecutionPlan plan;
+    /* 节点结果存储, 独立创建的上下文为空 */
+    private final ResultStore resultStore;
+    /* 节点结果视图, 独立创建的上下文直接保存结果 */
+    private final Map<String, Object> nodeResults;
+    /* 按节点序号缓存的输入视图, 首次读取时创建, 并发创建的视图等价 */
+    private final Inputs[] inputs;
+
+    public Context() {
+        this.plan = null;
+        this.resultStore = null;
+        this.nodeResults = new ConcurrentHashMap<>();
+        this.inputs = null;
+    }
+
+    /**
+     * @param plan        执行计划
+     * @param resultStore 按节点序号保存结果的存储
+     */
+    public Context(ExecutionPlan plan, ResultStore resultStore) {
+        this.plan = plan;
+        this.resultStore = resultStore;
+        this.nodeResults = new NodeResults();
+        this.inputs = new Inputs[plan.size()];
+    }
+
+    public Map<String, Object> getGlobalParameters() {
+        return globalParameters;
+    }
+
+    /**
+     * 节点结果, 运行中的上下文返回按节点序号读取的只读视图
+     */
+    public Map<String, Object> getNodeResults() {
+        return nodeResults;
+    }
+
     /**
      * 获取全局参数
      * 
@@ -30,7 +78,19 @@ public class Context {
      * @param result 结果
      */
     public void setNodeResult(String nodeId, Object result) {
-        nodeResults.put(nodeId, result);
+        if (plan == null) {
+            if (result == null) {
+                nodeResults.remove(nodeId);
+            } else {
+                nodeResults.put(nodeId, result);
+            }
+            return;
+        }
+        int ordinal = plan.indexOf(nodeId);
+        if (ordinal < 0) {
+            throw new IllegalArgumentException("Unknown node: " + nodeId);
+        }
+        setResult(ordinal, result);
     }
     
     /**
@@ -40,9 +100,114 @@ public class Context {
      * @return 结果
      */
     public Object getNodeResult(String nodeId) {
-        return nodeResults.get(nodeId);
+        if (plan == null) {
+            return nodeResults.get(nodeId);
+        }
+        int ordinal = plan.indexOf(nodeId);
+        return ordinal < 0 ? null : resultStore.get(ordinal);
     }
-    
+
+    /**
+     * 按节点序号设置结果, 结果为空时移除
+     *
+     * @param ordinal 节点序号
+     * @param result  结果
+     */
+    public void setResult(int ordinal, Object result) {
+        if (result == null) {
+            resultStore.remove(ordinal);
+            return;
+        }
+        resultStore.put(ordinal, result);
+    }
+
+    /**
+     * 按节点序号获取结果
+     */
+    public Object getResult(int ordinal) {
+        return resultStore.get(ordinal);
+    }
+
+    /**
+     * 以只读ByteBuffer视图获取二进制节点结果, 溢出到内存映射文件的结果不会被复制到堆内
+     *
+     * @param nodeId 节点ID
+     * @return 按顺序排列的视图, 结果不存在或不是二进制数据时为空
+     */
+    public List<ByteBuffer> getNodeResultBuffers(String nodeId) {
+        if (plan == null) {
+            return ResultStore.buffersOf(nodeResults.get(nodeId));
+        }
+        int ordinal = plan.indexOf(nodeId);
+        return ordinal < 0 ? null : resultStore.getBuffers(ordinal);
+    }
+
+    /**
+     * 获取节点的第index个输入, 即{@code deps}中第index个依赖的结果
+     *
+     * @param node  当前节点
+     * @param index 依赖下标
+     * @return 依赖结果
+     */
+    public Object getInput(Node node, int index) {
+        int ordinal = ordinal(node);
+        if (ordinal < 0) {
+            return getNodeResult(node.getDeps().get(index));
+        }
+        return getInput(ordinal, index);
+    }
+
+    /**
+     * 按节点序号获取第index个输入, 不需要查找节点
+     *
+     * @param ordinal 当前节点序号
+     * @param index   依赖下标
+     * @return 依赖结果
+     */
+    public Object getInput(int ordinal, int index) {
+        return resultStore.get(plan.predecessors(ordinal)[index]);
+    }
+
+    /**
+     * 节点所有输入的只读视图, 顺序与{@code deps}一致, 每次访问读取最新结果
+     *
+     * @param node 当前节点
+     * @return 输入视图
+     */
+    public List<Object> getInputs(Node node) {
+        int ordinal = ordinal(node);
+        if (ordinal < 0) {
+            List<String> deps = node.getDeps();
+            return new AbstractList<>() {
+                @Override
+                public Object get(int index) {
+                    return getNodeResult(deps.get(index));
+                }
+
+                @Override
+                public int size() {
+                    return deps.size();
+                }
+            };
+        }
+        return getInputs(ordinal);
+    }
+
+    /**
+     * 按节点序号获取输入视图, 同一节点在一次运行中复用同一个视图
+     *
+     * @param ordinal 当前节点序号
+     * @return 输入视图
+     */
+    public List<Object> getInputs(int ordinal) {
+        Inputs view = inputs[ordinal];
+        if (view == null) {
+            view = new Inputs(plan.predecessors(ordinal));
+            inputs[ordinal] = view;
+        }
+        return view;
+    }
+
     /**
      * 获取前置节点结果
      * 
@@ -50,9 +215,106 @@ public class Context {
      * @return 前置节点结果
      */
     public Object getPrevResult(Node node) {
-        if (node.getDeps() == null || node.getDeps().isEmpty()) {
+        if (node.getDeps().isEmpty()) {
             return null;
         }
-        return getNodeResult(node.getDeps().get(0));
+        return getInput(node, 0);
+    }
+
+    /**
+     * 节点在执行计划中的序号, 节点不属于执行计划时为-1
+     */
+    private int ordinal(Node node) {
+        if (plan == null) {
+            return -1;
+        }
+        int ordinal = plan.indexOf(node.getId());
+        return ordinal < 0 || plan.node(ordinal) != node ? -1 : ordinal;
+    }
+
+    /**
+     * 按前驱序号读取结果的输入视图
+     */
+    private final class Inputs extends AbstractList<Object> {
+        private final int[] predecessors;
+
+        private Inputs(int[] predecessors) {
+            this.predecessors = predecessors;
+        }
+
+        @Override
+        public Object get(int index) {
+            return resultStore.get(predecessors[index]);
+        }
+
+        @Override
+        public int size() {
+            return predecessors.length;
+        }
+    }
+
+    /**
+     * 按节点序号保存的结果的只读视图, 只包含当前存在的结果
+     */
+    private final class NodeResults extends AbstractMap<String, Object> {
+
+        @Override
+        public Object get(Object key) {
+            return key instanceof String nodeId ? getNodeResult(nodeId) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            if (!(key instanceof String nodeId)) {
+                return false;
+            }
+            int ordinal = plan.indexOf(nodeId);
+            return ordinal >= 0 && resultStore.contains(ordinal);
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<>() {
+                        private int next = advance(0);
+
+                        private int advance(int from) {
+                            while (from < plan.size() && !resultStore.contains(from)) {
+                                from++;
+                            }
+                            return from;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < plan.size();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int ordinal = next;
+                            next = advance(ordinal + 1);
+                            return new SimpleImmutableEntry<>(plan.node(ordinal).getId(), resultStore.get(ordinal));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    int size = 0;
+                    for (int i = 0; i < plan.size(); i++) {
+                        if (resultStore.contains(i)) {
+                            size++;
+                        }
+                    }
+                    return size;
+                }
+            };
+        }
     }
 }
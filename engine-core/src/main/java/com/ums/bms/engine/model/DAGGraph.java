@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.ums.bms.engine.utils.deser.NodeMapDeserializer;
 import lombok.AllArgsConstructor;
@@ -23,6 +24,9 @@ public class DAGGraph {
     @JsonDeserialize(using = NodeMapDeserializer.class)
     private Map<String, Node> nodes = new HashMap<>();
     private Map<String, Object> globalParameters = new HashMap<>();
+    /* 解析时发现的重复节点ID, 只保留第一次声明的节点 */
+    @JsonIgnore
+    private List<String> duplicateNodeIds;
     
     /**
      * 获取节点
@@ -65,7 +69,10 @@ public class DAGGraph {
 
     /**
      * Get all nodes that are ready to execute (all dependencies are completed)
+     *
+     * @deprecated 运行状态保存在{@code ExecutionInstance}上, 调度由{@code ExecutionPlan}完成
      */
+    @Deprecated
     public List<Node> getReadyNodes() {
         return nodes.values().stream()
                 .filter(node -> node.getStatus() == Node.NodeStatus.PENDING && node.isReady(nodes))
@@ -74,7 +81,10 @@ public class DAGGraph {
 
     /**
      * Check if all nodes in the DAG are completed
+     *
+     * @deprecated 使用{@code ExecutionInstance#isCompleted()}
      */
+    @Deprecated
     public boolean isCompleted() {
         return nodes.values().stream()
                 .allMatch(node -> node.getStatus() == Node.NodeStatus.COMPLETED ||
@@ -83,51 +93,11 @@ public class DAGGraph {
     }
 
     /**
-     * Validate the DAG for cycles and missing dependencies
+     * Validate the DAG for cycles, missing dependencies and duplicate node ids
+     *
+     * @see DAGValidator
      */
     public boolean validate() {
-        // Check for missing dependencies
-        for (Node node : nodes.values()) {
-            for (String depId : node.getDeps()) {
-                if (!nodes.containsKey(depId)) {
-                    return false;
-                }
-            }
-        }
-
-        // Check for cycles using DFS
-        Map<String, Boolean> visited = new HashMap<>();
-        Map<String, Boolean> recursionStack = new HashMap<>();
-
-        for (String nodeId : nodes.keySet()) {
-            if (hasCycle(nodeId, visited, recursionStack)) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
-    /**
-     * 基于拓扑排序验证是否存在环
-     */
-    private boolean hasCycle(String nodeId, Map<String, Boolean> visited, Map<String, Boolean> recursionStack) {
-        if (recursionStack.getOrDefault(nodeId, false)) {
-            return true;
-        }
-        if (visited.getOrDefault(nodeId, false)) {
-            return false;
-        }
-        visited.put(nodeId, true);
-        recursionStack.put(nodeId, true);
-        Node node = nodes.get(nodeId);
-        for (String depId : node.getDeps()) {
-            if (hasCycle(depId, visited, recursionStack)) {
-                return true;
-            }
-        }
-
-        recursionStack.put(nodeId, false);
-        return false;
+        return DAGValidator.validate(this).isValid();
     }
 }
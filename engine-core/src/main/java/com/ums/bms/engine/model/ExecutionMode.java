@@ -0,0 +1,17 @@
+package com.ums.bms.engine.model;
+
+/**
+ * 执行模式
+ */
+public enum ExecutionMode {
+    /* 在调用线程上逐个执行节点 */
+    SERIAL,
+    /* 依赖完成的节点并行提交到执行器 */
+    PARALLEL,
+    /* 每个节点运行在虚拟线程上, 按处理器类型限制并发, 适用于IO密集的流程 */
+    VIRTUAL,
+    /* 限制并发数的并行执行, 就绪节点按到汇点的剩余最长路径(按历史耗时加权)优先执行 */
+    PRIORITY,
+    /* 所有节点同时启动, 通过有界缓冲区逐条传递记录, 节点处理器需实现StreamProcessor */
+    STREAMING
+}
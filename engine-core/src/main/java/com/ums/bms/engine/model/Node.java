@@ -1,6 +1,6 @@
 package com.ums.bms.engine.model;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -18,6 +18,12 @@ public class Node {
     private String processor;
     private Map<String, Object> parameters;
     private List<String> deps; // 依赖关系
+    /* 执行条件(SpEL), 不满足时节点及只依赖被跳过节点的下游标记为SKIPPED */
+    private String condition;
+    /**
+     * @deprecated 运行状态保存在{@code ExecutionInstance}上, 引擎不再写入该字段
+     */
+    @Deprecated
     private NodeStatus status;
     public enum NodeStatus {
         PENDING, RUNNING, COMPLETED, FAILED, SKIPPED
@@ -25,7 +31,7 @@ public class Node {
 
     public List<String> getDeps() {
         if (deps == null) {
-            return new ArrayList<>();
+            return Collections.emptyList();
         }
         return deps;
     }
@@ -40,6 +46,10 @@ public class Node {
         return parameters != null ? parameters.get(key) : null;
     }
 
+    /**
+     * @deprecated 运行状态保存在{@code ExecutionInstance}上
+     */
+    @Deprecated
     public boolean isReady(Map<String, Node> allNodes) {
         if (getDeps().isEmpty()) {
             return true;
@@ -0,0 +1,38 @@
+package com.ums.bms.engine.model;
+
+import java.util.List;
+
+/**
+ * DAG校验报告
+ *
+ * @param duplicateNodeIds    重复声明的节点ID
+ * @param missingDependencies 依赖的节点不存在
+ * @param cycle               一个具体的环, 每个节点依赖下一个节点, 首尾相同; 无环时为空列表
+ * @param unreachableNodes    因环或缺失依赖而永远无法执行的节点
+ * @author violet
+ * @since 2025/5/23
+ */
+public record ValidationReport(List<String> duplicateNodeIds,
+                               List<MissingDependency> missingDependencies,
+                               List<String> cycle,
+                               List<String> unreachableNodes) {
+
+    /**
+     * @param nodeId      节点ID
+     * @param dependencyId 不存在的依赖ID
+     */
+    public record MissingDependency(String nodeId, String dependencyId) {
+        @Override
+        public String toString() {
+            return nodeId + "->" + dependencyId;
+        }
+    }
+
+    public boolean isValid() {
+        return duplicateNodeIds.isEmpty() && missingDependencies.isEmpty() && cycle.isEmpty();
+    }
+
+    public boolean hasCycle() {
+        return !cycle.isEmpty();
+    }
+}
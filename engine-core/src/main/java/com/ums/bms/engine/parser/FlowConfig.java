@@ -2,6 +2,7 @@ package com.ums.bms.engine.parser;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.ums.bms.engine.model.DAGGraph;
+import com.ums.bms.engine.model.ExecutionMode;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -24,6 +25,8 @@ public class FlowConfig {
     private String name;
     /* 工作流版本 */
     private String version;
+    /* 执行模式，为空时使用引擎默认模式 */
+    private ExecutionMode executionMode;
     /* 全局参数，每个节点应该都可以获取 */
     private Map<String, Object> globalParameters;
     /* 节点具体处理 */
@@ -0,0 +1,121 @@
+package com.ums.bms.engine.parser;
+
+import com.ums.bms.engine.exception.FlowConfigParserException;
+import com.ums.bms.engine.model.DAGGraph;
+import com.ums.bms.engine.model.DAGValidator;
+import com.ums.bms.engine.model.ValidationReport;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 流程配置解析器, 支持YAML、JSON和Smile格式以及多种输入来源
+ * <p>
+ * 每种格式共享一个线程安全的读取器, 节点列表在反序列化时直接构建为节点Map.
+ *
+ * @author violet
+ * @since 2025/5/21
+ */
+public final class FlowConfigParser {
+
+    private FlowConfigParser() {}
+
+    /**
+     * 解析文件, 格式由扩展名决定
+     */
+    public static FlowConfig parse(Path path) {
+        FlowFormat format = FlowFormat.fromFileName(path.getFileName().toString());
+        if (format == null) {
+            throw new FlowConfigParserException("不支持的流程配置文件格式，文件路径为" + path.toAbsolutePath());
+        }
+        return parse(path, format);
+    }
+
+    public static FlowConfig parse(Path path, FlowFormat format) {
+        try (InputStream in = Files.newInputStream(path)) {
+            return validated(format.reader().readValue(in));
+        } catch (IOException e) {
+            throw new FlowConfigParserException("解析流程配置错误，文件路径为" + path.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * 解析输入流, 解析结束后输入流会被关闭
+     */
+    public static FlowConfig parse(InputStream in, FlowFormat format) {
+        try {
+            return validated(format.reader().readValue(in));
+        } catch (IOException e) {
+            throw new FlowConfigParserException("解析流程配置错误", e);
+        }
+    }
+
+    public static FlowConfig parse(byte[] content, FlowFormat format) {
+        try {
+            return validated(format.reader().readValue(content));
+        } catch (IOException e) {
+            throw new FlowConfigParserException("解析流程配置错误", e);
+        }
+    }
+
+    /**
+     * 按Content-Type解析配置服务返回的内容
+     */
+    public static FlowConfig parse(byte[] content, String contentType) {
+        FlowFormat format;
+        try {
+            format = FlowFormat.fromContentType(contentType);
+        } catch (IllegalArgumentException e) {
+            throw new FlowConfigParserException("不支持的流程配置格式" + contentType, e);
+        }
+        return parse(content, format);
+    }
+
+    /**
+     * 解析文本格式(YAML或JSON)
+     */
+    public static FlowConfig parse(String content, FlowFormat format) {
+        if (format == FlowFormat.SMILE) {
+            throw new FlowConfigParserException("二进制格式不能从字符串解析");
+        }
+        try {
+            return validated(format.reader().readValue(content));
+        } catch (IOException e) {
+            throw new FlowConfigParserException("解析流程配置错误", e);
+        }
+    }
+
+    private static FlowConfig validated(FlowConfig config) {
+        valid(config);
+        return config;
+    }
+
+    static void valid(@NonNull FlowConfig config) {
+        if (config.getId() == null || config.getId().isBlank()) {
+            throw new FlowConfigParserException("流程配置ID为空");
+        }
+        if (config.getName() == null || config.getName().isBlank()) {
+            throw new FlowConfigParserException("流程配置名称为必填项.");
+        }
+        if (config.getVersion() == null || config.getVersion().isBlank()) {
+            throw new FlowConfigParserException("流程配置版本为必填项.");
+        }
+        DAGGraph dag = config.getDag();
+        if (dag == null || dag.getNodes() == null || dag.getNodes().isEmpty()) {
+            throw new FlowConfigParserException("流程配置节点为空.");
+        }
+        ValidationReport report = DAGValidator.validate(dag);
+        if (!report.duplicateNodeIds().isEmpty()) {
+            throw new FlowConfigParserException("流程配置存在重复的节点ID: " + report.duplicateNodeIds(), report);
+        }
+        if (!report.missingDependencies().isEmpty()) {
+            throw new FlowConfigParserException("流程配置存在缺失的依赖: " + report.missingDependencies(), report);
+        }
+        if (report.hasCycle()) {
+            throw new FlowConfigParserException("流程配置存在环.", report);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.ums.bms.engine.parser;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import org.yaml.snakeyaml.LoaderOptions;
+
+import java.util.Locale;
+
+/**
+ * 流程配置的编码格式
+ *
+ * @author violet
+ * @since 2025/5/21
+ */
+public enum FlowFormat {
+    YAML(yamlFactory(), new String[]{"application/yaml", "application/x-yaml", "text/yaml", "text/x-yaml"},
+            new String[]{".yaml", ".yml"}),
+    JSON(new JsonFactory(), new String[]{"application/json", "text/json"},
+            new String[]{".json"}),
+    /* Jackson Smile二进制JSON, 解析比文本格式更快且体积更小 */
+    SMILE(new SmileFactory(), new String[]{"application/x-jackson-smile", "application/smile"},
+            new String[]{".smile", ".sml"});
+
+    /* SnakeYAML默认只允许3MB的文档, 十万级节点的流程会超过该限制 */
+    private static final int YAML_CODE_POINT_LIMIT = 128 * 1024 * 1024;
+
+    private final ObjectMapper mapper;
+    private final ObjectReader reader;
+    private final String[] contentTypes;
+    private final String[] extensions;
+
+    FlowFormat(JsonFactory factory, String[] contentTypes, String[] extensions) {
+        this.mapper = new ObjectMapper(factory);
+        this.reader = mapper.readerFor(FlowConfig.class);
+        this.contentTypes = contentTypes;
+        this.extensions = extensions;
+    }
+
+    private static YAMLFactory yamlFactory() {
+        LoaderOptions options = new LoaderOptions();
+        options.setCodePointLimit(YAML_CODE_POINT_LIMIT);
+        return YAMLFactory.builder().loaderOptions(options).build();
+    }
+
+    /**
+     * 线程安全的FlowConfig读取器
+     */
+    ObjectReader reader() {
+        return reader;
+    }
+
+    public ObjectMapper mapper() {
+        return mapper;
+    }
+
+    public String contentType() {
+        return contentTypes[0];
+    }
+
+    /**
+     * 按Content-Type选择格式, 忽略charset等参数
+     *
+     * @param contentType Content-Type
+     * @return 格式
+     * @throws IllegalArgumentException 不支持的Content-Type
+     */
+    public static FlowFormat fromContentType(String contentType) {
+        if (contentType == null) {
+            throw new IllegalArgumentException("Content type is required");
+        }
+        int semicolon = contentType.indexOf(';');
+        String mediaType = (semicolon < 0 ? contentType : contentType.substring(0, semicolon))
+                .trim().toLowerCase(Locale.ROOT);
+        for (FlowFormat format : values()) {
+            for (String candidate : format.contentTypes) {
+                if (candidate.equals(mediaType)) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported flow content type: " + contentType);
+    }
+
+    /**
+     * 按文件扩展名选择格式
+     *
+     * @param fileName 文件名
+     * @return 格式, 不支持的扩展名返回null
+     */
+    public static FlowFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        for (FlowFormat format : values()) {
+            for (String extension : format.extensions) {
+                if (name.endsWith(extension)) {
+                    return format;
+                }
+            }
+        }
+        return null;
+    }
+}
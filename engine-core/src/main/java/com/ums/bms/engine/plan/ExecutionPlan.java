@@ -0,0 +1,329 @@
+package com.ums.bms.engine.plan;
+
+import com.ums.bms.engine.exception.FlowConfigParserException;
+import com.ums.bms.engine.model.DAGGraph;
+import com.ums.bms.engine.model.ExecutionMode;
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.parser.FlowConfig;
+import com.ums.bms.engine.utils.ParameterUtil;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译后的执行计划
+ * <p>
+ * 将校验过的{@link DAGGraph}编译为不可变的稠密整型下标结构: 每个节点对应一个序号,
+ * 后继节点邻接表和入度在编译期计算完成, 调度器只需要维护入度计数器的副本并从就绪队列中取节点.
+ * 返回的数组为内部数组, 调用方不得修改.
+ * <p>
+ * 执行计划不保存任何运行状态, 同一个计划可以被多个{@code ExecutionInstance}并发执行.
+ *
+ * @author violet
+ * @since 2025/5/6
+ */
+public final class ExecutionPlan {
+    /* 节点参数, 为true时节点结果保留到运行结束, 不会在所有下游完成后释放 */
+    public static final String RETAIN = "retain";
+    private static final int[] EMPTY = new int[0];
+
+    private final String flowId;
+    private final String flowName;
+    private final String version;
+    private final ExecutionMode executionMode;
+    private final Map<String, Object> globalParameters;
+    private final Node[] nodes;
+    private final Map<String, Integer> index;
+    private final int[][] successors;
+    private final int[][] predecessors;
+    private final int[] inDegree;
+    private final int[] sources;
+    private final int[] sinks;
+    private final int[] topologicalOrder;
+    private final boolean[] retained;
+    private final NodeCondition[] conditions;
+
+    private ExecutionPlan(FlowConfig flow, Map<String, Object> globalParameters, Node[] nodes,
+                          Map<String, Integer> index, int[][] successors, int[][] predecessors,
+                          int[] inDegree, int[] sources, int[] sinks, int[] topologicalOrder, boolean[] retained,
+                          NodeCondition[] conditions) {
+        this.flowId = flow != null ? flow.getId() : null;
+        this.flowName = flow != null ? flow.getName() : null;
+        this.version = flow != null ? flow.getVersion() : null;
+        this.executionMode = flow != null ? flow.getExecutionMode() : null;
+        this.globalParameters = globalParameters;
+        this.nodes = nodes;
+        this.index = index;
+        this.successors = successors;
+        this.predecessors = predecessors;
+        this.inDegree = inDegree;
+        this.sources = sources;
+        this.sinks = sinks;
+        this.topologicalOrder = topologicalOrder;
+        this.retained = retained;
+        this.conditions = conditions;
+    }
+
+    /**
+     * 编译流程配置, 流程的全局参数覆盖DAG中的同名全局参数
+     *
+     * @param flow 流程配置
+     * @return 执行计划
+     * @throws FlowConfigParserException 依赖缺失、存在环或条件表达式无效时抛出
+     */
+    public static ExecutionPlan compile(FlowConfig flow) {
+        return compile(flow.getDag(), flow);
+    }
+
+    /**
+     * 编译DAG图
+     *
+     * @param dag DAG图
+     * @return 执行计划
+     * @throws FlowConfigParserException 依赖缺失、存在环或条件表达式无效时抛出
+     */
+    public static ExecutionPlan compile(DAGGraph dag) {
+        return compile(dag, null);
+    }
+
+    private static ExecutionPlan compile(DAGGraph dag, FlowConfig flow) {
+        if (dag == null || dag.getNodes() == null || dag.getNodes().isEmpty()) {
+            throw new FlowConfigParserException("流程配置节点为空.");
+        }
+        int n = dag.getNodes().size();
+        Node[] nodes = new Node[n];
+        Map<String, Integer> index = new HashMap<>(n * 4 / 3 + 1);
+        int ordinal = 0;
+        for (Node node : dag.getNodes().values()) {
+            nodes[ordinal] = node;
+            index.put(node.getId(), ordinal++);
+        }
+
+        // 前驱与出度
+        int[][] predecessors = new int[n][];
+        int[] outDegree = new int[n];
+        for (int i = 0; i < n; i++) {
+            List<String> deps = nodes[i].getDeps();
+            if (deps.isEmpty()) {
+                predecessors[i] = EMPTY;
+                continue;
+            }
+            int[] preds = new int[deps.size()];
+            for (int d = 0; d < preds.length; d++) {
+                Integer dep = index.get(deps.get(d));
+                if (dep == null) {
+                    throw new FlowConfigParserException(
+                            "节点" + nodes[i].getId() + "依赖的节点" + deps.get(d) + "不存在.");
+                }
+                preds[d] = dep;
+                outDegree[dep]++;
+            }
+            predecessors[i] = preds;
+        }
+
+        // 后继邻接表
+        int[][] successors = new int[n][];
+        int[] fill = new int[n];
+        for (int i = 0; i < n; i++) {
+            successors[i] = outDegree[i] == 0 ? EMPTY : new int[outDegree[i]];
+        }
+        for (int i = 0; i < n; i++) {
+            for (int dep : predecessors[i]) {
+                successors[dep][fill[dep]++] = i;
+            }
+        }
+
+        boolean[] retained = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            retained[i] = outDegree[i] == 0 || ParameterUtil.booleanValue(nodes[i], RETAIN, false);
+        }
+
+        NodeCondition[] conditions = new NodeCondition[n];
+        for (int i = 0; i < n; i++) {
+            conditions[i] = NodeCondition.compile(nodes[i]);
+        }
+
+        int[] inDegree = new int[n];
+        int sourceCount = 0;
+        int sinkCount = 0;
+        for (int i = 0; i < n; i++) {
+            inDegree[i] = predecessors[i].length;
+            if (inDegree[i] == 0) {
+                sourceCount++;
+            }
+            if (outDegree[i] == 0) {
+                sinkCount++;
+            }
+        }
+        int[] sources = new int[sourceCount];
+        int[] sinks = new int[sinkCount];
+        for (int i = 0, s = 0, k = 0; i < n; i++) {
+            if (inDegree[i] == 0) {
+                sources[s++] = i;
+            }
+            if (outDegree[i] == 0) {
+                sinks[k++] = i;
+            }
+        }
+
+        // Kahn拓扑排序, 同时用于环检测
+        int[] order = new int[n];
+        int[] remaining = inDegree.clone();
+        int head = 0;
+        int tail = 0;
+        for (int source : sources) {
+            order[tail++] = source;
+        }
+        while (head < tail) {
+            int current = order[head++];
+            for (int successor : successors[current]) {
+                if (--remaining[successor] == 0) {
+                    order[tail++] = successor;
+                }
+            }
+        }
+        if (tail != n) {
+            throw new FlowConfigParserException("流程配置存在环.");
+        }
+        Map<String, Object> globalParameters = new HashMap<>();
+        if (dag.getGlobalParameters() != null) {
+            globalParameters.putAll(dag.getGlobalParameters());
+        }
+        if (flow != null && flow.getGlobalParameters() != null) {
+            globalParameters.putAll(flow.getGlobalParameters());
+        }
+        return new ExecutionPlan(flow, Collections.unmodifiableMap(globalParameters), nodes, index,
+                successors, predecessors, inDegree, sources, sinks, order, retained, conditions);
+    }
+
+    public String flowId() {
+        return flowId;
+    }
+
+    public String flowName() {
+        return flowName;
+    }
+
+    public String version() {
+        return version;
+    }
+
+    /**
+     * 流程声明的执行模式, 未声明时为空
+     */
+    public ExecutionMode executionMode() {
+        return executionMode;
+    }
+
+    /**
+     * 不可修改的全局参数
+     */
+    public Map<String, Object> globalParameters() {
+        return globalParameters;
+    }
+
+    /**
+     * 节点数量
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * 获取节点序号
+     *
+     * @param nodeId 节点ID
+     * @return 节点序号, 不存在时返回-1
+     */
+    public int indexOf(String nodeId) {
+        Integer ordinal = index.get(nodeId);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public Node node(int ordinal) {
+        return nodes[ordinal];
+    }
+
+    public int[] successors(int ordinal) {
+        return successors[ordinal];
+    }
+
+    public int[] predecessors(int ordinal) {
+        return predecessors[ordinal];
+    }
+
+    public int inDegree(int ordinal) {
+        return inDegree[ordinal];
+    }
+
+    /**
+     * 入度计数器副本, 供单次调度递减使用
+     */
+    public int[] newInDegreeCounters() {
+        return inDegree.clone();
+    }
+
+    public int[] sources() {
+        return sources;
+    }
+
+    public int[] sinks() {
+        return sinks;
+    }
+
+    public int[] topologicalOrder() {
+        return topologicalOrder;
+    }
+
+    /**
+     * 节点的执行条件
+     *
+     * @return 编译后的条件, 未声明条件时为空
+     */
+    public NodeCondition condition(int ordinal) {
+        return conditions[ordinal];
+    }
+
+    /**
+     * 目标节点的祖先闭包, 即目标节点以及沿依赖可达的所有上游节点
+     *
+     * @param targets 目标节点序号
+     * @return 按节点序号标记是否属于闭包
+     */
+    public boolean[] ancestorClosure(int... targets) {
+        boolean[] closure = new boolean[nodes.length];
+        int[] stack = new int[nodes.length];
+        int top = 0;
+        for (int target : targets) {
+            if (!closure[target]) {
+                closure[target] = true;
+                stack[top++] = target;
+            }
+        }
+        while (top > 0) {
+            for (int predecessor : predecessors[stack[--top]]) {
+                if (!closure[predecessor]) {
+                    closure[predecessor] = true;
+                    stack[top++] = predecessor;
+                }
+            }
+        }
+        return closure;
+    }
+
+    /**
+     * 节点结果是否保留到运行结束, 汇点和声明了{@value #RETAIN}参数的节点会被保留
+     */
+    public boolean retained(int ordinal) {
+        return retained[ordinal];
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionPlan{flowId=" + flowId + ", version=" + version + ", size=" + nodes.length + ", sources=" + Arrays.toString(sources)
+                + ", sinks=" + Arrays.toString(sinks) + '}';
+    }
+}
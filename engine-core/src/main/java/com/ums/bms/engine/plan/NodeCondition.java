@@ -0,0 +1,119 @@
+package com.ums.bms.engine.plan;
+
+import com.ums.bms.engine.exception.FlowConfigParserException;
+import com.ums.bms.engine.model.Context;
+import com.ums.bms.engine.model.Node;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 节点执行条件
+ * <p>
+ * 条件为SpEL表达式, 在编译执行计划时解析一次, 多次求值后由SpEL编译为字节码, 运行时不再重复解释.
+ * 表达式的根对象提供:
+ * <ul>
+ *     <li>{@code params}: 全局参数, 例如{@code params['region'] == 'eu'}</li>
+ *     <li>{@code input}: 第一个依赖的结果</li>
+ *     <li>{@code inputs}: 所有依赖的结果, 顺序与deps一致</li>
+ *     <li>{@code results}: 按节点ID读取结果, 非依赖节点的结果可能已被释放</li>
+ * </ul>
+ * 求值使用只读的{@link SimpleEvaluationContext}, 表达式不能访问类型、构造对象或修改数据.
+ *
+ * @author violet
+ * @since 2025/6/12
+ */
+public final class NodeCondition {
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, NodeCondition.class.getClassLoader()));
+    private static final EvaluationContext EVALUATION = SimpleEvaluationContext.forReadOnlyDataBinding()
+            .withInstanceMethods()
+            .build();
+
+    private final String source;
+    private final Expression expression;
+
+    private NodeCondition(String source, Expression expression) {
+        this.source = source;
+        this.expression = expression;
+    }
+
+    /**
+     * 解析节点的条件
+     *
+     * @param node 节点
+     * @return 条件, 节点未声明条件时为空
+     * @throws FlowConfigParserException 表达式无效时抛出
+     */
+    static NodeCondition compile(Node node) {
+        String condition = node.getCondition();
+        if (condition == null || condition.isBlank()) {
+            return null;
+        }
+        try {
+            return new NodeCondition(condition, PARSER.parseExpression(condition));
+        } catch (ParseException e) {
+            throw new FlowConfigParserException("节点" + node.getId() + "的条件表达式无效: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 条件求值, 结果为空时视为不满足
+     *
+     * @param node    节点
+     * @param ordinal 节点在执行计划中的序号
+     * @param context 上下文
+     * @return 是否执行节点
+     */
+    public boolean test(Node node, int ordinal, Context context) {
+        Boolean value = expression.getValue(EVALUATION, new Root(node, ordinal, context), Boolean.class);
+        return Boolean.TRUE.equals(value);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    /**
+     * 表达式根对象
+     */
+    public static final class Root {
+        private final Node node;
+        private final int ordinal;
+        private final Context context;
+
+        private Root(Node node, int ordinal, Context context) {
+            this.node = node;
+            this.ordinal = ordinal;
+            this.context = context;
+        }
+
+        public Map<String, Object> getParams() {
+            return context.getGlobalParameters();
+        }
+
+        public Object getInput() {
+            return node.getDeps().isEmpty() ? null : context.getInput(ordinal, 0);
+        }
+
+        public List<Object> getInputs() {
+            return context.getInputs(ordinal);
+        }
+
+        public Map<String, Object> getResults() {
+            return context.getNodeResults();
+        }
+    }
+}
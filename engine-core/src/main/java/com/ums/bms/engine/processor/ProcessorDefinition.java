@@ -0,0 +1,61 @@
+package com.ums.bms.engine.processor;
+
+import lombok.Getter;
+
+import java.util.function.Supplier;
+
+/**
+ * 处理器定义: 名称、作用域以及创建实例的工厂
+ *
+ * @author violet
+ * @since 2025/5/12
+ */
+@Getter
+@SuppressWarnings("rawtypes")
+public final class ProcessorDefinition {
+    private final String name;
+    private final Class<? extends Processor> type;
+    private final ScopeType scope;
+    private final int poolSize;
+    private final Supplier<? extends Processor> factory;
+    /* SHARED作用域的单例 */
+    private volatile Processor shared;
+
+    public ProcessorDefinition(String name, Class<? extends Processor> type, Supplier<? extends Processor> factory) {
+        ProcessorScope declared = type.getAnnotation(ProcessorScope.class);
+        this.name = name;
+        this.type = type;
+        this.scope = declared == null ? ScopeType.SHARED : declared.value();
+        this.poolSize = declared == null ? 0 : Math.max(0, declared.poolSize());
+        this.factory = factory;
+    }
+
+    ProcessorDefinition(String name, Processor shared) {
+        this.name = name;
+        this.type = shared.getClass();
+        this.scope = ScopeType.SHARED;
+        this.poolSize = 0;
+        this.factory = () -> shared;
+        this.shared = shared;
+    }
+
+    /**
+     * 获取实例: SHARED作用域返回单例, 其他作用域创建新实例
+     */
+    public Processor getInstance() {
+        if (scope != ScopeType.SHARED) {
+            return factory.get();
+        }
+        Processor instance = shared;
+        if (instance == null) {
+            synchronized (this) {
+                instance = shared;
+                if (instance == null) {
+                    instance = factory.get();
+                    shared = instance;
+                }
+            }
+        }
+        return instance;
+    }
+}
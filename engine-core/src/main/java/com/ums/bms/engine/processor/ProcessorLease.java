@@ -0,0 +1,66 @@
+package com.ums.bms.engine.processor;
+
+import com.ums.bms.engine.model.Context;
+import com.ums.bms.engine.model.Node;
+
+/**
+ * 从{@link ProcessorPool}借出的处理器实例
+ * <p>
+ * close时按作用域归还: NODE作用域放回池中, RUN作用域立即close.
+ * 执行失败的实例应先调用{@link #invalidate()}, 避免复用状态不确定的实例.
+ *
+ * @author violet
+ * @since 2025/5/12
+ */
+@SuppressWarnings("rawtypes")
+public final class ProcessorLease implements AutoCloseable {
+    private final ProcessorPool pool;
+    private final ProcessorDefinition definition;
+    private final Node node;
+    /* NODE作用域且节点仍在池化时不为空 */
+    private final ProcessorPool.NodePool nodePool;
+    private final Processor processor;
+    private boolean initialized;
+    private boolean invalid;
+
+    ProcessorLease(ProcessorPool pool, ProcessorDefinition definition, Node node, ProcessorPool.NodePool nodePool,
+                   Processor processor, boolean initialized) {
+        this.pool = pool;
+        this.definition = definition;
+        this.node = node;
+        this.nodePool = nodePool;
+        this.processor = processor;
+        this.initialized = initialized;
+    }
+
+    public Processor processor() {
+        return processor;
+    }
+
+    public ScopeType scope() {
+        return definition.getScope();
+    }
+
+    /**
+     * 调用initial, NODE作用域中已初始化过的实例会跳过
+     */
+    public void initial(Node node, Context context) {
+        if (initialized && definition.getScope() == ScopeType.NODE) {
+            return;
+        }
+        processor.initial(node, context);
+        initialized = true;
+    }
+
+    /**
+     * 标记实例不可复用
+     */
+    public void invalidate() {
+        invalid = true;
+    }
+
+    @Override
+    public void close() {
+        pool.release(definition, node, nodePool, processor, initialized && !invalid);
+    }
+}
@@ -0,0 +1,226 @@
+package com.ums.bms.engine.processor;
+
+import com.ums.bms.engine.jfr.ProcessorCloseEvent;
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 按作用域管理处理器实例
+ * <ul>
+ *     <li>SHARED: 直接使用单例</li>
+ *     <li>NODE: 每个节点最多同时存在{@code poolSize}个实例, 超出时借出方等待归还; 初始化过的实例在运行之间复用</li>
+ *     <li>RUN: 每次借出创建新实例, 归还时close</li>
+ * </ul>
+ * 节点以对象身份区分, 因此同一执行计划的多次运行共享池, 重新编译的计划使用新的池.
+ * 被{@link #evict(Node)}移除的节点不再池化, 驱逐时仍在执行的运行归还的实例直接close.
+ *
+ * @author violet
+ * @since 2025/5/12
+ */
+@Slf4j
+@SuppressWarnings("rawtypes")
+public class ProcessorPool {
+
+    private final ProcessorRegistry registry;
+    private final Map<NodeKey, NodePool> pools = new ConcurrentHashMap<>();
+    /* 已驱逐的节点, 弱引用, 节点被回收后自动清理 */
+    private final Set<EvictedKey> evicted = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<Node> collected = new ReferenceQueue<>();
+
+    public ProcessorPool(ProcessorRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 为节点借出处理器实例, NODE作用域的实例数达到上限时等待归还
+     *
+     * @param node 节点
+     * @return 处理器租约, 节点未配置处理器时为空
+     * @throws IllegalStateException 处理器未注册或等待实例时被中断
+     */
+    public ProcessorLease acquire(Node node) {
+        if (node.getProcessor() == null) {
+            return null;
+        }
+        ProcessorDefinition definition = registry.getDefinition(node.getProcessor());
+        if (definition == null) {
+            throw new IllegalStateException("Processor not found: " + node.getProcessor());
+        }
+        if (definition.getScope() != ScopeType.NODE || definition.getPoolSize() == 0
+                || evicted.contains(new EvictedKey(node, null))) {
+            return new ProcessorLease(this, definition, node, null, definition.getInstance(), false);
+        }
+        NodePool pool = pools.computeIfAbsent(new NodeKey(node), key -> new NodePool(definition.getPoolSize()));
+        try {
+            pool.permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for processor instance: " + node.getProcessor(), e);
+        }
+        Processor pooled = pool.idle.poll();
+        if (pooled != null) {
+            return new ProcessorLease(this, definition, node, pool, pooled, true);
+        }
+        try {
+            return new ProcessorLease(this, definition, node, pool, definition.getInstance(), false);
+        } catch (RuntimeException | Error e) {
+            pool.permits.release();
+            throw e;
+        }
+    }
+
+    void release(ProcessorDefinition definition, Node node, NodePool pool, Processor processor, boolean reusable) {
+        switch (definition.getScope()) {
+            case SHARED -> {
+            }
+            case RUN -> close(processor, node);
+            case NODE -> {
+                // 池中实例数不超过许可数, offer只会在驱逐后失败
+                if (pool == null || !reusable || pool.evicted || !pool.idle.offer(processor)) {
+                    close(processor, node);
+                } else if (pool.evicted && pool.idle.remove(processor)) {
+                    // 与驱逐并发时由归还方负责关闭
+                    close(processor, node);
+                }
+                if (pool != null) {
+                    pool.permits.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * 关闭并移除节点的空闲实例, 之后归还的实例直接close, 在流程重新加载后调用
+     *
+     * @param node 节点
+     */
+    public void evict(Node node) {
+        expunge();
+        evicted.add(new EvictedKey(node, collected));
+        NodePool pool = pools.remove(new NodeKey(node));
+        if (pool != null) {
+            pool.evicted = true;
+            Processor processor;
+            while ((processor = pool.idle.poll()) != null) {
+                close(processor, node);
+            }
+        }
+    }
+
+    /**
+     * 关闭执行计划中所有节点的空闲实例, 在流程被替换或删除后调用
+     *
+     * @param plan 执行计划
+     */
+    public void evict(ExecutionPlan plan) {
+        for (int i = 0; i < plan.size(); i++) {
+            evict(plan.node(i));
+        }
+    }
+
+    /**
+     * 关闭所有空闲实例
+     */
+    public void clear() {
+        for (NodeKey key : pools.keySet()) {
+            evict(key.node);
+        }
+    }
+
+    /**
+     * 当前节点的空闲实例数
+     */
+    public int idleCount(Node node) {
+        NodePool pool = pools.get(new NodeKey(node));
+        return pool == null ? 0 : pool.idle.size();
+    }
+
+    private void expunge() {
+        Reference<? extends Node> reference;
+        while ((reference = collected.poll()) != null) {
+            evicted.remove(reference);
+        }
+    }
+
+    private static void close(Processor processor, Node node) {
+        ProcessorCloseEvent event = new ProcessorCloseEvent();
+        event.begin();
+        try {
+            processor.close();
+        } catch (Exception e) {
+            log.warn("Error closing processor: {}", processor.getClass().getSimpleName(), e);
+        }
+        if (event.shouldCommit()) {
+            event.nodeId = node.getId();
+            event.processor = node.getProcessor();
+            event.processorClass = processor.getClass();
+            event.commit();
+        }
+    }
+
+    /**
+     * 以对象身份比较节点, 避免对参数等可变字段求hash
+     */
+    private record NodeKey(Node node) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof NodeKey other && other.node == node;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(node);
+        }
+    }
+
+    /**
+     * 节点的实例池: 空闲实例和实例总数的许可
+     */
+    static final class NodePool {
+        private final BlockingQueue<Processor> idle;
+        private final Semaphore permits;
+        private volatile boolean evicted;
+
+        private NodePool(int size) {
+            this.idle = new ArrayBlockingQueue<>(size);
+            this.permits = new Semaphore(size);
+        }
+    }
+
+    /**
+     * 以对象身份比较的节点弱引用
+     */
+    private static final class EvictedKey extends WeakReference<Node> {
+        private final int hash;
+
+        private EvictedKey(Node node, ReferenceQueue<Node> queue) {
+            super(node, queue);
+            this.hash = System.identityHashCode(node);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            Node node = get();
+            return o instanceof EvictedKey other && node != null && node == other.get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.ums.bms.engine.processor;
 
+import com.ums.bms.engine.jfr.RegistryLoadEvent;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.ServiceConfigurationError;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * Processor注册处理器
+ * <p>
+ * 注册的是处理器定义而不是实例, 实例按{@link ProcessorScope}声明的作用域创建.
  *
  * @author violet
  * @since 2025/4/27
@@ -16,25 +22,78 @@ import java.util.concurrent.atomic.AtomicLong;
 @SuppressWarnings("rawtypes")
 @Slf4j
 public class ProcessorRegistry {
-    private Map<String, Processor> cache;
+    /* 并行执行时会被多个线程读取 */
+    private Map<String, ProcessorDefinition> cache = new ConcurrentHashMap<>();
 
     public void registry() {
-        cache = new HashMap<>();
+        RegistryLoadEvent event = new RegistryLoadEvent();
+        event.begin();
+        cache = new ConcurrentHashMap<>();
+        int skipped = 0;
         ServiceLoader<Processor> loader = ServiceLoader.load(Processor.class);
         log.info("initial engine processor");
         AtomicLong count = new AtomicLong();
-        loader.forEach(it -> {
+        Iterator<ServiceLoader.Provider<Processor>> iterator = loader.stream().iterator();
+        while (true) {
+            ServiceLoader.Provider<Processor> it;
+            try {
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                it = iterator.next();
+            } catch (ServiceConfigurationError e) {
+                // 单个无效的provider不影响其他处理器的加载
+                log.warn("ProcessorRegistry skip invalid processor provider: {}", e.getMessage());
+                skipped++;
+                continue;
+            }
+            ProcessorDefinition definition = new ProcessorDefinition(it.type().getSimpleName(), it.type(), it);
             if (log.isDebugEnabled()) {
-                log.debug("ProcessorRegistry registry processor: {}", it.getClass().getSimpleName());
+                log.debug("ProcessorRegistry registry processor: {}, scope: {}",
+                        definition.getName(), definition.getScope());
             }
             count.getAndIncrement();
-            cache.put(it.getClass().getSimpleName(), it);
-        });
+            cache.put(definition.getName(), definition);
+        }
         log.info("initial engine processor completed count: {}", count.get());
+        if (event.shouldCommit()) {
+            event.loaded = count.intValue();
+            event.skipped = skipped;
+            event.commit();
+        }
     }
 
-    public Processor getProcessor(String processorName) {
+    /**
+     * 手动注册处理器单例, 例如Spring管理的Bean
+     *
+     * @param processorName 处理器名称
+     * @param processor     处理器
+     */
+    public void register(String processorName, Processor processor) {
+        cache.put(processorName, new ProcessorDefinition(processorName, processor));
+    }
+
+    /**
+     * 手动注册处理器工厂, 作用域由处理器类型上的{@link ProcessorScope}决定
+     *
+     * @param processorName 处理器名称
+     * @param type          处理器类型
+     * @param factory       实例工厂
+     */
+    public void register(String processorName, Class<? extends Processor> type, Supplier<? extends Processor> factory) {
+        cache.put(processorName, new ProcessorDefinition(processorName, type, factory));
+    }
+
+    public ProcessorDefinition getDefinition(String processorName) {
         return cache.get(processorName);
     }
 
+    /**
+     * 获取处理器实例, SHARED作用域返回单例, 其他作用域返回新实例
+     */
+    public Processor getProcessor(String processorName) {
+        ProcessorDefinition definition = cache.get(processorName);
+        return definition == null ? null : definition.getInstance();
+    }
+
 }
@@ -0,0 +1,33 @@
+package com.ums.bms.engine.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明处理器实例的作用域, 未声明的处理器视为{@link ScopeType#SHARED}
+ * <pre>
+ * &#64;ProcessorScope(value = ScopeType.NODE, poolSize = 4)
+ * public class RegexProcessor implements Processor&lt;String&gt; {
+ *     private Pattern pattern;
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author violet
+ * @since 2025/5/12
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ProcessorScope {
+
+    ScopeType value();
+
+    /**
+     * {@link ScopeType#NODE}作用域下每个节点最多同时存在的实例数, 达到上限时借出方等待归还; 为0时不池化, 每次创建新实例
+     */
+    int poolSize() default 8;
+}
@@ -0,0 +1,36 @@
+package com.ums.bms.engine.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明处理器所属的资源类别, 同一类别的节点共享一个隔离舱(bulkhead), 不会占用其他类别的执行线程.
+ * 节点参数{@code resource-class}和{@code max-concurrency}优先于注解.
+ * <pre>
+ * &#64;ResourceClass(value = "crm-api", maxConcurrency = 4)
+ * public class CrmLookupProcessor implements Processor&lt;Customer&gt; {
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author violet
+ * @since 2025/6/19
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ResourceClass {
+
+    /**
+     * 资源类别名称, 例如cpu、io或下游服务名
+     */
+    String value();
+
+    /**
+     * 类别的最大并发节点数, 小于等于0时使用引擎配置的默认值; 同一类别以第一次创建时的值为准
+     */
+    int maxConcurrency() default 0;
+}
@@ -0,0 +1,16 @@
+package com.ums.bms.engine.processor;
+
+/**
+ * 处理器实例作用域
+ *
+ * @author violet
+ * @since 2025/5/12
+ */
+public enum ScopeType {
+    /* 全局单例, 处理器必须无状态且线程安全, 每次执行都会调用initial */
+    SHARED,
+    /* 实例绑定到节点定义, 只在创建时调用一次initial, 空闲实例放入有界池在多次运行之间复用 */
+    NODE,
+    /* 每次节点执行创建新实例, 执行结束后立即close */
+    RUN
+}
@@ -0,0 +1,26 @@
+package com.ums.bms.engine.repository;
+
+import com.ums.bms.engine.parser.FlowConfig;
+import com.ums.bms.engine.plan.ExecutionPlan;
+
+import java.nio.file.Path;
+
+/**
+ * 解析、校验并编译完成的流程
+ *
+ * @param config 流程配置
+ * @param plan   执行计划
+ * @param source 来源文件
+ * @author violet
+ * @since 2025/5/19
+ */
+public record CompiledFlow(FlowConfig config, ExecutionPlan plan, Path source) {
+
+    public String id() {
+        return config.getId();
+    }
+
+    public String version() {
+        return config.getVersion();
+    }
+}
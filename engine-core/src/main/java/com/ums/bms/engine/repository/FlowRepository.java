@@ -0,0 +1,275 @@
+package com.ums.bms.engine.repository;
+
+import com.ums.bms.engine.parser.FlowConfig;
+import com.ums.bms.engine.parser.FlowConfigParser;
+import com.ums.bms.engine.parser.FlowFormat;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 流程仓库
+ * <p>
+ * 从目录中加载所有流程文件(YAML、JSON、Smile), 按流程ID和版本缓存解析、校验并编译后的流程, 执行时不再重复解析YAML.
+ * 启动监听后文件的新增、修改和删除会自动重新加载: 新版本编译成功后原子替换缓存,
+ * 正在执行的运行仍然持有旧的执行计划; 解析失败时保留旧版本.
+ *
+ * @author violet
+ * @since 2025/5/19
+ */
+@Slf4j
+public class FlowRepository implements AutoCloseable {
+
+    private static final Comparator<String> VERSION_ORDER = FlowRepository::compareVersion;
+
+    private final Path directory;
+    private final Map<FlowKey, CompiledFlow> flows = new ConcurrentHashMap<>();
+    /* 每个文件当前提供的流程, 用于文件修改或删除时移除旧条目 */
+    private final Map<Path, FlowKey> files = new ConcurrentHashMap<>();
+    private final List<Consumer<CompiledFlow>> removalListeners = new CopyOnWriteArrayList<>();
+    private volatile WatchService watchService;
+    private volatile Thread watcher;
+
+    public FlowRepository(Path directory) {
+        this.directory = directory.toAbsolutePath().normalize();
+    }
+
+    /**
+     * 加载目录下的所有流程文件, 单个文件解析失败不影响其他文件; 已加载但文件不再存在的流程被移除
+     *
+     * @return 加载成功的流程数
+     */
+    public int loadAll() {
+        int loaded = 0;
+        Set<Path> scanned = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, FlowRepository::isFlowFile)) {
+            for (Path file : stream) {
+                scanned.add(file.toAbsolutePath().normalize());
+                if (reload(file)) {
+                    loaded++;
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot list flow directory: " + directory, e);
+        }
+        // 监听事件溢出期间删除的文件没有删除事件, 按扫描结果移除
+        for (Path file : new ArrayList<>(files.keySet())) {
+            if (!scanned.contains(file)) {
+                reload(file);
+            }
+        }
+        log.info("FlowRepository loaded {} flows from {}", loaded, directory);
+        return loaded;
+    }
+
+    /**
+     * 重新加载单个文件, 文件不存在时移除其提供的流程
+     *
+     * @param file 流程文件
+     * @return 是否加载成功
+     */
+    public synchronized boolean reload(Path file) {
+        Path path = file.toAbsolutePath().normalize();
+        if (!Files.exists(path)) {
+            FlowKey removed = files.remove(path);
+            if (removed != null) {
+                remove(removed, path);
+                log.info("FlowRepository removed flow {}:{} from {}", removed.id(), removed.version(), path);
+            }
+            return false;
+        }
+        CompiledFlow compiled;
+        try {
+            FlowConfig config = FlowConfigParser.parse(path);
+            compiled = new CompiledFlow(config, ExecutionPlan.compile(config), path);
+        } catch (RuntimeException e) {
+            log.error("FlowRepository failed to load {}, keeping previous version", path, e);
+            return false;
+        }
+        FlowKey key = new FlowKey(compiled.id(), compiled.version());
+        CompiledFlow previous = flows.put(key, compiled);
+        FlowKey previousKey = files.put(path, key);
+        if (previous != null) {
+            notifyRemoved(previous);
+        }
+        if (previousKey != null && !previousKey.equals(key)) {
+            remove(previousKey, path);
+        }
+        log.info("FlowRepository loaded flow {}:{} from {}", key.id(), key.version(), path);
+        return true;
+    }
+
+    /**
+     * 获取指定版本的流程
+     *
+     * @param id      流程ID
+     * @param version 流程版本, 为空时返回最新版本
+     * @return 流程, 不存在或ID为空时为空
+     */
+    public CompiledFlow get(String id, String version) {
+        if (id == null) {
+            return null;
+        }
+        if (version == null) {
+            return getLatest(id);
+        }
+        return flows.get(new FlowKey(id, version));
+    }
+
+    /**
+     * 获取流程的最新版本, 版本号按数字段比较
+     *
+     * @return 流程, 不存在时为空
+     */
+    public CompiledFlow getLatest(String id) {
+        CompiledFlow latest = null;
+        for (CompiledFlow flow : flows.values()) {
+            if (flow.id().equals(id)
+                    && (latest == null || VERSION_ORDER.compare(flow.version(), latest.version()) > 0)) {
+                latest = flow;
+            }
+        }
+        return latest;
+    }
+
+    public Collection<CompiledFlow> getAll() {
+        return Collections.unmodifiableCollection(new ArrayList<>(flows.values()));
+    }
+
+    /**
+     * 注册被替换或删除的流程的回调, 可用于释放处理器池中的实例
+     */
+    public void addRemovalListener(Consumer<CompiledFlow> listener) {
+        removalListeners.add(listener);
+    }
+
+    /**
+     * 启动后台线程监听目录变化
+     */
+    public synchronized void watch() {
+        if (watcher != null) {
+            return;
+        }
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot watch flow directory: " + directory, e);
+        }
+        watcher = new Thread(this::watchLoop, "flow-repository-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (watcher == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.warn("Error closing flow directory watcher", e);
+        }
+        watcher.interrupt();
+        watcher = null;
+    }
+
+    private void watchLoop() {
+        WatchService service = watchService;
+        while (!Thread.currentThread().isInterrupted()) {
+            WatchKey key;
+            try {
+                key = service.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    loadAll();
+                    continue;
+                }
+                Path file = directory.resolve((Path) event.context());
+                if (isFlowFile(file)) {
+                    reload(file);
+                }
+            }
+            if (!key.reset()) {
+                log.warn("Flow directory {} is no longer accessible", directory);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 只移除仍由该文件提供的流程, 其他文件可能已经提供了相同ID和版本的流程
+     */
+    private void remove(FlowKey key, Path source) {
+        CompiledFlow current = flows.get(key);
+        if (current != null && current.source().equals(source) && flows.remove(key, current)) {
+            notifyRemoved(current);
+        }
+    }
+
+    private void notifyRemoved(CompiledFlow flow) {
+        for (Consumer<CompiledFlow> listener : removalListeners) {
+            try {
+                listener.accept(flow);
+            } catch (RuntimeException e) {
+                log.warn("FlowRepository removal listener failed for flow {}", flow.id(), e);
+            }
+        }
+    }
+
+    private static boolean isFlowFile(Path file) {
+        return FlowFormat.fromFileName(file.getFileName().toString()) != null;
+    }
+
+    static int compareVersion(String left, String right) {
+        String[] l = left.split("[.\\-]");
+        String[] r = right.split("[.\\-]");
+        for (int i = 0; i < Math.max(l.length, r.length); i++) {
+            String a = i < l.length ? l[i] : "0";
+            String b = i < r.length ? r[i] : "0";
+            int result;
+            try {
+                result = Long.compare(Long.parseLong(a), Long.parseLong(b));
+            } catch (NumberFormatException e) {
+                result = a.compareTo(b);
+            }
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    private record FlowKey(String id, String version) {
+        private FlowKey {
+            Objects.requireNonNull(id, "id");
+            Objects.requireNonNull(version, "version");
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.ums.bms.engine.runtime;
+
+import com.ums.bms.engine.model.Context;
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import com.ums.bms.engine.store.HeapResultStore;
+import com.ums.bms.engine.store.ResultStore;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 流程的单次运行实例
+ * <p>
+ * 运行状态(节点状态、上下文)全部保存在实例上, 共享的{@link ExecutionPlan}保持不可变,
+ * 因此解析一次的流程可以同时创建任意多个实例并发执行.
+ *
+ * @author violet
+ * @since 2025/5/9
+ */
+public class ExecutionInstance {
+    private final String runId;
+    private final ExecutionPlan plan;
+    private final Context context;
+    /* 按节点序号保存的状态, 调度线程写入, 其他线程可随时读取 */
+    private final AtomicReferenceArray<Node.NodeStatus> statuses;
+    /* 按节点序号保存的尚未完成的下游节点数 */
+    private final AtomicIntegerArray pendingConsumers;
+    /* 运行指定的目标节点, 在运行开始前设置, 执行所有节点时为空 */
+    private Set<String> targets;
+    private boolean[] targetOrdinals;
+    private volatile boolean cancelled;
+
+    /**
+     * @param plan       执行计划
+     * @param parameters 本次运行覆盖的全局参数, 可以为空
+     */
+    public ExecutionInstance(ExecutionPlan plan, Map<String, Object> parameters) {
+        this(UUID.randomUUID().toString(), plan, parameters);
+    }
+
+    public ExecutionInstance(String runId, ExecutionPlan plan, Map<String, Object> parameters) {
+        this(runId, plan, parameters, new HeapResultStore(plan.size()));
+    }
+
+    /**
+     * @param runId       运行ID
+     * @param plan        执行计划
+     * @param parameters  本次运行覆盖的全局参数, 可以为空
+     * @param resultStore 本次运行的节点结果存储, 容量不小于计划的节点数量
+     */
+    public ExecutionInstance(String runId, ExecutionPlan plan, Map<String, Object> parameters, ResultStore resultStore) {
+        this.runId = runId;
+        this.plan = plan;
+        this.context = new Context(plan, resultStore);
+        this.context.getGlobalParameters().putAll(plan.globalParameters());
+        if (parameters != null) {
+            this.context.getGlobalParameters().putAll(parameters);
+        }
+        int size = plan.size();
+        this.statuses = new AtomicReferenceArray<>(size);
+        this.pendingConsumers = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            statuses.set(i, Node.NodeStatus.PENDING);
+            pendingConsumers.set(i, plan.successors(i).length);
+        }
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public ExecutionPlan getPlan() {
+        return plan;
+    }
+
+    public Context getContext() {
+        return context;
+    }
+
+    public Node.NodeStatus getStatus(int ordinal) {
+        return statuses.get(ordinal);
+    }
+
+    /**
+     * 获取节点状态
+     *
+     * @param nodeId 节点ID
+     * @return 节点状态, 节点不存在时为空
+     */
+    public Node.NodeStatus getStatus(String nodeId) {
+        int ordinal = plan.indexOf(nodeId);
+        return ordinal < 0 ? null : statuses.get(ordinal);
+    }
+
+    public void setStatus(int ordinal, Node.NodeStatus status) {
+        statuses.set(ordinal, status);
+    }
+
+    /**
+     * 只运行计算目标节点所需的节点, 不在目标节点祖先闭包中的节点标记为SKIPPED, 目标节点的结果保留到运行结束.
+     * 必须在运行开始前调用.
+     *
+     * @param targetNodeIds 目标节点ID
+     * @return 需要执行的节点数
+     * @throws IllegalArgumentException 目标节点为空或不存在时抛出
+     */
+    public int selectTargets(Set<String> targetNodeIds) {
+        if (targetNodeIds.isEmpty()) {
+            throw new IllegalArgumentException("Target nodes must not be empty");
+        }
+        int[] ordinals = new int[targetNodeIds.size()];
+        boolean[] selected = new boolean[plan.size()];
+        int i = 0;
+        for (String nodeId : targetNodeIds) {
+            int ordinal = plan.indexOf(nodeId);
+            if (ordinal < 0) {
+                throw new IllegalArgumentException("Unknown target node: " + nodeId);
+            }
+            ordinals[i++] = ordinal;
+            selected[ordinal] = true;
+        }
+        boolean[] closure = plan.ancestorClosure(ordinals);
+        int count = 0;
+        for (int ordinal = 0; ordinal < closure.length; ordinal++) {
+            if (closure[ordinal]) {
+                count++;
+            } else {
+                statuses.set(ordinal, Node.NodeStatus.SKIPPED);
+            }
+        }
+        this.targets = Set.copyOf(targetNodeIds);
+        this.targetOrdinals = selected;
+        return count;
+    }
+
+    /**
+     * 运行指定的目标节点, 执行所有节点时为空
+     */
+    public Set<String> getTargets() {
+        return targets;
+    }
+
+    /**
+     * 节点结果是否保留到运行结束: 执行计划中保留的节点和运行指定的目标节点
+     */
+    public boolean retained(int ordinal) {
+        return plan.retained(ordinal) || (targetOrdinals != null && targetOrdinals[ordinal]);
+    }
+
+    /**
+     * 节点的一个下游已完成
+     *
+     * @param ordinal 节点序号
+     * @return 节点的所有下游是否都已完成
+     */
+    public boolean consumerDone(int ordinal) {
+        return pendingConsumers.decrementAndGet(ordinal) == 0;
+    }
+
+    /**
+     * 请求取消运行, 尚未开始的节点不再执行, 已开始的节点执行完成
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 所有节点是否都处于终止状态
+     */
+    public boolean isCompleted() {
+        for (int i = 0; i < statuses.length(); i++) {
+            Node.NodeStatus status = statuses.get(i);
+            if (status != Node.NodeStatus.COMPLETED && status != Node.NodeStatus.SKIPPED
+                    && status != Node.NodeStatus.FAILED) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ums.bms.engine.scheduler;
+
+import com.ums.bms.engine.plan.ExecutionPlan;
+
+/**
+ * 节点耗时估算, 用于{@link PriorityScheduler}计算关键路径
+ *
+ * @author violet
+ * @since 2025/6/16
+ */
+@FunctionalInterface
+public interface DurationEstimator {
+
+    /**
+     * 估算节点耗时
+     *
+     * @param plan    执行计划
+     * @param ordinal 节点序号
+     * @return 估算的纳秒数, 没有历史数据时返回负数
+     */
+    double estimateNanos(ExecutionPlan plan, int ordinal);
+}
@@ -0,0 +1,167 @@
+package com.ums.bms.engine.scheduler;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ums.bms.engine.listener.ExecutionListener;
+import com.ums.bms.engine.listener.NodeTiming;
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import com.ums.bms.engine.runtime.ExecutionInstance;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按流程ID和节点ID统计的节点耗时指数加权移动平均(EWMA)
+ * <p>
+ * 作为{@link ExecutionListener}记录成功节点从开始到结束的耗时, 作为{@link DurationEstimator}供关键路径调度使用.
+ * 指定文件时启动加载历史数据, 运行结束时按最小间隔写回, 关闭时再写一次, 重启后不需要重新学习.
+ *
+ * @author violet
+ * @since 2025/6/16
+ */
+@Slf4j
+public class NodeDurationStats implements ExecutionListener, DurationEstimator, AutoCloseable {
+    private static final String NO_FLOW = "none";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Map<String, Double>>> TYPE = new TypeReference<>() {
+    };
+
+    private final double alpha;
+    private final Path file;
+    private final long saveIntervalNanos;
+    private final Map<String, Map<String, Double>> durations = new ConcurrentHashMap<>();
+    private final AtomicLong lastSave = new AtomicLong(System.nanoTime());
+
+    /**
+     * 只在内存中统计
+     *
+     * @param alpha 新样本的权重, (0, 1]
+     */
+    public NodeDurationStats(double alpha) {
+        this(alpha, null, 0);
+    }
+
+    /**
+     * @param alpha              新样本的权重, (0, 1]
+     * @param file               持久化文件, 为空时不持久化
+     * @param saveIntervalMillis 运行结束时写回文件的最小间隔
+     */
+    public NodeDurationStats(double alpha, Path file, long saveIntervalMillis) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("alpha must be in (0, 1]: " + alpha);
+        }
+        this.alpha = alpha;
+        this.file = file;
+        this.saveIntervalNanos = TimeUnit.MILLISECONDS.toNanos(saveIntervalMillis);
+        load();
+    }
+
+    /**
+     * 记录一次耗时
+     */
+    public void record(String flowId, String nodeId, long nanos) {
+        durations.computeIfAbsent(flowKey(flowId), key -> new ConcurrentHashMap<>())
+                .merge(nodeId, (double) nanos, (previous, sample) -> previous + alpha * (sample - previous));
+    }
+
+    /**
+     * 节点的平均耗时
+     *
+     * @return 纳秒数, 没有历史数据时返回-1
+     */
+    public double get(String flowId, String nodeId) {
+        Map<String, Double> nodes = durations.get(flowKey(flowId));
+        Double value = nodes == null ? null : nodes.get(nodeId);
+        return value == null ? -1 : value;
+    }
+
+    @Override
+    public double estimateNanos(ExecutionPlan plan, int ordinal) {
+        return get(plan.flowId(), plan.node(ordinal).getId());
+    }
+
+    @Override
+    public void nodeFinished(ExecutionInstance instance, int ordinal, NodeTiming timing, Object result, Throwable error) {
+        if (error == null && instance.getStatus(ordinal) == Node.NodeStatus.COMPLETED) {
+            ExecutionPlan plan = instance.getPlan();
+            record(plan.flowId(), plan.node(ordinal).getId(), timing.durationNanos());
+        }
+    }
+
+    @Override
+    public void runFinished(ExecutionInstance instance, Throwable error) {
+        if (file == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long last = lastSave.get();
+        if (now - last >= saveIntervalNanos && lastSave.compareAndSet(last, now)) {
+            save();
+        }
+    }
+
+    /**
+     * 写回持久化文件, 先写临时文件再原子替换
+     */
+    public synchronized void save() {
+        if (file == null) {
+            return;
+        }
+        Map<String, Map<String, Double>> snapshot = new HashMap<>();
+        durations.forEach((flow, nodes) -> snapshot.put(flow, new HashMap<>(nodes)));
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                MAPPER.writeValue(temp.toFile(), snapshot);
+                try {
+                    Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to save node duration stats to {}", file, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        save();
+    }
+
+    private void load() {
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        try {
+            Map<String, Map<String, Double>> loaded = MAPPER.readValue(file.toFile(), TYPE);
+            loaded.forEach((flow, nodes) -> nodes.forEach((node, nanos) -> {
+                if (nanos != null) {
+                    durations.computeIfAbsent(flow, key -> new ConcurrentHashMap<>()).put(node, nanos);
+                }
+            }));
+            log.info("Loaded node duration stats of {} flows from {}", loaded.size(), file);
+        } catch (IOException e) {
+            // 统计数据只影响调度顺序, 损坏时重新学习
+            log.warn("Failed to load node duration stats from {}, starting empty", file, e);
+        }
+    }
+
+    private static String flowKey(String flowId) {
+        return flowId == null ? NO_FLOW : flowId;
+    }
+}
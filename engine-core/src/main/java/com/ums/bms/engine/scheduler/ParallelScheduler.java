@@ -0,0 +1,172 @@
+package com.ums.bms.engine.scheduler;
+
+import com.ums.bms.engine.bulkhead.Bulkhead;
+import com.ums.bms.engine.bulkhead.BulkheadResolver;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+/**
+ * 并行调度器
+ * <p>
+ * 每个节点作为独立任务提交到执行器, 节点完成后递减后继节点的入度计数器,
+ * 计数器归零的后继立即提交. 由于每个节点都能到达某个汇点, 调用线程只需等待所有汇点完成.
+ * 声明了资源类别的节点提交到对应隔离舱的线程池, 其他节点提交到执行器.
+ * 执行器由调用方提供和管理, 调度器不会关闭它.
+ *
+ * @author violet
+ * @since 2025/5/7
+ */
+@Slf4j
+public class ParallelScheduler implements Scheduler {
+
+    private final Executor executor;
+    private final BulkheadResolver bulkheads;
+
+    public ParallelScheduler(Executor executor) {
+        this(executor, null);
+    }
+
+    /**
+     * @param executor  执行器
+     * @param bulkheads 隔离舱查找, 为空时所有节点提交到执行器
+     */
+    public ParallelScheduler(Executor executor, BulkheadResolver bulkheads) {
+        this.executor = executor;
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public void schedule(ExecutionPlan plan, IntConsumer onReady, IntConsumer nodeTask) {
+        Run run = new Run(plan, onReady, nodeTask);
+        for (int source : plan.sources()) {
+            if (run.done.isDone()) {
+                break;
+            }
+            run.submit(source);
+        }
+        try {
+            run.done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.done.cancel(false);
+            run.awaitDrained();
+            throw new RuntimeException("Execution interrupted", e);
+        } catch (ExecutionException e) {
+            // 已开始的节点完成后才结束运行, 避免运行结束事件和检查点先于节点完成
+            run.awaitDrained();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private Executor executor(ExecutionPlan plan, int ordinal) {
+        Bulkhead bulkhead = bulkheads == null ? null : bulkheads.bulkhead(plan, ordinal);
+        return bulkhead == null ? executor : bulkhead.executor();
+    }
+
+    /**
+     * 单次调度的状态
+     */
+    private final class Run {
+        private final ExecutionPlan plan;
+        private final IntConsumer onReady;
+        private final IntConsumer nodeTask;
+        private final AtomicIntegerArray remaining;
+        private final AtomicInteger pendingSinks;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        /* 已提交但尚未返回的节点任务数, 调度失败后等待其归零 */
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final CompletableFuture<Void> drained = new CompletableFuture<>();
+
+        private Run(ExecutionPlan plan, IntConsumer onReady, IntConsumer nodeTask) {
+            this.plan = plan;
+            this.onReady = onReady;
+            this.nodeTask = nodeTask;
+            this.remaining = new AtomicIntegerArray(plan.newInDegreeCounters());
+            this.pendingSinks = new AtomicInteger(plan.sinks().length);
+        }
+
+        private void submit(int ordinal) {
+            // 就绪回调(包括监听器)抛出异常时调度失败, 节点任务未提交, 不计入inFlight
+            try {
+                onReady.accept(ordinal);
+            } catch (Throwable t) {
+                done.completeExceptionally(t);
+                return;
+            }
+            inFlight.incrementAndGet();
+            try {
+                executor(plan, ordinal).execute(() -> track(ordinal));
+            } catch (Throwable t) {
+                if (t instanceof RejectedExecutionException) {
+                    log.error("Executor rejected node: {}", plan.node(ordinal).getId(), t);
+                }
+                done.completeExceptionally(t);
+                taskEnded();
+            }
+        }
+
+        private void track(int ordinal) {
+            try {
+                run(ordinal);
+            } finally {
+                taskEnded();
+            }
+        }
+
+        private void taskEnded() {
+            if (inFlight.decrementAndGet() == 0 && done.isDone()) {
+                drained.complete(null);
+            }
+        }
+
+        /**
+         * 等待已提交的节点任务全部返回, 不响应中断
+         */
+        private void awaitDrained() {
+            if (inFlight.get() == 0) {
+                drained.complete(null);
+            }
+            drained.join();
+        }
+
+        private void run(int ordinal) {
+            // 已失败或已取消的调度不再执行新节点
+            if (done.isDone()) {
+                return;
+            }
+            try {
+                nodeTask.accept(ordinal);
+            } catch (Throwable t) {
+                done.completeExceptionally(t);
+                return;
+            }
+            int[] successors = plan.successors(ordinal);
+            if (successors.length == 0) {
+                if (pendingSinks.decrementAndGet() == 0) {
+                    done.complete(null);
+                }
+                return;
+            }
+            for (int successor : successors) {
+                if (remaining.decrementAndGet(successor) == 0) {
+                    submit(successor);
+                }
+            }
+        }
+    }
+}
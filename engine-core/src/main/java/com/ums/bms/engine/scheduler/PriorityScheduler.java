@@ -0,0 +1,299 @@
+package com.ums.bms.engine.scheduler;
+
+import com.ums.bms.engine.bulkhead.Bulkhead;
+import com.ums.bms.engine.bulkhead.BulkheadResolver;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+/**
+ * 关键路径优先调度器
+ * <p>
+ * 最多同时执行{@code parallelism}个节点, 就绪节点按到汇点的剩余最长路径排序, 路径长度优先的节点先执行,
+ * 长链不会排在大量廉价的叶子节点之后. 路径按{@link DurationEstimator}估算的节点耗时加权,
+ * 没有历史数据的节点按同一计划中已知节点的平均耗时计算, 完全没有历史数据时退化为按节点数计算.
+ * 声明了资源类别的节点提交到对应隔离舱的线程池, 在隔离舱中排队时仍占用并发名额.
+ * 执行器由调用方提供和管理, 调度器不会关闭它.
+ *
+ * @author violet
+ * @since 2025/6/16
+ */
+@Slf4j
+public class PriorityScheduler implements Scheduler {
+
+    private final Executor executor;
+    private final int parallelism;
+    private final DurationEstimator estimator;
+    private final BulkheadResolver bulkheads;
+
+    public PriorityScheduler(Executor executor, int parallelism, DurationEstimator estimator) {
+        this(executor, parallelism, estimator, null);
+    }
+
+    /**
+     * @param executor    执行器
+     * @param parallelism 最大并发节点数
+     * @param estimator   节点耗时估算, 为空时所有节点权重相同
+     * @param bulkheads   隔离舱查找, 为空时所有节点提交到执行器
+     */
+    public PriorityScheduler(Executor executor, int parallelism, DurationEstimator estimator, BulkheadResolver bulkheads) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.estimator = estimator;
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public void schedule(ExecutionPlan plan, IntConsumer onReady, IntConsumer nodeTask) {
+        Run run = new Run(plan, ranks(plan), onReady, nodeTask);
+        run.start();
+        try {
+            run.done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.done.cancel(false);
+            run.awaitDrained();
+            throw new RuntimeException("Execution interrupted", e);
+        } catch (ExecutionException e) {
+            // 已开始的节点完成后才结束运行, 避免运行结束事件和检查点先于节点完成
+            run.awaitDrained();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * 每个节点到汇点的剩余最长路径(包含节点自身)
+     */
+    double[] ranks(ExecutionPlan plan) {
+        int n = plan.size();
+        double[] weights = new double[n];
+        double known = 0;
+        int knownCount = 0;
+        for (int i = 0; i < n; i++) {
+            weights[i] = estimator == null ? -1 : estimator.estimateNanos(plan, i);
+            if (weights[i] >= 0) {
+                known += weights[i];
+                knownCount++;
+            }
+        }
+        double fallback = knownCount == 0 ? 1 : known / knownCount;
+        int[] order = plan.topologicalOrder();
+        double[] ranks = new double[n];
+        for (int k = n - 1; k >= 0; k--) {
+            int i = order[k];
+            double longest = 0;
+            for (int successor : plan.successors(i)) {
+                longest = Math.max(longest, ranks[successor]);
+            }
+            ranks[i] = (weights[i] >= 0 ? weights[i] : fallback) + longest;
+        }
+        return ranks;
+    }
+
+    /**
+     * 单次调度的状态
+     */
+    private final class Run {
+        private final ExecutionPlan plan;
+        private final IntConsumer onReady;
+        private final IntConsumer nodeTask;
+        private final AtomicIntegerArray remaining;
+        private final AtomicInteger pendingSinks;
+        /* 就绪队列和执行中的节点数由this保护 */
+        private final ReadyHeap ready;
+        private int running;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        /* 已提交但尚未返回的节点任务数, 调度失败后等待其归零 */
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final CompletableFuture<Void> drained = new CompletableFuture<>();
+
+        private Run(ExecutionPlan plan, double[] ranks, IntConsumer onReady, IntConsumer nodeTask) {
+            this.plan = plan;
+            this.onReady = onReady;
+            this.nodeTask = nodeTask;
+            this.remaining = new AtomicIntegerArray(plan.newInDegreeCounters());
+            this.pendingSinks = new AtomicInteger(plan.sinks().length);
+            this.ready = new ReadyHeap(ranks, plan.size());
+        }
+
+        private void start() {
+            try {
+                for (int source : plan.sources()) {
+                    onReady.accept(source);
+                }
+            } catch (Throwable t) {
+                done.completeExceptionally(t);
+                return;
+            }
+            synchronized (this) {
+                for (int source : plan.sources()) {
+                    ready.add(source);
+                }
+            }
+            dispatch();
+        }
+
+        private void dispatch() {
+            int[] batch;
+            synchronized (this) {
+                int count = Math.min(parallelism - running, ready.size());
+                if (count <= 0) {
+                    return;
+                }
+                batch = new int[count];
+                for (int i = 0; i < count; i++) {
+                    batch[i] = ready.poll();
+                }
+                running += count;
+            }
+            for (int ordinal : batch) {
+                try {
+                    inFlight.incrementAndGet();
+                    Bulkhead bulkhead = bulkheads == null ? null : bulkheads.bulkhead(plan, ordinal);
+                    (bulkhead == null ? executor : bulkhead.executor()).execute(() -> track(ordinal));
+                } catch (RejectedExecutionException e) {
+                    log.error("Executor rejected node: {}", plan.node(ordinal).getId(), e);
+                    done.completeExceptionally(e);
+                    taskEnded();
+                }
+            }
+        }
+
+        private void track(int ordinal) {
+            try {
+                run(ordinal);
+            } finally {
+                taskEnded();
+            }
+        }
+
+        private void taskEnded() {
+            if (inFlight.decrementAndGet() == 0 && done.isDone()) {
+                drained.complete(null);
+            }
+        }
+
+        /**
+         * 等待已提交的节点任务全部返回, 不响应中断
+         */
+        private void awaitDrained() {
+            if (inFlight.get() == 0) {
+                drained.complete(null);
+            }
+            drained.join();
+        }
+
+        private void run(int ordinal) {
+            // 已失败或已取消的调度不再执行新节点
+            if (done.isDone()) {
+                return;
+            }
+            int[] successors = plan.successors(ordinal);
+            int[] readySuccessors = null;
+            int readyCount = 0;
+            try {
+                nodeTask.accept(ordinal);
+                if (successors.length == 0 && pendingSinks.decrementAndGet() == 0) {
+                    done.complete(null);
+                    return;
+                }
+                for (int successor : successors) {
+                    if (remaining.decrementAndGet(successor) == 0) {
+                        onReady.accept(successor);
+                        if (readySuccessors == null) {
+                            readySuccessors = new int[successors.length];
+                        }
+                        readySuccessors[readyCount++] = successor;
+                    }
+                }
+            } catch (Throwable t) {
+                done.completeExceptionally(t);
+                synchronized (this) {
+                    running--;
+                }
+                return;
+            }
+            synchronized (this) {
+                running--;
+                for (int i = 0; i < readyCount; i++) {
+                    ready.add(readySuccessors[i]);
+                }
+            }
+            dispatch();
+        }
+    }
+
+    /**
+     * 按剩余路径长度排序的节点序号二叉堆, 路径长的在前, 相同时序号小的在前
+     * <p>
+     * 每个节点最多入队一次, 容量为计划的节点数.
+     */
+    private static final class ReadyHeap {
+        private final double[] ranks;
+        private final int[] heap;
+        private int size;
+
+        private ReadyHeap(double[] ranks, int capacity) {
+            this.ranks = ranks;
+            this.heap = new int[capacity];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void add(int ordinal) {
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(ordinal, heap[parent])) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = ordinal;
+        }
+
+        int poll() {
+            int first = heap[0];
+            int last = heap[--size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && before(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!before(heap[child], last)) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return first;
+        }
+
+        private boolean before(int a, int b) {
+            return ranks[a] != ranks[b] ? ranks[a] > ranks[b] : a < b;
+        }
+    }
+}
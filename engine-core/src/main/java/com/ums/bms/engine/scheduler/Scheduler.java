@@ -0,0 +1,37 @@
+package com.ums.bms.engine.scheduler;
+
+import com.ums.bms.engine.plan.ExecutionPlan;
+
+import java.util.function.IntConsumer;
+
+/**
+ * 节点调度器
+ * <p>
+ * 按照执行计划的依赖关系驱动节点执行, 节点在所有前驱完成后才会被调度.
+ * 任意节点抛出异常时调度立即失败(fail-fast).
+ *
+ * @author violet
+ * @since 2025/5/7
+ */
+public interface Scheduler {
+
+    /**
+     * 调度整个执行计划, 直到所有节点完成后返回
+     *
+     * @param plan     执行计划
+     * @param nodeTask 节点任务, 参数为节点序号
+     */
+    default void schedule(ExecutionPlan plan, IntConsumer nodeTask) {
+        schedule(plan, ordinal -> {
+        }, nodeTask);
+    }
+
+    /**
+     * 调度整个执行计划, 直到所有节点完成后返回
+     *
+     * @param plan     执行计划
+     * @param onReady  节点就绪(所有前驱完成, 进入就绪队列)时的回调, 在节点任务之前调用且每个节点最多调用一次
+     * @param nodeTask 节点任务, 参数为节点序号
+     */
+    void schedule(ExecutionPlan plan, IntConsumer onReady, IntConsumer nodeTask);
+}
@@ -0,0 +1,43 @@
+package com.ums.bms.engine.scheduler;
+
+import com.ums.bms.engine.plan.ExecutionPlan;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.IntConsumer;
+
+/**
+ * 在调用线程上按拓扑顺序逐个执行节点
+ *
+ * @author violet
+ * @since 2025/5/7
+ */
+@Slf4j
+public class SerialScheduler implements Scheduler {
+
+    @Override
+    public void schedule(ExecutionPlan plan, IntConsumer onReady, IntConsumer nodeTask) {
+        // 就绪队列按Kahn算法推进, 每个节点只入队一次
+        int[] remaining = plan.newInDegreeCounters();
+        int[] ready = new int[plan.size()];
+        int head = 0;
+        int tail = 0;
+        for (int source : plan.sources()) {
+            onReady.accept(source);
+            ready[tail++] = source;
+        }
+        while (head < tail) {
+            int current = ready[head++];
+            nodeTask.accept(current);
+            for (int successor : plan.successors(current)) {
+                if (--remaining[successor] == 0) {
+                    onReady.accept(successor);
+                    ready[tail++] = successor;
+                }
+            }
+        }
+        if (tail != plan.size()) {
+            log.error("No nodes are ready to execute, but DAG is not completed. Possible deadlock.");
+            throw new RuntimeException("Execution deadlock detected");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.ums.bms.engine.scheduler;
+
+import com.ums.bms.engine.plan.ExecutionPlan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * 流式调度器
+ * <p>
+ * 流式流水线中各阶段同时运行, 因此所有节点同时提交, 数据依赖由节点间的缓冲区保证.
+ * 执行器必须能同时运行所有节点, 通常使用虚拟线程执行器.
+ * 任意节点失败时中断其他节点, 并等待已开始的节点返回后再结束调度.
+ *
+ * @author violet
+ * @since 2025/5/14
+ */
+public class StreamingScheduler implements Scheduler {
+
+    private final ExecutorService executor;
+
+    public StreamingScheduler(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void schedule(ExecutionPlan plan, IntConsumer onReady, IntConsumer nodeTask) {
+        CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Void>> futures = new ArrayList<>(plan.size());
+        InFlight inFlight = new InFlight();
+        try {
+            for (int i = 0; i < plan.size(); i++) {
+                int ordinal = i;
+                onReady.accept(ordinal);
+                futures.add(completion.submit(() -> {
+                    // 调度失败后才开始的节点不再执行
+                    if (!inFlight.enter()) {
+                        return null;
+                    }
+                    try {
+                        nodeTask.accept(ordinal);
+                    } finally {
+                        inFlight.exit();
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                completion.take().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Execution interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            for (Future<Void> future : futures) {
+                future.cancel(true);
+            }
+            // 已开始的节点响应中断返回后才结束运行, 避免运行结束事件和检查点先于节点完成
+            inFlight.awaitDrained();
+        }
+    }
+
+    /**
+     * 已开始但尚未返回的节点任务数, 调度结束后不再接受新任务
+     */
+    private static final class InFlight {
+        private int running;
+        private boolean closed;
+
+        synchronized boolean enter() {
+            if (closed) {
+                return false;
+            }
+            running++;
+            return true;
+        }
+
+        synchronized void exit() {
+            if (--running == 0) {
+                notifyAll();
+            }
+        }
+
+        /**
+         * 等待已开始的节点任务全部返回, 不响应中断
+         */
+        synchronized void awaitDrained() {
+            closed = true;
+            boolean interrupted = false;
+            while (running > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
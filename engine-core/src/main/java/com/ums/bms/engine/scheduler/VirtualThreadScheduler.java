@@ -0,0 +1,118 @@
+package com.ums.bms.engine.scheduler;
+
+import com.ums.bms.engine.bulkhead.Bulkhead;
+import com.ums.bms.engine.bulkhead.BulkheadResolver;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntConsumer;
+
+/**
+ * 虚拟线程调度器
+ * <p>
+ * 每个节点的处理器生命周期运行在独立的虚拟线程上, 适用于阻塞在文件、JDBC、HTTP上的处理器.
+ * 同一处理器类型的并发数由信号量限制, 避免压垮下游资源; 声明了资源类别的节点改为占用所属隔离舱的许可.
+ * 运行在Java 21以下时退化为平台线程的缓存线程池.
+ *
+ * @author violet
+ * @since 2025/5/8
+ */
+@Slf4j
+public class VirtualThreadScheduler implements Scheduler {
+
+    private final ParallelScheduler delegate;
+    private final int defaultPermits;
+    private final Map<String, Integer> processorPermits;
+    private final Map<String, Semaphore> semaphores = new ConcurrentHashMap<>();
+    private final BulkheadResolver bulkheads;
+
+    /**
+     * @param executor         执行器, 通常为{@link #newVirtualThreadExecutor()}
+     * @param defaultPermits   每种处理器的默认最大并发数
+     * @param processorPermits 按处理器名称覆盖的最大并发数
+     */
+    public VirtualThreadScheduler(ExecutorService executor, int defaultPermits, Map<String, Integer> processorPermits) {
+        this(executor, defaultPermits, processorPermits, null);
+    }
+
+    /**
+     * @param executor         执行器, 通常为{@link #newVirtualThreadExecutor()}
+     * @param defaultPermits   每种处理器的默认最大并发数
+     * @param processorPermits 按处理器名称覆盖的最大并发数
+     * @param bulkheads        隔离舱查找, 为空时只按处理器名称限流
+     */
+    public VirtualThreadScheduler(ExecutorService executor, int defaultPermits, Map<String, Integer> processorPermits,
+                                  BulkheadResolver bulkheads) {
+        if (defaultPermits <= 0) {
+            throw new IllegalArgumentException("defaultPermits must be positive: " + defaultPermits);
+        }
+        this.delegate = new ParallelScheduler(executor);
+        this.defaultPermits = defaultPermits;
+        this.processorPermits = processorPermits == null ? Map.of() : Map.copyOf(processorPermits);
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public void schedule(ExecutionPlan plan, IntConsumer onReady, IntConsumer nodeTask) {
+        // 等待处理器许可的时间计入节点的排队时间
+        delegate.schedule(plan, onReady, ordinal -> {
+            Bulkhead bulkhead = bulkheads == null ? null : bulkheads.bulkhead(plan, ordinal);
+            if (bulkhead != null) {
+                runInBulkhead(bulkhead, ordinal, nodeTask);
+                return;
+            }
+            String processor = plan.node(ordinal).getProcessor();
+            if (processor == null) {
+                nodeTask.accept(ordinal);
+                return;
+            }
+            Semaphore semaphore = semaphores.computeIfAbsent(processor,
+                    name -> new Semaphore(processorPermits.getOrDefault(name, defaultPermits)));
+            try {
+                semaphore.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for processor permit: " + processor, e);
+            }
+            try {
+                nodeTask.accept(ordinal);
+            } finally {
+                semaphore.release();
+            }
+        });
+    }
+
+    private static void runInBulkhead(Bulkhead bulkhead, int ordinal, IntConsumer nodeTask) {
+        try {
+            bulkhead.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for bulkhead permit: " + bulkhead.getName(), e);
+        }
+        try {
+            nodeTask.accept(ordinal);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程的执行器
+     * <p>
+     * 工程以Java 17编译, 因此通过反射调用Java 21的API.
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not available on Java {}, falling back to a cached thread pool",
+                    Runtime.version().feature());
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
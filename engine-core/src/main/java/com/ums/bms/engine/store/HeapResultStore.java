@@ -0,0 +1,36 @@
+package com.ums.bms.engine.store;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 默认的堆内结果存储, 每个节点一个槽位
+ *
+ * @author violet
+ * @since 2025/5/30
+ */
+public class HeapResultStore implements ResultStore {
+    /* 并行模式下多个节点会并发写入结果, 数组元素的volatile语义保证安全发布 */
+    private final AtomicReferenceArray<Object> slots;
+
+    /**
+     * @param size 节点数量
+     */
+    public HeapResultStore(int size) {
+        this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    @Override
+    public void put(int ordinal, Object result) {
+        slots.set(ordinal, result);
+    }
+
+    @Override
+    public Object get(int ordinal) {
+        return slots.get(ordinal);
+    }
+
+    @Override
+    public void remove(int ordinal) {
+        slots.set(ordinal, null);
+    }
+}
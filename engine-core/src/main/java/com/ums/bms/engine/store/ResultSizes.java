@@ -0,0 +1,45 @@
+package com.ums.bms.engine.store;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+
+/**
+ * 估算结果的序列化大小
+ *
+ * @author violet
+ * @since 2025/5/30
+ */
+public final class ResultSizes {
+
+    private ResultSizes() {}
+
+    /**
+     * 二进制和字符串按实际大小计算, 集合累加其元素, 其他类型无法估算
+     *
+     * @param result 结果
+     * @return 估算的字节数, 无法估算时返回-1
+     */
+    public static long estimate(Object result) {
+        if (result instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (result instanceof ByteBuffer buffer) {
+            return buffer.remaining();
+        }
+        if (result instanceof CharSequence sequence) {
+            return sequence.length() * 2L;
+        }
+        if (result instanceof Collection<?> collection) {
+            long total = 0;
+            for (Object element : collection) {
+                long size = estimate(element);
+                if (size < 0) {
+                    return -1;
+                }
+                total += size;
+            }
+            return total;
+        }
+        return -1;
+    }
+}
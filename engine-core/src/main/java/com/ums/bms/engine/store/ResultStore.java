@@ -0,0 +1,70 @@
+package com.ums.bms.engine.store;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * 节点结果存储
+ * <p>
+ * 按执行计划中的节点序号保存结果, 每次运行的上下文持有一个实例.
+ * 并行模式下会被多个线程并发读写, 实现必须线程安全并保证写入的结果对其他线程安全发布.
+ *
+ * @author violet
+ * @since 2025/5/30
+ */
+public interface ResultStore {
+
+    /**
+     * 保存节点结果
+     *
+     * @param ordinal 节点序号
+     * @param result  结果, 不为空
+     */
+    void put(int ordinal, Object result);
+
+    /**
+     * 获取节点结果
+     * <p>
+     * 溢出到磁盘的结果在首次读取时解码并缓存, 内存紧张时缓存可能被回收;
+     * 只需要读取二进制内容时优先使用{@link #getBuffers(int)}.
+     *
+     * @param ordinal 节点序号
+     * @return 结果, 不存在时为空
+     */
+    Object get(int ordinal);
+
+    /**
+     * 节点结果是否存在, 不会读取溢出的结果
+     */
+    default boolean contains(int ordinal) {
+        return get(ordinal) != null;
+    }
+
+    /**
+     * 移除节点结果并释放其占用的资源
+     */
+    void remove(int ordinal);
+
+    /**
+     * 以只读{@link ByteBuffer}视图读取二进制结果, 支持的消费者可以避免复制
+     *
+     * @param ordinal 节点序号
+     * @return 按顺序排列的视图, 结果不存在或不是二进制数据时为空
+     */
+    default List<ByteBuffer> getBuffers(int ordinal) {
+        return buffersOf(get(ordinal));
+    }
+
+    /**
+     * 堆内二进制结果的只读视图
+     */
+    static List<ByteBuffer> buffersOf(Object result) {
+        if (result instanceof byte[] bytes) {
+            return List.of(ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+        }
+        if (result instanceof ByteBuffer buffer) {
+            return List.of(buffer.asReadOnlyBuffer());
+        }
+        return null;
+    }
+}
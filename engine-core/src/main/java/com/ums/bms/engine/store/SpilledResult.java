@@ -0,0 +1,166 @@
+package com.ums.bms.engine.store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 溢出到内存映射文件的结果
+ * <p>
+ * 文件在映射后立即删除, 映射本身保持有效, 磁盘空间在映射被回收时由操作系统释放.
+ * 单个映射不能超过2GB, 因此较大的结果按段映射.
+ * 解码后的对象以软引用缓存, 同一结果被多个下游读取时只解码一次, 内存紧张时由GC回收后再按需解码.
+ *
+ * @author violet
+ * @since 2025/5/30
+ */
+final class SpilledResult {
+
+    /**
+     * 结果的编码方式
+     */
+    enum Kind {
+        /* byte[], 读取时解码到新数组 */
+        BYTES,
+        /* ByteBuffer, 未压缩时读取为映射的只读视图 */
+        BUFFER,
+        /* 字符串, UTF-8编码 */
+        STRING,
+        /* 其他可序列化对象, Java序列化 */
+        SERIALIZED
+    }
+
+    private final Kind kind;
+    private final boolean compressed;
+    private final long length;
+    private final MappedByteBuffer[] segments;
+    /* 解码后的对象 */
+    private volatile SoftReference<Object> decoded;
+
+    SpilledResult(Kind kind, boolean compressed, long length, MappedByteBuffer[] segments) {
+        this.kind = kind;
+        this.compressed = compressed;
+        this.length = length;
+        this.segments = segments;
+    }
+
+    /**
+     * 文件中的字节数, 压缩时为压缩后的大小
+     */
+    long length() {
+        return length;
+    }
+
+    boolean compressed() {
+        return compressed;
+    }
+
+    /**
+     * 还原为原始类型的对象, 优先返回缓存的解码结果
+     */
+    Object materialize() {
+        SoftReference<Object> cached = decoded;
+        Object value = cached == null ? null : cached.get();
+        if (value == null) {
+            // 并发读取时可能重复解码, 结果等价, 不加锁
+            value = decode();
+            decoded = new SoftReference<>(value);
+        }
+        return value;
+    }
+
+    private Object decode() {
+        try {
+            return switch (kind) {
+                case BYTES -> bytes();
+                case BUFFER -> compressed ? ByteBuffer.wrap(bytes()).asReadOnlyBuffer() : segments[0].duplicate();
+                case STRING -> new String(bytes(), StandardCharsets.UTF_8);
+                case SERIALIZED -> {
+                    try (ObjectInputStream in = new ObjectInputStream(open())) {
+                        yield in.readObject();
+                    }
+                }
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read spilled result", e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Failed to read spilled result", e);
+        }
+    }
+
+    /**
+     * 未压缩的二进制结果返回映射的只读视图, 不复制数据; 其他结果为空
+     */
+    List<ByteBuffer> views() {
+        if (compressed || (kind != Kind.BYTES && kind != Kind.BUFFER)) {
+            return null;
+        }
+        List<ByteBuffer> views = new ArrayList<>(segments.length);
+        for (MappedByteBuffer segment : segments) {
+            views.add(segment.asReadOnlyBuffer());
+        }
+        return views;
+    }
+
+    private byte[] bytes() throws IOException {
+        try (InputStream in = open()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private InputStream open() {
+        InputStream in = new SegmentInputStream(segments);
+        return compressed ? new InflaterInputStream(in, new Inflater(), 64 * 1024) : in;
+    }
+
+    /**
+     * 顺序读取多个映射段
+     */
+    private static final class SegmentInputStream extends InputStream {
+        private final ByteBuffer[] segments;
+        private int current;
+
+        private SegmentInputStream(MappedByteBuffer[] segments) {
+            this.segments = new ByteBuffer[segments.length];
+            for (int i = 0; i < segments.length; i++) {
+                this.segments[i] = segments[i].duplicate();
+            }
+        }
+
+        @Override
+        public int read() {
+            ByteBuffer segment = segment();
+            return segment == null ? -1 : segment.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            ByteBuffer segment = segment();
+            if (segment == null) {
+                return -1;
+            }
+            int count = Math.min(len, segment.remaining());
+            segment.get(b, off, count);
+            return count;
+        }
+
+        private ByteBuffer segment() {
+            while (current < segments.length && !segments[current].hasRemaining()) {
+                current++;
+            }
+            return current < segments.length ? segments[current] : null;
+        }
+    }
+}
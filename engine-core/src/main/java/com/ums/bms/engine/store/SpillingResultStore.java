@@ -0,0 +1,218 @@
+package com.ums.bms.engine.store;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ToLongFunction;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * 将大结果溢出到本地内存映射文件的结果存储
+ * <p>
+ * 估算大小超过阈值的结果被写入溢出目录并映射为只读内存, 堆内只保留映射句柄.
+ * 读取时按原始类型还原并以软引用缓存解码结果, 同一结果被多个下游读取时不会重复解压或反序列化; 未压缩的二进制结果可以通过{@link #getBuffers(int)}直接读取映射视图, 不复制数据.
+ * 压缩使用JDK的Deflater(BEST_SPEED), 以CPU换取更少的磁盘和页缓存占用, 压缩后的结果没有零拷贝视图.
+ * 无法估算大小或不可序列化的结果保留在堆内.
+ *
+ * @author violet
+ * @since 2025/5/30
+ */
+@Slf4j
+public class SpillingResultStore implements ResultStore {
+    /* 单个映射段的最大字节数 */
+    static final long SEGMENT_SIZE = Integer.MAX_VALUE;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final long threshold;
+    private final boolean compress;
+    private final ToLongFunction<Object> estimator;
+    /* 堆内结果或SpilledResult */
+    private final AtomicReferenceArray<Object> slots;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong spilledBytes = new AtomicLong();
+
+    /**
+     * @param size      节点数量
+     * @param directory 溢出目录, 不存在时创建
+     * @param threshold 溢出阈值(字节)
+     * @param compress  是否压缩
+     */
+    public SpillingResultStore(int size, Path directory, long threshold, boolean compress) {
+        this(size, directory, threshold, compress, ResultSizes::estimate);
+    }
+
+    /**
+     * @param size      节点数量
+     * @param directory 溢出目录, 不存在时创建
+     * @param threshold 溢出阈值(字节)
+     * @param compress  是否压缩
+     * @param estimator 结果大小估算, 返回负数表示无法估算
+     */
+    public SpillingResultStore(int size, Path directory, long threshold, boolean compress,
+                               ToLongFunction<Object> estimator) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create spill directory: " + directory, e);
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.directory = directory;
+        this.threshold = threshold;
+        this.compress = compress;
+        this.estimator = estimator;
+    }
+
+    @Override
+    public void put(int ordinal, Object result) {
+        SpilledResult.Kind kind = kindOf(result);
+        long size = kind == null ? -1 : estimator.applyAsLong(result);
+        if (size < 0 || size < threshold) {
+            release(slots.getAndSet(ordinal, result));
+            return;
+        }
+        SpilledResult spilled = spill(ordinal, kind, result);
+        spilledBytes.addAndGet(spilled.length());
+        release(slots.getAndSet(ordinal, spilled));
+    }
+
+    @Override
+    public Object get(int ordinal) {
+        Object result = slots.get(ordinal);
+        return result instanceof SpilledResult spilled ? spilled.materialize() : result;
+    }
+
+    @Override
+    public boolean contains(int ordinal) {
+        return slots.get(ordinal) != null;
+    }
+
+    @Override
+    public void remove(int ordinal) {
+        release(slots.getAndSet(ordinal, null));
+    }
+
+    @Override
+    public List<ByteBuffer> getBuffers(int ordinal) {
+        Object result = slots.get(ordinal);
+        if (result instanceof SpilledResult spilled) {
+            List<ByteBuffer> views = spilled.views();
+            return views != null ? views : ResultStore.buffersOf(spilled.materialize());
+        }
+        return ResultStore.buffersOf(result);
+    }
+
+    /**
+     * 结果是否已溢出到磁盘
+     */
+    public boolean isSpilled(int ordinal) {
+        return slots.get(ordinal) instanceof SpilledResult;
+    }
+
+    /**
+     * 当前溢出结果占用的映射字节数
+     */
+    public long getSpilledBytes() {
+        return spilledBytes.get();
+    }
+
+    private void release(Object previous) {
+        if (previous instanceof SpilledResult spilled) {
+            spilledBytes.addAndGet(-spilled.length());
+        }
+    }
+
+    private static SpilledResult.Kind kindOf(Object result) {
+        if (result instanceof byte[]) {
+            return SpilledResult.Kind.BYTES;
+        }
+        if (result instanceof ByteBuffer) {
+            return SpilledResult.Kind.BUFFER;
+        }
+        if (result instanceof String) {
+            return SpilledResult.Kind.STRING;
+        }
+        if (result instanceof Serializable) {
+            return SpilledResult.Kind.SERIALIZED;
+        }
+        return null;
+    }
+
+    private SpilledResult spill(int ordinal, SpilledResult.Kind kind, Object result) {
+        Path file = directory.resolve(sequence.incrementAndGet() + "-" + ordinal + ".spill");
+        // 映射后关闭通道即删除文件, 映射保持有效直到被回收
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE)) {
+            Deflater deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+            try {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE);
+                if (deflater != null) {
+                    out = new DeflaterOutputStream(out, deflater, WRITE_BUFFER_SIZE);
+                }
+                write(kind, result, out);
+                out.flush();
+                if (out instanceof DeflaterOutputStream deflaterOut) {
+                    deflaterOut.finish();
+                    deflaterOut.flush();
+                }
+            } finally {
+                if (deflater != null) {
+                    deflater.end();
+                }
+            }
+            long length = channel.size();
+            int count = (int) Math.max(1, (length + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+            MappedByteBuffer[] segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long position = i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, length - position));
+            }
+            log.debug("Spilled result of node #{} to {}, {} bytes", ordinal, file, length);
+            return new SpilledResult(kind, compress, length, segments);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill result of node #" + ordinal, e);
+        }
+    }
+
+    private static void write(SpilledResult.Kind kind, Object result, OutputStream out) throws IOException {
+        switch (kind) {
+            case BYTES -> out.write((byte[]) result);
+            case BUFFER -> {
+                ByteBuffer buffer = ((ByteBuffer) result).duplicate();
+                if (buffer.hasArray()) {
+                    out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                } else {
+                    byte[] chunk = new byte[WRITE_BUFFER_SIZE];
+                    while (buffer.hasRemaining()) {
+                        int count = Math.min(chunk.length, buffer.remaining());
+                        buffer.get(chunk, 0, count);
+                        out.write(chunk, 0, count);
+                    }
+                }
+            }
+            case STRING -> out.write(((String) result).getBytes(StandardCharsets.UTF_8));
+            case SERIALIZED -> {
+                ObjectOutputStream objectOut = new ObjectOutputStream(out);
+                objectOut.writeObject(result);
+                objectOut.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ums.bms.engine.stream;
+
+import com.ums.bms.engine.model.Context;
+
+import java.util.List;
+
+/**
+ * 批量处理器
+ * <p>
+ * 引擎按节点参数{@code batch-size}(默认500)和{@code batch-linger-ms}(默认0)把流入节点的记录分组:
+ * 收到一批的第一条记录后最多再等待linger时间凑满一批, 然后调用{@link #processBatch}.
+ * 非流式模式下, 前驱节点的结果(集合会被展开)作为记录分批处理, 节点结果为输出记录的列表.
+ *
+ * @param <IN>  输入记录类型
+ * @param <OUT> 输出记录类型
+ * @author violet
+ * @since 2025/5/15
+ */
+public interface BatchProcessor<IN, OUT> extends StreamProcessor<IN, OUT> {
+    String BATCH_SIZE = "batch-size";
+    String BATCH_LINGER_MS = "batch-linger-ms";
+    int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * 处理一批记录
+     *
+     * @param batch   记录, 不为空, 调用结束后引擎不再使用该列表
+     * @param output  输出
+     * @param context 上下文
+     * @throws InterruptedException 流水线被取消
+     */
+    void processBatch(List<IN> batch, RecordEmitter<OUT> output, Context context) throws InterruptedException;
+
+    /**
+     * 直接作为流式处理器调用时逐条处理, 引擎不会走到这里
+     */
+    @Override
+    default void process(RecordStream<IN> input, RecordEmitter<OUT> output, Context context)
+            throws InterruptedException {
+        IN record;
+        while ((record = input.next()) != null) {
+            processBatch(List.of(record), output, context);
+        }
+    }
+}
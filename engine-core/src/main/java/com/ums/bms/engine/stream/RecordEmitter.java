@@ -0,0 +1,21 @@
+package com.ums.bms.engine.stream;
+
+/**
+ * 流式节点的输出
+ * <p>
+ * 记录会被广播到所有后继节点的输入缓冲区, 缓冲区满时阻塞, 由此向上游传递背压.
+ *
+ * @param <T> 记录类型
+ * @author violet
+ * @since 2025/5/14
+ */
+public interface RecordEmitter<T> {
+
+    /**
+     * 发送一条记录
+     *
+     * @param record 记录, 不能为空
+     * @throws InterruptedException 流水线被取消
+     */
+    void emit(T record) throws InterruptedException;
+}
@@ -0,0 +1,21 @@
+package com.ums.bms.engine.stream;
+
+/**
+ * 流式节点的输入记录流
+ * <p>
+ * 多个前驱节点的记录按到达顺序合并到同一个流中, 所有前驱都结束后流结束.
+ *
+ * @param <T> 记录类型
+ * @author violet
+ * @since 2025/5/14
+ */
+public interface RecordStream<T> {
+
+    /**
+     * 阻塞获取下一条记录
+     *
+     * @return 下一条记录, 流结束时返回null
+     * @throws InterruptedException 流水线被取消
+     */
+    T next() throws InterruptedException;
+}
@@ -0,0 +1,39 @@
+package com.ums.bms.engine.stream;
+
+import com.ums.bms.engine.model.Context;
+import com.ums.bms.engine.processor.Processor;
+
+/**
+ * 流式处理器
+ * <p>
+ * 在{@code STREAMING}执行模式下, 所有节点同时启动: SOURCE节点只输出记录, PROCESSOR节点边读边写,
+ * SINK节点只消费记录. 节点之间通过有界缓冲区连接, 内存占用与数据量无关.
+ * 生命周期与{@link Processor}相同, 只是{@link #process(RecordStream, RecordEmitter, Context)}
+ * 代替了{@link #process(Context)}.
+ *
+ * @param <IN>  输入记录类型
+ * @param <OUT> 输出记录类型
+ * @author violet
+ * @since 2025/5/14
+ */
+public interface StreamProcessor<IN, OUT> extends Processor<Void> {
+
+    /**
+     * 流式处理, 返回后节点的输出流结束
+     *
+     * @param input   输入记录, SOURCE节点的输入为空流
+     * @param output  输出
+     * @param context 上下文
+     * @throws InterruptedException 流水线被取消
+     */
+    void process(RecordStream<IN> input, RecordEmitter<OUT> output, Context context) throws InterruptedException;
+
+    /**
+     * 流式处理器只能在流式模式下执行
+     */
+    @Override
+    default Void process(Context context) {
+        throw new UnsupportedOperationException(
+                getClass().getSimpleName() + " can only be executed in STREAMING mode");
+    }
+}
@@ -0,0 +1,240 @@
+package com.ums.bms.engine.stream;
+
+import com.ums.bms.engine.model.Context;
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import com.ums.bms.engine.processor.Processor;
+import com.ums.bms.engine.utils.ParameterUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+
+/**
+ * 单次运行的流式流水线
+ * <p>
+ * 每个有前驱的节点持有一个有界输入缓冲区, 所有前驱向其中写入记录, 结束时各写入一个结束标记.
+ * 节点的缓冲区大小可以通过节点参数{@code buffer-size}指定.
+ * 实现{@link BatchProcessor}的节点由流水线按批次大小和等待时间分组.
+ *
+ * @author violet
+ * @since 2025/5/14
+ */
+public class StreamingPipeline {
+    public static final String BUFFER_SIZE = "buffer-size";
+
+    private static final Object END = new Object();
+
+    private final ExecutionPlan plan;
+    private final BlockingQueue<Object>[] inputs;
+
+    /* 按节点序号保存的需要运行的后继 */
+    private final int[][] successors;
+
+    public StreamingPipeline(ExecutionPlan plan, int defaultBufferSize) {
+        this(plan, defaultBufferSize, ordinal -> true);
+    }
+
+    /**
+     * @param plan              执行计划
+     * @param defaultBufferSize 默认缓冲区大小
+     * @param active            节点是否运行, 不运行的节点没有缓冲区, 上游也不会向其写入记录
+     */
+    @SuppressWarnings("unchecked")
+    public StreamingPipeline(ExecutionPlan plan, int defaultBufferSize, IntPredicate active) {
+        this.plan = plan;
+        this.inputs = new BlockingQueue[plan.size()];
+        this.successors = new int[plan.size()][];
+        for (int i = 0; i < plan.size(); i++) {
+            if (plan.inDegree(i) > 0 && active.test(i)) {
+                inputs[i] = new ArrayBlockingQueue<>(bufferSize(plan.node(i), defaultBufferSize));
+            }
+        }
+        for (int i = 0; i < plan.size(); i++) {
+            successors[i] = Arrays.stream(plan.successors(i)).filter(active).toArray();
+        }
+    }
+
+    /**
+     * 运行一个流式节点, 正常结束时向所有后继发送结束标记
+     *
+     * @param ordinal   节点序号
+     * @param processor 处理器, 为空时原样转发输入记录
+     * @param context   上下文
+     * @return 节点输出的记录数
+     * @throws InterruptedException 流水线被取消
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public long run(int ordinal, Processor processor, Context context) throws InterruptedException {
+        Input input = new Input(inputs[ordinal], plan.inDegree(ordinal));
+        Output output = new Output(successors[ordinal]);
+        if (processor == null) {
+            Object record;
+            while ((record = input.next()) != null) {
+                output.emit(record);
+            }
+        } else if (processor instanceof BatchProcessor batchProcessor) {
+            Node node = plan.node(ordinal);
+            runBatches(batchProcessor, input, output, context, positive(node, BatchProcessor.BATCH_SIZE,
+                            ParameterUtil.intValue(node, BatchProcessor.BATCH_SIZE, BatchProcessor.DEFAULT_BATCH_SIZE)),
+                    TimeUnit.MILLISECONDS.toNanos(ParameterUtil.longValue(node, BatchProcessor.BATCH_LINGER_MS, 0)));
+        } else if (processor instanceof StreamProcessor streamProcessor) {
+            streamProcessor.process(input, output, context);
+        } else {
+            throw new IllegalStateException("Processor " + processor.getClass().getSimpleName()
+                    + " of node " + plan.node(ordinal).getId() + " does not support STREAMING mode");
+        }
+        // 处理器提前返回时丢弃剩余输入, 避免上游阻塞在已满的缓冲区上
+        while (input.next() != null) {
+            // drain
+        }
+        output.end();
+        return output.count;
+    }
+
+    /**
+     * 跳过一个流式节点: 丢弃所有输入并向后继发送结束标记, 后继收到的是空流
+     *
+     * @param ordinal 节点序号
+     * @throws InterruptedException 流水线被取消
+     */
+    public void skip(int ordinal) throws InterruptedException {
+        Input input = new Input(inputs[ordinal], plan.inDegree(ordinal));
+        while (input.next() != null) {
+            // drain
+        }
+        new Output(successors[ordinal]).end();
+    }
+
+    /**
+     * 非流式模式下分批处理前驱节点的结果, 集合结果会被展开为多条记录
+     *
+     * @param processor 批量处理器
+     * @param node      节点
+     * @param context   上下文
+     * @return 输出记录列表
+     * @throws InterruptedException 执行被中断
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static List<Object> runCollected(BatchProcessor processor, Node node, Context context)
+            throws InterruptedException {
+        int batchSize = positive(node, BatchProcessor.BATCH_SIZE,
+                ParameterUtil.intValue(node, BatchProcessor.BATCH_SIZE, BatchProcessor.DEFAULT_BATCH_SIZE));
+        List<Object> results = new ArrayList<>();
+        RecordEmitter<Object> output = record -> results.add(Objects.requireNonNull(record, "record"));
+        List<Object> batch = new ArrayList<>(batchSize);
+        for (Object result : context.getInputs(node)) {
+            Iterable<?> records = result instanceof Iterable<?> iterable ? iterable
+                    : result == null ? List.of() : List.of(result);
+            for (Object record : records) {
+                batch.add(record);
+                if (batch.size() == batchSize) {
+                    processor.processBatch(batch, output, context);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            processor.processBatch(batch, output, context);
+        }
+        return results;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void runBatches(BatchProcessor processor, Input input, Output output, Context context,
+                            int batchSize, long lingerNanos) throws InterruptedException {
+        Object first;
+        while ((first = input.next()) != null) {
+            List<Object> batch = new ArrayList<>(batchSize);
+            batch.add(first);
+            long deadline = System.nanoTime() + lingerNanos;
+            Object record;
+            while (batch.size() < batchSize && (record = input.poll(deadline)) != null) {
+                batch.add(record);
+            }
+            processor.processBatch(batch, output, context);
+        }
+    }
+
+    private static int positive(Node node, String key, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("Invalid " + key + " of node " + node.getId() + ": " + value);
+        }
+        return value;
+    }
+
+    private static int bufferSize(Node node, int defaultBufferSize) {
+        return positive(node, BUFFER_SIZE, ParameterUtil.intValue(node, BUFFER_SIZE, defaultBufferSize));
+    }
+
+    private static final class Input implements RecordStream<Object> {
+        private final BlockingQueue<Object> queue;
+        private int pendingProducers;
+
+        private Input(BlockingQueue<Object> queue, int producers) {
+            this.queue = queue;
+            this.pendingProducers = producers;
+        }
+
+        @Override
+        public Object next() throws InterruptedException {
+            while (pendingProducers > 0) {
+                Object record = queue.take();
+                if (record != END) {
+                    return record;
+                }
+                pendingProducers--;
+            }
+            return null;
+        }
+
+        /**
+         * 在截止时间之前获取下一条记录
+         *
+         * @param deadline {@link System#nanoTime()}截止时间
+         * @return 下一条记录, 超时或流结束时返回null
+         */
+        private Object poll(long deadline) throws InterruptedException {
+            while (pendingProducers > 0) {
+                Object record = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (record == null) {
+                    return null;
+                }
+                if (record != END) {
+                    return record;
+                }
+                pendingProducers--;
+            }
+            return null;
+        }
+    }
+
+    private final class Output implements RecordEmitter<Object> {
+        private final int[] successors;
+        private long count;
+
+        private Output(int[] successors) {
+            this.successors = successors;
+        }
+
+        @Override
+        public void emit(Object record) throws InterruptedException {
+            Objects.requireNonNull(record, "record");
+            for (int successor : successors) {
+                inputs[successor].put(record);
+            }
+            count++;
+        }
+
+        private void end() throws InterruptedException {
+            for (int successor : successors) {
+                inputs[successor].put(END);
+            }
+        }
+    }
+}
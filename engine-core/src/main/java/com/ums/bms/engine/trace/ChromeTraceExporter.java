@@ -0,0 +1,172 @@
+package com.ums.bms.engine.trace;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.plan.ExecutionPlan;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 将{@link RunTrace}导出为Chrome trace-event JSON, 可以在chrome://tracing或ui.perfetto.dev中打开
+ * <p>
+ * 每个执行线程对应一条轨道, 节点执行为完整事件(ph=X), 就绪到开始执行的等待为异步事件(ph=b/e),
+ * 跳过的节点为瞬时事件(ph=i). 关键路径上的节点在args中标记{@code critical=true}.
+ * 时间戳为相对运行开始的微秒数.
+ *
+ * @author violet
+ * @since 2025/5/28
+ */
+public final class ChromeTraceExporter {
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final int PID = 1;
+    /* 运行级别事件使用的伪线程 */
+    private static final long RUN_TID = 0;
+
+    private ChromeTraceExporter() {}
+
+    public static void write(RunTrace trace, OutputStream out) throws IOException {
+        try (JsonGenerator json = FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            write(trace, json);
+        }
+    }
+
+    public static String toJson(RunTrace trace) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            write(trace, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static void write(RunTrace trace, JsonGenerator json) throws IOException {
+        ExecutionPlan plan = trace.getPlan();
+        boolean[] critical = new boolean[plan.size()];
+        for (int ordinal : trace.criticalPath()) {
+            critical[ordinal] = true;
+        }
+        json.writeStartObject();
+        json.writeStringField("displayTimeUnit", "ms");
+        json.writeArrayFieldStart("traceEvents");
+
+        metadata(json, "process_name", RUN_TID, plan.flowId() + ":" + plan.version() + " " + trace.getRunId());
+        metadata(json, "thread_name", RUN_TID, "run");
+        Set<Long> threads = new HashSet<>();
+        for (int i = 0; i < plan.size(); i++) {
+            if (trace.getStartedNanos(i) != 0 && threads.add(trace.getThreadId(i))) {
+                metadata(json, "thread_name", trace.getThreadId(i), trace.getThreadName(i));
+            }
+        }
+
+        long end = trace.isFinished() ? trace.getEndNanos() : System.nanoTime();
+        json.writeStartObject();
+        json.writeStringField("name", String.valueOf(plan.flowName()));
+        json.writeStringField("cat", "run");
+        json.writeStringField("ph", "X");
+        json.writeNumberField("ts", 0);
+        json.writeNumberField("dur", micros(end - trace.getStartNanos()));
+        json.writeNumberField("pid", PID);
+        json.writeNumberField("tid", RUN_TID);
+        json.writeObjectFieldStart("args");
+        json.writeStringField("runId", trace.getRunId());
+        json.writeBooleanField("failed", trace.isFailed());
+        json.writeEndObject();
+        json.writeEndObject();
+
+        for (int i = 0; i < plan.size(); i++) {
+            node(json, trace, i, critical[i], end);
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    private static void node(JsonGenerator json, RunTrace trace, int ordinal, boolean critical, long end)
+            throws IOException {
+        Node node = trace.getPlan().node(ordinal);
+        Node.NodeStatus status = trace.getStatus(ordinal);
+        long ready = trace.getReadyNanos(ordinal);
+        long started = trace.getStartedNanos(ordinal);
+        if (status == Node.NodeStatus.SKIPPED && started == 0) {
+            json.writeStartObject();
+            json.writeStringField("name", node.getId());
+            json.writeStringField("cat", "skipped");
+            json.writeStringField("ph", "i");
+            json.writeStringField("s", "p");
+            json.writeNumberField("ts", relative(trace, trace.getEndedNanos(ordinal)));
+            json.writeNumberField("pid", PID);
+            json.writeNumberField("tid", RUN_TID);
+            json.writeEndObject();
+            return;
+        }
+        if (ready != 0) {
+            // 等待到开始执行为止, 未开始的节点等待到运行结束
+            long waitEnd = started != 0 ? started : end;
+            asyncEvent(json, "b", node.getId(), ordinal, relative(trace, ready));
+            asyncEvent(json, "e", node.getId(), ordinal, relative(trace, waitEnd));
+        }
+        if (started == 0) {
+            return;
+        }
+        long ended = trace.getEndedNanos(ordinal) != 0 ? trace.getEndedNanos(ordinal) : end;
+        json.writeStartObject();
+        json.writeStringField("name", node.getId());
+        json.writeStringField("cat", node.getProcessor() == null ? "node" : node.getProcessor());
+        json.writeStringField("ph", "X");
+        json.writeNumberField("ts", relative(trace, started));
+        json.writeNumberField("dur", micros(ended - started));
+        json.writeNumberField("pid", PID);
+        json.writeNumberField("tid", trace.getThreadId(ordinal));
+        json.writeObjectFieldStart("args");
+        json.writeStringField("status", status.name());
+        if (node.getProcessor() != null) {
+            json.writeStringField("processor", node.getProcessor());
+        }
+        if (ready != 0) {
+            json.writeNumberField("queueUs", micros(started - ready));
+        }
+        json.writeBooleanField("critical", critical);
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private static void asyncEvent(JsonGenerator json, String phase, String name, int id, double ts) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("name", "wait " + name);
+        json.writeStringField("cat", "queue");
+        json.writeStringField("ph", phase);
+        json.writeNumberField("id", id);
+        json.writeNumberField("ts", ts);
+        json.writeNumberField("pid", PID);
+        json.writeNumberField("tid", RUN_TID);
+        json.writeEndObject();
+    }
+
+    private static void metadata(JsonGenerator json, String name, long tid, String value) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("name", name);
+        json.writeStringField("ph", "M");
+        json.writeNumberField("pid", PID);
+        json.writeNumberField("tid", tid);
+        json.writeObjectFieldStart("args");
+        json.writeStringField("name", value);
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private static double relative(RunTrace trace, long nanos) {
+        return micros(nanos - trace.getStartNanos());
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
+    }
+}
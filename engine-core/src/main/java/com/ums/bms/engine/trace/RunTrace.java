@@ -0,0 +1,151 @@
+package com.ums.bms.engine.trace;
+
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.plan.ExecutionPlan;
+
+/**
+ * 单次运行的节点时间线
+ * <p>
+ * 所有数组在运行开始时按节点数一次性分配, 记录时只按节点序号写入, 不再分配内存.
+ * 每个节点的槽位只由执行该节点的线程写入, 调度器保证节点完成先于运行结束,
+ * 因此运行结束后读取是安全的; 失败的运行中仍在执行的节点可能记录不完整.
+ * 时间单位为{@link System#nanoTime()}纳秒, 未发生的事件为0.
+ *
+ * @author violet
+ * @since 2025/5/28
+ */
+public final class RunTrace {
+    private final String runId;
+    private final ExecutionPlan plan;
+    private final long startNanos;
+    private final long[] readyNanos;
+    private final long[] startedNanos;
+    private final long[] endedNanos;
+    private final long[] threadIds;
+    private final String[] threadNames;
+    private final Node.NodeStatus[] statuses;
+    private volatile long endNanos;
+    private volatile boolean failed;
+
+    RunTrace(String runId, ExecutionPlan plan, long startNanos) {
+        int size = plan.size();
+        this.runId = runId;
+        this.plan = plan;
+        this.startNanos = startNanos;
+        this.readyNanos = new long[size];
+        this.startedNanos = new long[size];
+        this.endedNanos = new long[size];
+        this.threadIds = new long[size];
+        this.threadNames = new String[size];
+        this.statuses = new Node.NodeStatus[size];
+        for (int i = 0; i < size; i++) {
+            statuses[i] = Node.NodeStatus.PENDING;
+        }
+    }
+
+    void ready(int ordinal, long nanos) {
+        readyNanos[ordinal] = nanos;
+    }
+
+    void started(int ordinal, long nanos, Thread thread) {
+        startedNanos[ordinal] = nanos;
+        threadIds[ordinal] = thread.getId();
+        threadNames[ordinal] = thread.getName();
+        statuses[ordinal] = Node.NodeStatus.RUNNING;
+    }
+
+    void ended(int ordinal, long nanos, Node.NodeStatus status) {
+        endedNanos[ordinal] = nanos;
+        statuses[ordinal] = status;
+    }
+
+    void finished(long nanos, boolean failed) {
+        this.failed = failed;
+        this.endNanos = nanos;
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public ExecutionPlan getPlan() {
+        return plan;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * 运行结束时间, 运行中为0
+     */
+    public long getEndNanos() {
+        return endNanos;
+    }
+
+    public boolean isFinished() {
+        return endNanos != 0;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public long getReadyNanos(int ordinal) {
+        return readyNanos[ordinal];
+    }
+
+    public long getStartedNanos(int ordinal) {
+        return startedNanos[ordinal];
+    }
+
+    public long getEndedNanos(int ordinal) {
+        return endedNanos[ordinal];
+    }
+
+    public long getThreadId(int ordinal) {
+        return threadIds[ordinal];
+    }
+
+    public String getThreadName(int ordinal) {
+        return threadNames[ordinal];
+    }
+
+    public Node.NodeStatus getStatus(int ordinal) {
+        return statuses[ordinal];
+    }
+
+    /**
+     * 关键路径: 从最晚结束的节点开始, 每次回溯到最晚结束的前驱
+     *
+     * @return 按执行顺序排列的节点序号, 没有已结束的节点时为空数组
+     */
+    public int[] criticalPath() {
+        int last = -1;
+        for (int i = 0; i < endedNanos.length; i++) {
+            if (endedNanos[i] != 0 && (last < 0 || endedNanos[i] > endedNanos[last])) {
+                last = i;
+            }
+        }
+        if (last < 0) {
+            return new int[0];
+        }
+        int[] reversed = new int[plan.size()];
+        int length = 0;
+        for (int current = last; current >= 0; ) {
+            reversed[length++] = current;
+            int next = -1;
+            for (int predecessor : plan.predecessors(current)) {
+                if (endedNanos[predecessor] != 0 && (next < 0 || endedNanos[predecessor] > endedNanos[next])) {
+                    next = predecessor;
+                }
+            }
+            current = next;
+        }
+        int[] path = new int[length];
+        for (int i = 0; i < length; i++) {
+            path[i] = reversed[length - 1 - i];
+        }
+        return path;
+    }
+}
@@ -0,0 +1,118 @@
+package com.ums.bms.engine.trace;
+
+import com.ums.bms.engine.listener.ExecutionListener;
+import com.ums.bms.engine.listener.NodeTiming;
+import com.ums.bms.engine.runtime.ExecutionInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 按采样率记录运行的节点时间线
+ * <p>
+ * 被采样的运行在开始时分配{@link RunTrace}, 节点事件只写入预分配的数组; 未被采样的运行只有一次Map查找.
+ * 结束的运行保存在固定容量的环形缓冲区中, 超出容量时覆盖最早的记录.
+ * 通过{@link ChromeTraceExporter}导出为Chrome trace / Perfetto格式.
+ *
+ * @author violet
+ * @since 2025/5/28
+ */
+public class TraceRecorder implements ExecutionListener {
+    private final double sampleRate;
+    private final Map<ExecutionInstance, RunTrace> active = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<RunTrace> completed;
+    private final AtomicLong cursor = new AtomicLong();
+
+    /**
+     * @param sampleRate 采样率, 0~1, 1表示记录所有运行
+     * @param capacity   保留的已结束运行数
+     */
+    public TraceRecorder(double sampleRate, int capacity) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1: " + sampleRate);
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.sampleRate = sampleRate;
+        this.completed = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public void runStarted(ExecutionInstance instance) {
+        if (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            active.put(instance, new RunTrace(instance.getRunId(), instance.getPlan(), System.nanoTime()));
+        }
+    }
+
+    @Override
+    public void runFinished(ExecutionInstance instance, Throwable error) {
+        RunTrace trace = active.remove(instance);
+        if (trace == null) {
+            return;
+        }
+        trace.finished(System.nanoTime(), error != null);
+        completed.set((int) (cursor.getAndIncrement() % completed.length()), trace);
+    }
+
+    @Override
+    public void nodeReady(ExecutionInstance instance, int ordinal) {
+        RunTrace trace = active.get(instance);
+        if (trace != null) {
+            trace.ready(ordinal, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void nodeStarted(ExecutionInstance instance, int ordinal) {
+        RunTrace trace = active.get(instance);
+        if (trace != null) {
+            trace.started(ordinal, System.nanoTime(), Thread.currentThread());
+        }
+    }
+
+    @Override
+    public void nodeFinished(ExecutionInstance instance, int ordinal, NodeTiming timing, Object result, Throwable error) {
+        RunTrace trace = active.get(instance);
+        if (trace != null) {
+            trace.ended(ordinal, timing.endNanos(), instance.getStatus(ordinal));
+        }
+    }
+
+    /**
+     * 获取已结束运行的时间线
+     *
+     * @param runId 运行ID
+     * @return 时间线, 未采样或已被覆盖时为空
+     */
+    public RunTrace get(String runId) {
+        for (int i = 0; i < completed.length(); i++) {
+            RunTrace trace = completed.get(i);
+            if (trace != null && trace.getRunId().equals(runId)) {
+                return trace;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 最近结束的运行, 按结束顺序从新到旧排列
+     */
+    public List<RunTrace> recent() {
+        long end = cursor.get();
+        int capacity = completed.length();
+        List<RunTrace> traces = new ArrayList<>(capacity);
+        for (long i = end - 1; i >= 0 && i >= end - capacity; i--) {
+            RunTrace trace = completed.get((int) (i % capacity));
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+}
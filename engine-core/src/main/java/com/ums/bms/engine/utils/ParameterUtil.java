@@ -0,0 +1,38 @@
+package com.ums.bms.engine.utils;
+
+import com.ums.bms.engine.model.Node;
+
+/**
+ * 节点参数读取工具, YAML中的数值参数可能是数字也可能是字符串
+ *
+ * @author violet
+ * @since 2025/5/15
+ */
+public final class ParameterUtil {
+
+    private ParameterUtil() {}
+
+    public static int intValue(Node node, String key, int defaultValue) {
+        return (int) longValue(node, key, defaultValue);
+    }
+
+    public static long longValue(Node node, String key, long defaultValue) {
+        Object value = node.getParameter(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return value instanceof Number number ? number.longValue() : Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + " of node " + node.getId() + ": " + value, e);
+        }
+    }
+
+    public static boolean booleanValue(Node node, String key, boolean defaultValue) {
+        Object value = node.getParameter(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        return value instanceof Boolean bool ? bool : Boolean.parseBoolean(value.toString().trim());
+    }
+}
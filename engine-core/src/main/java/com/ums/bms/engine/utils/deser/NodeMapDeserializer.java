@@ -2,29 +2,59 @@ package com.ums.bms.engine.utils.deser;
 
 import com.fasterxml.jackson.core.JacksonException;
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ums.bms.engine.model.DAGGraph;
 import com.ums.bms.engine.model.Node;
 
 import java.io.IOException;
-import java.util.Map;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * 定制的反序列化器
+ * <p>
+ * 单次遍历节点数组直接构建节点Map, 保持声明顺序, 使用外层ObjectMapper的配置因此适用于所有格式.
+ * 在{@link DAGGraph}中反序列化时重复的节点ID只保留第一个并记录到{@link DAGGraph#getDuplicateNodeIds()},
+ * 由校验统一报告; 单独使用时遇到重复ID直接报错.
  *
  * @author violet
  * @since 2025/4/28
  */
 public class NodeMapDeserializer extends JsonDeserializer<Map<String, Node>> {
-    private static final ObjectMapper mapper = new ObjectMapper();
     @Override
     public Map<String, Node> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException, JacksonException {
-        List<Node> nodes = mapper.readValue(p, new TypeReference<>() {
-        });
-        return nodes.stream().collect(Collectors.toMap(Node::getId, node -> node));
+        if (!p.isExpectedStartArrayToken()) {
+            return ctxt.reportInputMismatch(this, "节点配置应为数组, 实际为%s", p.currentToken());
+        }
+        JsonDeserializer<Object> nodeDeserializer = ctxt.findRootValueDeserializer(ctxt.constructType(Node.class));
+        DAGGraph owner = owner(p);
+        List<String> duplicates = new ArrayList<>();
+        Map<String, Node> nodes = new LinkedHashMap<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            Node node = (Node) nodeDeserializer.deserialize(p, ctxt);
+            if (node == null || node.getId() == null) {
+                return ctxt.reportInputMismatch(this, "节点ID为空");
+            }
+            if (nodes.putIfAbsent(node.getId(), node) != null) {
+                if (owner == null) {
+                    return ctxt.reportInputMismatch(this, "重复的节点ID: %s", node.getId());
+                }
+                duplicates.add(node.getId());
+            }
+        }
+        if (owner != null && !duplicates.isEmpty()) {
+            owner.setDuplicateNodeIds(duplicates);
+        }
+        return nodes;
+    }
+
+    private static DAGGraph owner(JsonParser p) {
+        JsonStreamContext parent = p.getParsingContext().getParent();
+        return parent != null && parent.getCurrentValue() instanceof DAGGraph dag ? dag : null;
     }
 }
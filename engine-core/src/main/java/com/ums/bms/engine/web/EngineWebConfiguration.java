@@ -0,0 +1,109 @@
+package com.ums.bms.engine.web;
+
+import com.ums.bms.engine.Engine;
+import com.ums.bms.engine.EngineConfig;
+import com.ums.bms.engine.dispatch.FlowScheduler;
+import com.ums.bms.engine.dispatch.FlowSchedulerConfig;
+import com.ums.bms.engine.listener.ExecutionListener;
+import com.ums.bms.engine.metrics.FlowSchedulerMetrics;
+import com.ums.bms.engine.metrics.MicrometerExecutionListener;
+import com.ums.bms.engine.model.ExecutionMode;
+import com.ums.bms.engine.processor.ProcessorRegistry;
+import com.ums.bms.engine.repository.FlowRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST接口使用的引擎、流程仓库和流程调度器
+ * <p>
+ * 流程从{@code engine.flows.directory}加载并监听变更, 目录不存在时接口可用但没有流程.
+ *
+ * @author violet
+ * @since 2025/6/25
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+public class EngineWebConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ProcessorRegistry processorRegistry() {
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.registry();
+        return registry;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public FlowRepository flowRepository(@Value("${engine.flows.directory:flows}") Path directory,
+                                         ObjectProvider<Engine> engine) {
+        FlowRepository repository = new FlowRepository(directory);
+        // 流程被替换或删除后关闭旧执行计划节点的空闲处理器实例
+        repository.addRemovalListener(flow -> engine.ifAvailable(e -> e.getProcessorPool().evict(flow.plan())));
+        if (Files.isDirectory(directory)) {
+            repository.loadAll();
+            repository.watch();
+        } else {
+            log.warn("Flow directory {} does not exist, no flows loaded", directory.toAbsolutePath());
+        }
+        return repository;
+    }
+
+    @Bean(destroyMethod = "close")
+    public RunEventPublisher runEventPublisher(@Value("${engine.web.run-retention:1000}") int retention,
+                                               @Value("${engine.web.sse-timeout-millis:1800000}") long sseTimeoutMillis,
+                                               @Value("${engine.web.sse-buffer-size:256}") int sseBufferSize,
+                                               @Value("${engine.web.sse-sender-threads:2}") int sseSenderThreads) {
+        return new RunEventPublisher(retention, sseTimeoutMillis, sseBufferSize, sseSenderThreads);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public Engine engine(ProcessorRegistry registry, RunEventPublisher events,
+                         ObjectProvider<MicrometerExecutionListener> metrics,
+                         @Value("${engine.mode:SERIAL}") ExecutionMode mode) {
+        List<ExecutionListener> listeners = new ArrayList<>();
+        listeners.add(events);
+        metrics.ifAvailable(listeners::add);
+        return new Engine(registry, EngineConfig.builder()
+                .mode(mode)
+                .listener(ExecutionListener.composite(listeners))
+                .build());
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public FlowScheduler flowScheduler(Engine engine, ObjectProvider<MeterRegistry> meterRegistry,
+                                       @Value("${engine.scheduler.workers:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int workers,
+                                       @Value("${engine.scheduler.queue-capacity:1024}") int queueCapacity,
+                                       @Value("${engine.scheduler.tenant-queue-capacity:0}") int tenantQueueCapacity,
+                                       @Value("#{${engine.scheduler.tenant-weights:{:}}}") Map<String, Double> tenantWeights,
+                                       @Value("${engine.scheduler.known-tenants-only:false}") boolean knownTenantsOnly,
+                                       @Value("${engine.scheduler.max-tenants:1024}") int maxTenants,
+                                       @Value("${engine.scheduler.tenant-idle-timeout:10m}") Duration tenantIdleTimeout) {
+        FlowScheduler scheduler = new FlowScheduler(engine, FlowSchedulerConfig.builder()
+                .workers(workers)
+                .queueCapacity(queueCapacity)
+                .tenantQueueCapacity(tenantQueueCapacity)
+                .tenantWeights(new HashMap<>(tenantWeights))
+                .knownTenantsOnly(knownTenantsOnly)
+                .maxTenants(maxTenants)
+                .tenantIdleTimeout(tenantIdleTimeout)
+                .build());
+        meterRegistry.ifAvailable(new FlowSchedulerMetrics(scheduler)::bindTo);
+        return scheduler;
+    }
+}
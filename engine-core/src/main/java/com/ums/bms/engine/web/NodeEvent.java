@@ -0,0 +1,20 @@
+package com.ums.bms.engine.web;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * 推送给SSE订阅者的节点状态变化
+ *
+ * @param runId    运行ID
+ * @param node     节点ID
+ * @param status   节点状态
+ * @param resultType 节点结果的类型, 只推送保留到运行结束的节点(汇点、声明retain参数的节点和目标节点),
+ *                   结果本身通过运行状态查询获取
+ * @param error    失败原因
+ * @param millis   节点执行耗时, 开始事件为空
+ * @author violet
+ * @since 2025/6/25
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record NodeEvent(String runId, String node, String status, String resultType, String error, Long millis) {
+}
@@ -0,0 +1,113 @@
+package com.ums.bms.engine.web;
+
+import com.ums.bms.engine.dispatch.FlowScheduler;
+import com.ums.bms.engine.dispatch.RunHandle;
+import com.ums.bms.engine.dispatch.RunRequest;
+import com.ums.bms.engine.exception.RunRejectedException;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import com.ums.bms.engine.repository.CompiledFlow;
+import com.ums.bms.engine.repository.FlowRepository;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+
+/**
+ * 异步运行接口
+ * <p>
+ * 提交后立即返回运行ID, 运行在{@link FlowScheduler}的工作线程上执行, 请求线程不会等待运行结束.
+ * <ul>
+ *     <li>{@code POST /runs}: 提交运行, 返回202和运行状态; 队列已满时返回429</li>
+ *     <li>{@code GET /runs/{runId}}: 查询运行状态, 运行成功后包含结果</li>
+ *     <li>{@code GET /runs/{runId}/events}: 以SSE推送节点状态变化和结果</li>
+ *     <li>{@code DELETE /runs/{runId}}: 取消排队或执行中的运行, 运行已结束时返回409</li>
+ * </ul>
+ *
+ * @author violet
+ * @since 2025/6/25
+ */
+@RestController
+@RequestMapping("/runs")
+public class RunController {
+
+    private final FlowRepository flows;
+    private final FlowScheduler scheduler;
+    private final RunEventPublisher events;
+
+    public RunController(FlowRepository flows, FlowScheduler scheduler, RunEventPublisher events) {
+        this.flows = flows;
+        this.scheduler = scheduler;
+        this.events = events;
+    }
+
+    @PostMapping
+    public ResponseEntity<RunStatus> submit(@Valid @RequestBody RunSubmission submission) {
+        CompiledFlow flow = flows.get(submission.flowId(), submission.version());
+        if (flow == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Flow " + submission.flowId()
+                    + (submission.version() == null ? "" : ":" + submission.version()) + " is not loaded");
+        }
+        ExecutionPlan plan = flow.plan();
+        if (submission.targets() != null) {
+            for (String target : submission.targets()) {
+                if (plan.indexOf(target) < 0) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown target node: " + target);
+                }
+            }
+        }
+        RunHandle handle = scheduler.submit(new RunRequest(submission.tenant(), submission.priority(), plan,
+                submission.parameters(), submission.targets()));
+        events.track(handle);
+        return ResponseEntity.accepted()
+                .location(URI.create("/runs/" + handle.getRunId()))
+                .body(RunStatus.of(handle));
+    }
+
+    @GetMapping("/{runId}")
+    public RunStatus status(@PathVariable("runId") String runId) {
+        return RunStatus.of(handle(runId));
+    }
+
+    @GetMapping(path = "/{runId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable("runId") String runId) {
+        return events.subscribe(handle(runId));
+    }
+
+    @DeleteMapping("/{runId}")
+    public ResponseEntity<RunStatus> cancel(@PathVariable("runId") String runId) {
+        RunHandle handle = handle(runId);
+        if (!scheduler.cancel(runId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Run " + runId + " has already finished");
+        }
+        return ResponseEntity.accepted().body(RunStatus.of(handle));
+    }
+
+    @ExceptionHandler(RunRejectedException.class)
+    public ProblemDetail rejected(RunRejectedException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+    }
+
+    private RunHandle handle(String runId) {
+        RunHandle handle = events.get(runId);
+        if (handle == null) {
+            handle = scheduler.get(runId);
+        }
+        if (handle == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Run " + runId + " not found");
+        }
+        return handle;
+    }
+}
@@ -0,0 +1,277 @@
+package com.ums.bms.engine.web;
+
+import com.ums.bms.engine.dispatch.RunHandle;
+import com.ums.bms.engine.listener.ExecutionListener;
+import com.ums.bms.engine.listener.NodeTiming;
+import com.ums.bms.engine.runtime.ExecutionInstance;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 跟踪通过REST接口提交的运行, 并把节点状态变化推送给SSE订阅者
+ * <p>
+ * 作为{@link ExecutionListener}在引擎的执行线程上只把事件放入每个订阅者的有界队列, 由专用的发送线程写入连接,
+ * 慢订阅者不会阻塞节点执行. 队列满时丢弃最早的节点事件并在下一次发送时以注释告知丢弃数量, 最终状态总会发送.
+ * 事件只携带状态和结果类型, 结果本身通过状态查询接口获取. 结束的运行保留最近{@code retention}个用于查询状态.
+ * <ul>
+ *     <li>{@code run}: 订阅时的当前状态以及运行结束时的最终状态, 最终状态之后连接关闭</li>
+ *     <li>{@code node}: 节点开始和结束</li>
+ * </ul>
+ *
+ * @author violet
+ * @since 2025/6/25
+ */
+@Slf4j
+public class RunEventPublisher implements ExecutionListener, AutoCloseable {
+    private static final String RUN_EVENT = "run";
+    private static final String NODE_EVENT = "node";
+    /* 每个订阅者默认缓冲的待发送事件数 */
+    private static final int DEFAULT_BUFFER_SIZE = 256;
+    private static final int DEFAULT_SENDER_THREADS = 2;
+
+    private final int retention;
+    private final long emitterTimeoutMillis;
+    private final int bufferSize;
+    private final ExecutorService sender;
+    /* 按提交顺序保存, 超过保留数时移除最早的已结束运行 */
+    private final Map<String, RunHandle> runs = new LinkedHashMap<>();
+    private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    /**
+     * @param retention            保留的运行数
+     * @param emitterTimeoutMillis SSE连接超时时间
+     */
+    public RunEventPublisher(int retention, long emitterTimeoutMillis) {
+        this(retention, emitterTimeoutMillis, DEFAULT_BUFFER_SIZE, DEFAULT_SENDER_THREADS);
+    }
+
+    /**
+     * @param retention            保留的运行数
+     * @param emitterTimeoutMillis SSE连接超时时间
+     * @param bufferSize           每个订阅者缓冲的待发送事件数
+     * @param senderThreads        发送线程数
+     */
+    public RunEventPublisher(int retention, long emitterTimeoutMillis, int bufferSize, int senderThreads) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.bufferSize = bufferSize;
+        this.sender = Executors.newFixedThreadPool(senderThreads, threadFactory());
+        this.retention = retention;
+    }
+
+    /**
+     * 跟踪运行, 用于按运行ID查询状态. 超过保留数时从最早的运行开始移除已结束的运行, 跳过仍在执行的运行
+     */
+    public void track(RunHandle handle) {
+        synchronized (runs) {
+            runs.put(handle.getRunId(), handle);
+            Iterator<RunHandle> iterator = runs.values().iterator();
+            while (runs.size() > retention && iterator.hasNext()) {
+                if (iterator.next().getState().isTerminal()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * 查找跟踪的运行
+     *
+     * @return 运行句柄, 不存在或已被移除时为空
+     */
+    public RunHandle get(String runId) {
+        synchronized (runs) {
+            return runs.get(runId);
+        }
+    }
+
+    /**
+     * 订阅运行的事件, 先推送当前状态, 运行结束时推送最终状态后关闭; 运行已结束时只推送最终状态
+     */
+    public SseEmitter subscribe(RunHandle handle) {
+        Subscriber subscriber = new Subscriber(handle.getRunId(), new SseEmitter(emitterTimeoutMillis));
+        if (!handle.getState().isTerminal()) {
+            subscribers.computeIfAbsent(handle.getRunId(), key -> new CopyOnWriteArrayList<>()).add(subscriber);
+            subscriber.emitter.onCompletion(subscriber::close);
+            subscriber.emitter.onTimeout(subscriber::close);
+            subscriber.emitter.onError(error -> subscriber.close());
+            subscriber.offer(RUN_EVENT, () -> RunStatus.summary(handle), false);
+        }
+        // 运行已结束时立即在当前线程回调
+        handle.result().whenComplete((instance, error) -> {
+            unsubscribe(subscriber);
+            subscriber.offer(RUN_EVENT, () -> RunStatus.summary(handle), true);
+        });
+        return subscriber.emitter;
+    }
+
+    @Override
+    public void nodeStarted(ExecutionInstance instance, int ordinal) {
+        List<Subscriber> targets = subscribers.get(instance.getRunId());
+        if (targets == null) {
+            return;
+        }
+        NodeEvent event = new NodeEvent(instance.getRunId(), instance.getPlan().node(ordinal).getId(),
+                instance.getStatus(ordinal).name(), null, null, null);
+        publish(targets, event);
+    }
+
+    @Override
+    public void nodeFinished(ExecutionInstance instance, int ordinal, NodeTiming timing, Object result, Throwable error) {
+        List<Subscriber> targets = subscribers.get(instance.getRunId());
+        if (targets == null) {
+            return;
+        }
+        Long millis = timing == null ? null : TimeUnit.NANOSECONDS.toMillis(timing.endNanos() - timing.startNanos());
+        String resultType = result != null && instance.retained(ordinal) ? result.getClass().getSimpleName() : null;
+        NodeEvent event = new NodeEvent(instance.getRunId(), instance.getPlan().node(ordinal).getId(),
+                instance.getStatus(ordinal).name(), resultType, error == null ? null : error.getMessage(), millis);
+        publish(targets, event);
+    }
+
+    /**
+     * 停止发送线程, 未发送的事件被丢弃
+     */
+    @Override
+    public void close() {
+        sender.shutdownNow();
+    }
+
+    private static void publish(List<Subscriber> targets, NodeEvent event) {
+        for (Subscriber subscriber : targets) {
+            subscriber.offer(NODE_EVENT, () -> event, false);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.runId, (key, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "run-events-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 待发送的事件, 数据在发送线程上生成
+     */
+    private record Pending(String name, Supplier<?> data, boolean last) {
+    }
+
+    /**
+     * 一个SSE连接及其待发送队列, 同一时刻最多一个发送任务在执行
+     */
+    private final class Subscriber implements Runnable {
+        private final String runId;
+        private final SseEmitter emitter;
+        /* 以下状态由this保护 */
+        private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+        private boolean draining;
+        /* 已放入最终事件或连接已关闭, 不再接收事件 */
+        private boolean closed;
+        private int dropped;
+
+        private Subscriber(String runId, SseEmitter emitter) {
+            this.runId = runId;
+            this.emitter = emitter;
+        }
+
+        /**
+         * 放入事件并在需要时调度发送, 不阻塞调用线程
+         *
+         * @param last 最终事件, 发送后关闭连接, 队列满时也不会被丢弃
+         */
+        void offer(String name, Supplier<?> data, boolean last) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (!last && pending.size() >= bufferSize) {
+                    // 慢订阅者丢弃最早的事件, 最终状态包含所有节点的状态
+                    pending.pollFirst();
+                    dropped++;
+                }
+                pending.addLast(new Pending(name, data, last));
+                closed = last;
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                sender.execute(this);
+            } catch (RejectedExecutionException e) {
+                // 发布器已关闭
+                close();
+                emitter.complete();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Pending next;
+                int skipped;
+                synchronized (this) {
+                    next = pending.pollFirst();
+                    if (next == null) {
+                        draining = false;
+                        return;
+                    }
+                    skipped = dropped;
+                    dropped = 0;
+                }
+                try {
+                    if (skipped > 0) {
+                        emitter.send(SseEmitter.event().comment("dropped " + skipped + " events"));
+                    }
+                    emitter.send(SseEmitter.event().name(next.name()).data(next.data().get()));
+                    if (next.last()) {
+                        emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // 客户端断开或连接已关闭, 不影响运行
+                    log.debug("Dropping SSE subscriber of run {}: {}", runId, e.getMessage());
+                    close();
+                    emitter.completeWithError(e);
+                }
+            }
+        }
+
+        /**
+         * 连接结束, 丢弃未发送的事件
+         */
+        void close() {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+            unsubscribe(this);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.ums.bms.engine.web;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ums.bms.engine.dispatch.RunHandle;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import com.ums.bms.engine.runtime.ExecutionInstance;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 运行状态
+ *
+ * @param runId      运行ID
+ * @param flowId     流程ID
+ * @param version    流程版本
+ * @param tenant     租户
+ * @param state      运行状态
+ * @param queueMillis 排队时间
+ * @param nodes      节点状态, 开始执行前为空
+ * @param results    运行结果, 只在运行成功后返回
+ * @param error      失败原因
+ * @author violet
+ * @since 2025/6/25
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RunStatus(String runId, String flowId, String version, String tenant, RunHandle.State state,
+                        long queueMillis, Map<String, String> nodes, Map<String, Object> results, String error) {
+
+    public static RunStatus of(RunHandle handle) {
+        return of(handle, true);
+    }
+
+    /**
+     * 不带运行结果的状态, 用于事件推送
+     */
+    public static RunStatus summary(RunHandle handle) {
+        return of(handle, false);
+    }
+
+    private static RunStatus of(RunHandle handle, boolean withResults) {
+        ExecutionPlan plan = handle.getRequest().plan();
+        ExecutionInstance instance = handle.getInstance();
+        // 先读状态再读结果, 状态为SUCCEEDED时结果已完成
+        RunHandle.State state = handle.getState();
+        Map<String, String> nodes = null;
+        if (instance != null) {
+            nodes = new LinkedHashMap<>();
+            for (int i = 0; i < plan.size(); i++) {
+                nodes.put(plan.node(i).getId(), instance.getStatus(i).name());
+            }
+        }
+        Map<String, Object> results = withResults && state == RunHandle.State.SUCCEEDED && instance != null
+                ? instance.getContext().getNodeResults()
+                : null;
+        return new RunStatus(handle.getRunId(), plan.flowId(), plan.version(), handle.getTenant(), state,
+                TimeUnit.NANOSECONDS.toMillis(handle.getQueueNanos()), nodes, results, error(handle));
+    }
+
+    private static String error(RunHandle handle) {
+        if (!handle.result().isCompletedExceptionally()) {
+            return null;
+        }
+        try {
+            handle.result().join();
+            return null;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+    }
+}
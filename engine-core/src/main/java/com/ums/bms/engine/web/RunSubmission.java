@@ -0,0 +1,22 @@
+package com.ums.bms.engine.web;
+
+import jakarta.validation.constraints.NotBlank;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 提交运行的请求体
+ *
+ * @param flowId     流程ID
+ * @param version    流程版本, 为空时使用最新版本
+ * @param tenant     租户, 为空时使用默认租户
+ * @param priority   租户内的优先级
+ * @param parameters 覆盖的全局参数
+ * @param targets    目标节点ID, 为空时执行所有节点
+ * @author violet
+ * @since 2025/6/25
+ */
+public record RunSubmission(@NotBlank String flowId, String version, String tenant, int priority,
+                            Map<String, Object> parameters, Set<String> targets) {
+}
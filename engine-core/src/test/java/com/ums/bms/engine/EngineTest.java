@@ -0,0 +1,336 @@
+package com.ums.bms.engine;
+
+import com.ums.bms.engine.model.Context;
+import com.ums.bms.engine.model.ExecutionMode;
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.model.NodeType;
+import com.ums.bms.engine.parser.FlowConfig;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import com.ums.bms.engine.processor.Processor;
+import com.ums.bms.engine.processor.ProcessorRegistry;
+import com.ums.bms.engine.processor.ProcessorScope;
+import com.ums.bms.engine.processor.ScopeType;
+import com.ums.bms.engine.runtime.ExecutionInstance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.ums.bms.engine.TestFlows.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/5/7
+ */
+public class EngineTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_SerialMode_RunsProcessorsInDependencyOrder() {
+        // Arrange
+        Engine engine = new Engine(registry());
+
+        // Act
+        Map<String, Object> results = engine.execute(flow());
+
+        // Assert
+        assertEquals(Map.of("sink", "input-1,input-2"), results);
+    }
+
+    @Test
+    void execute_ParallelMode_RunsProcessorsInDependencyOrder() {
+        // Arrange
+        Engine engine = new Engine(registry(), ExecutionMode.PARALLEL, executor);
+
+        // Act
+        Map<String, Object> results = engine.execute(flow());
+
+        // Assert
+        assertEquals(Map.of("sink", "input-1,input-2"), results);
+    }
+
+    @Test
+    void execute_RetainParameter_KeepsIntermediateResult() {
+        // Arrange
+        FlowConfig flow = flow();
+        flow.getDag().getNode("operator-1").setParameters(Map.of("suffix", "-1", ExecutionPlan.RETAIN, "true"));
+
+        // Act
+        Map<String, Object> results = new Engine(registry(), ExecutionMode.PARALLEL, executor).execute(flow);
+
+        // Assert
+        assertEquals(Map.of("operator-1", "input-1", "sink", "input-1,input-2"), results);
+    }
+
+    @Test
+    void execute_TargetNodes_RunsOnlyAncestorClosure() {
+        // Arrange
+        Engine engine = new Engine(registry(), ExecutionMode.PARALLEL, executor);
+        ExecutionPlan plan = engine.compile(flow());
+
+        // Act
+        ExecutionInstance instance = engine.run(plan, null, Set.of("operator-1"));
+
+        // Assert
+        assertEquals(Map.of("operator-1", "input-1"), instance.getContext().getNodeResults());
+        assertEquals(Node.NodeStatus.COMPLETED, instance.getStatus("file-input"));
+        assertEquals(Node.NodeStatus.SKIPPED, instance.getStatus("operator-2"));
+        assertEquals(Node.NodeStatus.SKIPPED, instance.getStatus("sink"));
+        assertTrue(instance.isCompleted());
+    }
+
+    @Test
+    void execute_UnknownTargetNode_ThrowsException() {
+        // Arrange
+        Engine engine = new Engine(registry());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> engine.execute(flow(), Set.of("ghost")));
+    }
+
+    @Test
+    void execute_FalseCondition_SkipsBranch() {
+        // Arrange
+        FlowConfig flow = flow();
+        flow.getDag().getNode("operator-1").setCondition("params['branch'] == 'one' and input == 'input'");
+        flow.getDag().getNode("operator-2").setCondition("params['branch'] == 'two'");
+        Engine engine = new Engine(registry(), ExecutionMode.PARALLEL, executor);
+        ExecutionPlan plan = engine.compile(flow);
+
+        // Act
+        ExecutionInstance instance = engine.run(plan, Map.of("branch", "two"));
+
+        // Assert
+        assertEquals(Node.NodeStatus.SKIPPED, instance.getStatus("operator-1"));
+        assertEquals(Node.NodeStatus.COMPLETED, instance.getStatus("operator-2"));
+        assertEquals("null,input-2", instance.getContext().getNodeResult("sink"));
+    }
+
+    @Test
+    void execute_AllDepsSkipped_PropagatesSkipped() {
+        // Arrange
+        FlowConfig flow = flow();
+        flow.getDag().getNode("operator-1").setCondition("params['branch'] == 'one'");
+        flow.getDag().getNode("operator-2").setCondition("params['branch'] == 'two'");
+
+        // Act
+        ExecutionInstance instance = new Engine(registry()).run(ExecutionPlan.compile(flow), Map.of("branch", "none"));
+
+        // Assert
+        assertEquals(Node.NodeStatus.COMPLETED, instance.getStatus("file-input"));
+        assertEquals(Node.NodeStatus.SKIPPED, instance.getStatus("operator-1"));
+        assertEquals(Node.NodeStatus.SKIPPED, instance.getStatus("operator-2"));
+        assertEquals(Node.NodeStatus.SKIPPED, instance.getStatus("sink"));
+        assertTrue(instance.getContext().getNodeResults().isEmpty());
+        assertTrue(instance.isCompleted());
+    }
+
+    @Test
+    void execute_ReleaseDisabled_KeepsAllResults() {
+        // Arrange
+        Engine engine = new Engine(registry(), EngineConfig.builder().releaseResults(false).build());
+
+        // Act
+        Map<String, Object> results = engine.execute(flow());
+
+        // Assert
+        assertEquals("input", results.get("file-input"));
+        assertEquals("input-1", results.get("operator-1"));
+        assertEquals("input-2", results.get("operator-2"));
+        assertEquals("input-1,input-2", results.get("sink"));
+    }
+
+    @Test
+    void execute_VirtualModeFromFlowConfig_RunsProcessorsInDependencyOrder() {
+        // Arrange
+        FlowConfig flow = flow();
+        flow.setExecutionMode(ExecutionMode.VIRTUAL);
+        Engine engine = new Engine(registry(), EngineConfig.builder()
+                .processorConcurrencyOverrides(Map.of("suffix", 1))
+                .build());
+
+        // Act
+        Map<String, Object> results = engine.execute(flow);
+
+        // Assert
+        assertEquals("input-1,input-2", results.get("sink"));
+    }
+
+    @Test
+    void close_VirtualMode_RejectsFurtherRuns() {
+        // Arrange
+        FlowConfig flow = flow();
+        flow.setExecutionMode(ExecutionMode.VIRTUAL);
+        Engine engine = new Engine(registry());
+        engine.execute(flow);
+
+        // Act
+        engine.close();
+
+        // Assert
+        assertThrows(IllegalStateException.class, () -> engine.execute(flow));
+    }
+
+    @Test
+    void run_SamePlanConcurrently_KeepsRunStateIsolated() throws Exception {
+        // Arrange
+        ProcessorRegistry registry = registry();
+        registry.register("source", (Processor<Object>) context -> context.getGlobalParameter("input"));
+        Engine engine = new Engine(registry);
+        ExecutionPlan plan = engine.compile(flow());
+        List<Future<ExecutionInstance>> runs = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 32; i++) {
+            Map<String, Object> parameters = Map.of("input", "run" + i);
+            runs.add(executor.submit(() -> engine.run(plan, parameters)));
+        }
+
+        // Assert
+        Set<String> runIds = new HashSet<>();
+        for (int i = 0; i < runs.size(); i++) {
+            ExecutionInstance instance = runs.get(i).get(10, TimeUnit.SECONDS);
+            runIds.add(instance.getRunId());
+            assertTrue(instance.isCompleted());
+            assertEquals(Node.NodeStatus.COMPLETED, instance.getStatus("sink"));
+            assertEquals("run" + i + "-1,run" + i + "-2", instance.getContext().getNodeResult("sink"));
+        }
+        assertEquals(32, runIds.size());
+    }
+
+    @Test
+    void execute_UnknownProcessor_ThrowsException() {
+        // Arrange
+        FlowConfig flow = flow();
+        flow.getDag().getNode("sink").setProcessor("missing");
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> new Engine(registry()).execute(flow));
+        assertEquals("Error executing node: sink", exception.getMessage());
+    }
+
+    @Test
+    void run_CancelledInParallelMode_ThrowsCancellation() throws Exception {
+        assertCancelled(ExecutionMode.PARALLEL);
+    }
+
+    @Test
+    void run_CancelledInPriorityMode_ThrowsCancellation() throws Exception {
+        assertCancelled(ExecutionMode.PRIORITY);
+    }
+
+    @Test
+    void run_CancelledInVirtualMode_ThrowsCancellation() throws Exception {
+        assertCancelled(ExecutionMode.VIRTUAL);
+    }
+
+    /**
+     * 在链a→b中a执行时取消运行, 运行应以取消结束而不是挂起
+     */
+    private void assertCancelled(ExecutionMode mode) throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> executed = new CopyOnWriteArrayList<>();
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("block", (Processor<String>) context -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return "a";
+        });
+        registry.register("record", (Processor<String>) context -> {
+            executed.add("b");
+            return "b";
+        });
+        Engine engine = new Engine(registry, EngineConfig.builder().mode(mode).build());
+        ExecutionInstance instance = new ExecutionInstance(
+                engine.compile(TestFlows.flow("cancel-flow", node("a", "block"), node("b", "record", "a"))), Map.of());
+        Future<?> run = executor.submit(() -> engine.run(instance));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        instance.cancel();
+        release.countDown();
+
+        // Assert
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> run.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(CancellationException.class, exception.getCause());
+        assertTrue(executed.isEmpty());
+        engine.close();
+    }
+
+    private static ProcessorRegistry registry() {
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("source", (Processor<String>) context -> "input");
+        registry.register("suffix", SuffixProcessor.class, SuffixProcessor::new);
+        registry.register("join", JoinProcessor.class, JoinProcessor::new);
+        return registry;
+    }
+
+    static FlowConfig flow() {
+        return TestFlows.flow("test-flow",
+                node("file-input", NodeType.SOURCE, "source"),
+                withParameters(node("operator-1", "suffix", "file-input"), Map.of("suffix", "-1")),
+                withParameters(node("operator-2", "suffix", "file-input"), Map.of("suffix", "-2")),
+                node("sink", NodeType.SINK, "join", "operator-1", "operator-2"));
+    }
+
+    /**
+     * 节点作用域处理器: 初始化时保存节点参数
+     */
+    @ProcessorScope(ScopeType.NODE)
+    static class SuffixProcessor implements Processor<String> {
+        private Node node;
+        private String suffix;
+
+        @Override
+        public void initial(Node node, Context context) {
+            this.node = node;
+            this.suffix = (String) node.getParameter("suffix");
+        }
+
+        @Override
+        public String process(Context context) {
+            return context.getPrevResult(node) + suffix;
+        }
+    }
+
+    @ProcessorScope(ScopeType.RUN)
+    static class JoinProcessor implements Processor<String> {
+        private Node node;
+
+        @Override
+        public void initial(Node node, Context context) {
+            this.node = node;
+        }
+
+        @Override
+        public String process(Context context) {
+            return context.getNodeResult(node.getDeps().get(0)) + "," + context.getNodeResult(node.getDeps().get(1));
+        }
+    }
+}
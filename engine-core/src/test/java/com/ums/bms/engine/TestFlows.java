@@ -0,0 +1,92 @@
+package com.ums.bms.engine;
+
+import com.ums.bms.engine.model.DAGGraph;
+import com.ums.bms.engine.model.ExecutionMode;
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.model.NodeType;
+import com.ums.bms.engine.parser.FlowConfig;
+import com.ums.bms.engine.plan.ExecutionPlan;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 测试共用的节点、DAG和流程构造方法
+ *
+ * @author violet
+ * @since 2025/6/26
+ */
+public final class TestFlows {
+    public static final String VERSION = "1";
+
+    private TestFlows() {
+    }
+
+    /**
+     * 处理器节点, 名称与ID相同
+     *
+     * @param id        节点ID
+     * @param processor 处理器
+     * @param deps      依赖的节点ID
+     */
+    public static Node node(String id, String processor, String... deps) {
+        return node(id, NodeType.PROCESSOR, processor, deps);
+    }
+
+    public static Node node(String id, NodeType type, String processor, String... deps) {
+        Node node = new Node();
+        node.setId(id);
+        node.setName(id);
+        node.setType(type);
+        node.setProcessor(processor);
+        node.setDeps(List.of(deps));
+        return node;
+    }
+
+    /**
+     * 没有处理器的节点, 用于只编译执行计划或校验DAG的测试
+     */
+    public static Node vertex(String id, String... deps) {
+        return node(id, NodeType.PROCESSOR, null, deps);
+    }
+
+    /**
+     * 设置节点参数并返回节点, 便于在流程定义中内联
+     */
+    public static Node withParameters(Node node, Map<String, Object> parameters) {
+        node.setParameters(parameters);
+        return node;
+    }
+
+    /**
+     * 按给定顺序组成DAG
+     */
+    public static DAGGraph dag(Node... nodes) {
+        Map<String, Node> map = new LinkedHashMap<>();
+        for (Node node : nodes) {
+            map.put(node.getId(), node);
+        }
+        DAGGraph dag = new DAGGraph();
+        dag.setNodes(map);
+        return dag;
+    }
+
+    public static ExecutionPlan plan(Node... nodes) {
+        return ExecutionPlan.compile(dag(nodes));
+    }
+
+    /**
+     * 版本为{@link #VERSION}的流程, 名称与ID相同
+     */
+    public static FlowConfig flow(String id, Node... nodes) {
+        return flow(id, null, nodes);
+    }
+
+    /**
+     * @param mode 执行模式, 为空时使用引擎默认模式
+     */
+    public static FlowConfig flow(String id, ExecutionMode mode, Node... nodes) {
+        return FlowConfig.builder().id(id).name(id).version(VERSION).executionMode(mode).dag(dag(nodes)).build();
+    }
+}
@@ -0,0 +1,124 @@
+package com.ums.bms.engine.bulkhead;
+
+import com.ums.bms.engine.model.Context;
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import com.ums.bms.engine.processor.Processor;
+import com.ums.bms.engine.processor.ProcessorRegistry;
+import com.ums.bms.engine.processor.ResourceClass;
+import com.ums.bms.engine.scheduler.ParallelScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ums.bms.engine.TestFlows.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/6/19
+ */
+public class BulkheadRegistryTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final BulkheadRegistry bulkheads = new BulkheadRegistry(registry(), Map.of("jdbc", 3), 5);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+        bulkheads.close();
+    }
+
+    @Test
+    void bulkhead_AnnotationParameterAndConfig_ResolvesLimitsInPriorityOrder() {
+        // Arrange
+        Node annotated = node("crm", "crm");
+        Node overridden = node("crm-batch", "crm");
+        overridden.setParameters(Map.of(BulkheadRegistry.RESOURCE_CLASS, "batch", BulkheadRegistry.MAX_CONCURRENCY, 2));
+        Node configured = vertex("jdbc");
+        configured.setParameters(Map.of(BulkheadRegistry.RESOURCE_CLASS, "jdbc", BulkheadRegistry.MAX_CONCURRENCY, 9));
+        ExecutionPlan plan = plan(annotated, overridden, configured, vertex("plain"));
+
+        // Act
+        Bulkhead crm = bulkheads.bulkhead(plan, plan.indexOf("crm"));
+        Bulkhead batch = bulkheads.bulkhead(plan, plan.indexOf("crm-batch"));
+        Bulkhead jdbc = bulkheads.bulkhead(plan, plan.indexOf("jdbc"));
+
+        // Assert
+        assertEquals("crm-api", crm.getName());
+        assertEquals(4, crm.getMaxConcurrency());
+        assertEquals("batch", batch.getName());
+        assertEquals(2, batch.getMaxConcurrency());
+        assertEquals(3, jdbc.getMaxConcurrency());
+        assertNull(bulkheads.bulkhead(plan, plan.indexOf("plain")));
+        assertSame(crm, bulkheads.bulkhead("crm-api", 0));
+    }
+
+    @Test
+    void schedule_SaturatedBulkhead_CapsClassAndLeavesOtherNodesRunning() throws InterruptedException {
+        // Arrange
+        Node[] nodes = new Node[12];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = vertex("n-" + i);
+            if (i < 8) {
+                nodes[i].setParameters(Map.of(BulkheadRegistry.RESOURCE_CLASS, "slow", BulkheadRegistry.MAX_CONCURRENCY, 2));
+            }
+        }
+        ExecutionPlan plan = plan(nodes);
+        AtomicInteger slowRunning = new AtomicInteger();
+        AtomicInteger maxSlow = new AtomicInteger();
+        AtomicInteger fastOnPool = new AtomicInteger();
+
+        // Act
+        new ParallelScheduler(executor, bulkheads).schedule(plan, ordinal -> {
+        }, ordinal -> {
+            if (ordinal >= 8) {
+                if (!Thread.currentThread().getName().startsWith("bulkhead-")) {
+                    fastOnPool.incrementAndGet();
+                }
+                return;
+            }
+            maxSlow.accumulateAndGet(slowRunning.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            slowRunning.decrementAndGet();
+        });
+
+        // Assert
+        // 调度完成由隔离舱线程上的最后一个节点触发, 统计在节点任务返回后才更新
+        BulkheadStats stats = bulkheads.stats().get(0);
+        for (int i = 0; i < 100 && stats.completed() < 8; i++) {
+            Thread.sleep(10);
+            stats = bulkheads.stats().get(0);
+        }
+        assertEquals(2, maxSlow.get());
+        assertEquals(4, fastOnPool.get());
+        assertEquals("slow", stats.name());
+        assertEquals(8, stats.completed());
+        assertEquals(2, stats.peakActive());
+        assertEquals(0, stats.active());
+        assertEquals(0, stats.waiting());
+        assertTrue(stats.waitNanos() > 0);
+    }
+
+    private static ProcessorRegistry registry() {
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("crm", CrmProcessor.class, CrmProcessor::new);
+        return registry;
+    }
+
+    @ResourceClass(value = "crm-api", maxConcurrency = 4)
+    static class CrmProcessor implements Processor<String> {
+        @Override
+        public String process(Context context) {
+            return "crm";
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.ums.bms.engine.checkpoint;
+
+import com.ums.bms.engine.model.Node;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/6/9
+ */
+public class FileCheckpointStoreTest {
+
+    @TempDir
+    Path checkpointDir;
+
+    @Test
+    void load_AppendedRecords_LastRecordPerNodeWins() {
+        // Arrange
+        FileCheckpointStore store = new FileCheckpointStore(checkpointDir);
+        store.begin(new RunHeader("run-1", "flow", "1", Map.of("region", "eu"), null));
+        store.append("run-1", new NodeRecord("a", Node.NodeStatus.COMPLETED, List.of("x", "y")));
+        store.append("run-1", new NodeRecord("b", Node.NodeStatus.FAILED, null));
+        store.finish("run-1", false);
+        store.resume("run-1");
+        store.append("run-1", new NodeRecord("b", Node.NodeStatus.COMPLETED, 42));
+
+        // Act
+        RunCheckpoint checkpoint = store.load("run-1");
+
+        // Assert
+        assertEquals("flow", checkpoint.header().flowId());
+        assertEquals(Map.of("region", "eu"), checkpoint.header().parameters());
+        assertEquals(List.of("x", "y"), checkpoint.nodes().get("a").result());
+        assertEquals(Node.NodeStatus.COMPLETED, checkpoint.nodes().get("b").status());
+        assertEquals(42, checkpoint.nodes().get("b").result());
+    }
+
+    @Test
+    void load_TornTail_IgnoresIncompleteFrame() throws IOException {
+        // Arrange
+        FileCheckpointStore store = new FileCheckpointStore(checkpointDir);
+        store.begin(new RunHeader("run-1", "flow", "1", Map.of(), null));
+        store.append("run-1", new NodeRecord("a", Node.NodeStatus.COMPLETED, "A"));
+        store.finish("run-1", false);
+        Files.write(checkpointDir.resolve("run-1.ckpt"), new byte[]{0, 0, 1, 0, 7, 7}, StandardOpenOption.APPEND);
+
+        // Act
+        RunCheckpoint checkpoint = store.load("run-1");
+
+        // Assert
+        assertEquals(1, checkpoint.nodes().size());
+        assertEquals("A", checkpoint.nodes().get("a").result());
+    }
+
+    @Test
+    void append_NotSerializableResult_SkipsRecord() {
+        // Arrange
+        FileCheckpointStore store = new FileCheckpointStore(checkpointDir);
+        store.begin(new RunHeader("run-1", "flow", "1", Map.of(), null));
+
+        // Act
+        store.append("run-1", new NodeRecord("a", Node.NodeStatus.COMPLETED, new Object()));
+
+        // Assert
+        assertTrue(store.load("run-1").nodes().isEmpty());
+    }
+
+    @Test
+    void finish_Succeeded_DeletesCheckpoint() {
+        // Arrange
+        FileCheckpointStore store = new FileCheckpointStore(checkpointDir);
+        store.begin(new RunHeader("run-1", "flow", "1", Map.of(), null));
+
+        // Act
+        store.finish("run-1", true);
+
+        // Assert
+        assertNull(store.load("run-1"));
+    }
+
+    @Test
+    void begin_RunIdEscapingDirectory_Throws() {
+        // Arrange
+        FileCheckpointStore store = new FileCheckpointStore(checkpointDir);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> store.begin(new RunHeader("../escaped", "flow", "1", Map.of(), null)));
+        assertThrows(IllegalArgumentException.class, () -> store.load("a/b"));
+        assertFalse(Files.exists(checkpointDir.resolveSibling("escaped.ckpt")));
+    }
+
+    @Test
+    void load_ResultClassNotAllowed_DropsRecord() {
+        // Arrange
+        FileCheckpointStore store = new FileCheckpointStore(checkpointDir);
+        store.begin(new RunHeader("run-1", "flow", "1", Map.of(), null));
+        store.append("run-1", new NodeRecord("a", Node.NodeStatus.COMPLETED, new Payload("A")));
+        store.append("run-1", new NodeRecord("b", Node.NodeStatus.COMPLETED, "B"));
+        store.finish("run-1", false);
+        FileCheckpointStore allowing = new FileCheckpointStore(checkpointDir, true, Payload.class.getName());
+
+        // Act
+        RunCheckpoint checkpoint = store.load("run-1");
+        RunCheckpoint allowed = allowing.load("run-1");
+
+        // Assert
+        assertEquals(List.of("b"), List.copyOf(checkpoint.nodes().keySet()));
+        assertEquals(new Payload("A"), allowed.nodes().get("a").result());
+    }
+
+    record Payload(String value) implements Serializable {
+    }
+}
@@ -0,0 +1,84 @@
+package com.ums.bms.engine.checkpoint;
+
+import com.ums.bms.engine.Engine;
+import com.ums.bms.engine.EngineConfig;
+import com.ums.bms.engine.TestFlows;
+import com.ums.bms.engine.parser.FlowConfig;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import com.ums.bms.engine.processor.Processor;
+import com.ums.bms.engine.processor.ProcessorRegistry;
+import com.ums.bms.engine.runtime.ExecutionInstance;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ums.bms.engine.TestFlows.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/6/9
+ */
+public class ResumeTest {
+
+    @TempDir
+    Path checkpointDir;
+
+    @Test
+    void resume_FailedRun_ReExecutesOnlyUnfinishedNodes() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        AtomicBoolean broken = new AtomicBoolean(true);
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("load", (Processor<String>) context -> {
+            loads.incrementAndGet();
+            return "data-" + context.getGlobalParameter("region");
+        });
+        registry.register("transform", (Processor<String>) context -> {
+            if (broken.get()) {
+                throw new IllegalStateException("broken");
+            }
+            return context.getNodeResult("source") + "-transformed";
+        });
+        registry.register("write", (Processor<String>) context -> context.getNodeResult("transform") + "-written");
+        FileCheckpointStore store = new FileCheckpointStore(checkpointDir);
+        Engine engine = new Engine(registry, EngineConfig.builder().checkpointStore(store).build());
+        ExecutionPlan plan = engine.compile(flow());
+        ExecutionInstance first = new ExecutionInstance("run-1", plan, Map.of("region", "eu"));
+        assertThrows(RuntimeException.class, () -> engine.run(first));
+        broken.set(false);
+
+        // Act
+        ExecutionInstance resumed = engine.resume("run-1", plan);
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals("data-eu-transformed-written", resumed.getContext().getNodeResult("sink"));
+        assertTrue(resumed.isCompleted());
+        assertNull(store.load("run-1"));
+    }
+
+    @Test
+    void resume_DifferentVersion_Throws() {
+        // Arrange
+        FileCheckpointStore store = new FileCheckpointStore(checkpointDir);
+        store.begin(new RunHeader("run-1", "resume-flow", "0", Map.of(), null));
+        store.finish("run-1", false);
+        Engine engine = new Engine(new ProcessorRegistry(), EngineConfig.builder().checkpointStore(store).build());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> engine.resume("run-1", engine.compile(flow())));
+        assertThrows(IllegalStateException.class, () -> engine.resume("missing", engine.compile(flow())));
+    }
+
+    private static FlowConfig flow() {
+        return TestFlows.flow("resume-flow",
+                node("source", "load"),
+                node("transform", "transform", "source"),
+                node("sink", "write", "transform"));
+    }
+}
@@ -0,0 +1,196 @@
+package com.ums.bms.engine.dispatch;
+
+import com.ums.bms.engine.Engine;
+import com.ums.bms.engine.TestFlows;
+import com.ums.bms.engine.exception.RunRejectedException;
+import com.ums.bms.engine.metrics.FlowSchedulerMetrics;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import com.ums.bms.engine.processor.Processor;
+import com.ums.bms.engine.processor.ProcessorRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.ums.bms.engine.TestFlows.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/6/23
+ */
+public class FlowSchedulerTest {
+
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private final List<String> order = Collections.synchronizedList(new ArrayList<>());
+    private final Engine engine = new Engine(registry());
+    private final ExecutionPlan gatePlan = plan("gate");
+    private final ExecutionPlan recordPlan = plan("record");
+    private FlowScheduler scheduler;
+
+    @AfterEach
+    void shutdown() {
+        gate.countDown();
+        scheduler.close();
+    }
+
+    @Test
+    void submit_WeightedTenants_SharesWorkersByWeight() throws Exception {
+        // Arrange
+        scheduler = new FlowScheduler(engine, FlowSchedulerConfig.builder()
+                .workers(1)
+                .tenantWeights(Map.of("b", 2.0))
+                .build());
+        scheduler.submit(RunRequest.of("gate", gatePlan, null));
+        List<RunHandle> handles = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            handles.add(scheduler.submit(RunRequest.of("a", recordPlan, Map.of("tenant", "a"))));
+        }
+        for (int i = 0; i < 4; i++) {
+            handles.add(scheduler.submit(RunRequest.of("b", recordPlan, Map.of("tenant", "b"))));
+        }
+
+        // Act
+        gate.countDown();
+        for (RunHandle handle : handles) {
+            handle.result().get(5, TimeUnit.SECONDS);
+        }
+
+        // Assert
+        assertEquals(List.of("a", "b", "b", "a", "b", "b", "a", "a"), order);
+        TenantStats a = scheduler.stats("a");
+        assertEquals(4, a.completed());
+        assertEquals(4, a.started());
+        assertTrue(a.averageQueueNanos() > 0);
+        assertTrue(a.throughput() > 0);
+        assertEquals(RunHandle.State.SUCCEEDED, handles.get(0).getState());
+    }
+
+    @Test
+    void submit_QueueFull_ShedsLowerPriorityAndRejectsEqualPriority() throws Exception {
+        // Arrange
+        scheduler = new FlowScheduler(engine, FlowSchedulerConfig.builder()
+                .workers(1)
+                .queueCapacity(2)
+                .build());
+        scheduler.submit(RunRequest.of("gate", gatePlan, null));
+        RunHandle first = scheduler.submit(RunRequest.of("a", recordPlan, Map.of("tenant", "a")));
+        RunHandle second = scheduler.submit(RunRequest.of("a", recordPlan, Map.of("tenant", "a")));
+
+        // Act
+        RunHandle urgent = scheduler.submit(new RunRequest("b", 10, recordPlan, Map.of("tenant", "b"), null));
+        RunRejectedException rejected = assertThrows(RunRejectedException.class,
+                () -> scheduler.submit(RunRequest.of("c", recordPlan, Map.of("tenant", "c"))));
+
+        // Assert
+        assertEquals(RunHandle.State.REJECTED, second.getState());
+        ExecutionException shed = assertThrows(ExecutionException.class, () -> second.result().get());
+        assertInstanceOf(RunRejectedException.class, shed.getCause());
+        assertTrue(rejected.getMessage().contains("queue is full"));
+        gate.countDown();
+        urgent.result().get(5, TimeUnit.SECONDS);
+        first.result().get(5, TimeUnit.SECONDS);
+        // 优先级只决定租户内的顺序和丢弃对象, 租户之间仍按公平排队
+        assertEquals(List.of("a", "b"), order);
+        assertEquals(1, scheduler.stats("a").rejected());
+        assertEquals(1, scheduler.stats("c").rejected());
+    }
+
+    @Test
+    void cancel_QueuedRun_RemovesItFromQueue() {
+        // Arrange
+        scheduler = new FlowScheduler(engine, FlowSchedulerConfig.builder().workers(1).build());
+        RunHandle running = scheduler.submit(RunRequest.of("gate", gatePlan, null));
+        RunHandle queued = scheduler.submit(RunRequest.of("a", recordPlan, Map.of("tenant", "a")));
+
+        // Act
+        boolean cancelled = scheduler.cancel(queued.getRunId());
+
+        // Assert
+        assertTrue(cancelled);
+        assertEquals(RunHandle.State.CANCELLED, queued.getState());
+        assertThrows(CancellationException.class, () -> queued.result().join());
+        assertNull(scheduler.get(queued.getRunId()));
+        assertSame(running, scheduler.get(running.getRunId()));
+        assertEquals(0, scheduler.stats("a").queued());
+    }
+
+    @Test
+    void submit_UnknownTenantWhenKnownOnly_Rejects() {
+        // Arrange
+        scheduler = new FlowScheduler(engine, FlowSchedulerConfig.builder()
+                .workers(1)
+                .tenantWeights(Map.of("a", 1.0))
+                .knownTenantsOnly(true)
+                .build());
+
+        // Act & Assert
+        assertThrows(RunRejectedException.class, () -> scheduler.submit(RunRequest.of("ghost", recordPlan, null)));
+        assertNull(scheduler.stats("ghost"));
+        assertNotNull(scheduler.submit(RunRequest.of("a", recordPlan, Map.of("tenant", "a"))));
+    }
+
+    @Test
+    void submit_TenantLimitReached_RejectsNewTenant() {
+        // Arrange
+        scheduler = new FlowScheduler(engine, FlowSchedulerConfig.builder().workers(1).maxTenants(1).build());
+        scheduler.submit(RunRequest.of("gate", gatePlan, null));
+
+        // Act & Assert
+        assertThrows(RunRejectedException.class, () -> scheduler.submit(RunRequest.of("a", recordPlan, null)));
+        assertEquals(1, scheduler.stats().size());
+    }
+
+    @Test
+    void submit_IdleTenantExpired_RemovesTenantAndMeters() throws Exception {
+        // Arrange
+        scheduler = new FlowScheduler(engine, FlowSchedulerConfig.builder()
+                .workers(1)
+                .tenantIdleTimeout(Duration.ZERO)
+                .build());
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        new FlowSchedulerMetrics(scheduler).bindTo(meters);
+        scheduler.submit(RunRequest.of("a", recordPlan, Map.of("tenant", "a"))).result().get(5, TimeUnit.SECONDS);
+        assertNotNull(meters.find("flow.scheduler.queued").tag("tenant", "a").gauge());
+
+        // Act
+        Thread.sleep(1);
+        scheduler.submit(RunRequest.of("b", recordPlan, Map.of("tenant", "b"))).result().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertNull(scheduler.stats("a"));
+        assertNull(meters.find("flow.scheduler.queued").tag("tenant", "a").gauge());
+        assertTrue(meters.find("flow.scheduler.runs").tag("tenant", "a").meters().isEmpty());
+    }
+
+    private ProcessorRegistry registry() {
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("gate", (Processor<String>) context -> {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "open";
+        });
+        registry.register("record", (Processor<String>) context -> {
+            String tenant = (String) context.getGlobalParameters().get("tenant");
+            order.add(tenant);
+            return tenant;
+        });
+        return registry;
+    }
+
+    private static ExecutionPlan plan(String processor) {
+        return TestFlows.plan(node(processor, processor));
+    }
+}
@@ -0,0 +1,86 @@
+package com.ums.bms.engine.jfr;
+
+import com.ums.bms.engine.Engine;
+import com.ums.bms.engine.TestFlows;
+import com.ums.bms.engine.model.Context;
+import com.ums.bms.engine.parser.FlowConfig;
+import com.ums.bms.engine.processor.Processor;
+import com.ums.bms.engine.processor.ProcessorRegistry;
+import com.ums.bms.engine.processor.ProcessorScope;
+import com.ums.bms.engine.processor.ScopeType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.ums.bms.engine.TestFlows.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/5/29
+ */
+public class JfrEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void execute_RecordingEnabled_EmitsFlowNodeAndProcessorEvents() throws Exception {
+        // Arrange
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("noop", (Processor<String>) context -> "ok");
+        registry.register("closing", ClosingProcessor.class, ClosingProcessor::new);
+        Engine engine = new Engine(registry);
+        Path file = tempDir.resolve("engine.jfr");
+
+        // Act
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("FlowRun", "NodeScheduled", "NodeExecuted", "ProcessorInitial",
+                    "ProcessorProcess", "ProcessorClose", "RegistryLoad")) {
+                recording.enable("com.ums.bms.engine." + name).withoutThreshold();
+            }
+            recording.start();
+            new ProcessorRegistry().registry();
+            engine.execute(flow());
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Assert
+        Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(file).stream()
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+        RecordedEvent run = events.get("com.ums.bms.engine.FlowRun").get(0);
+        assertEquals("jfr-flow", run.getString("flowId"));
+        assertEquals(2, run.getInt("nodeCount"));
+        assertFalse(run.getBoolean("failed"));
+        assertEquals(2, events.get("com.ums.bms.engine.NodeScheduled").size());
+        List<RecordedEvent> executed = events.get("com.ums.bms.engine.NodeExecuted");
+        assertEquals(2, executed.size());
+        assertTrue(executed.stream().allMatch(event -> "COMPLETED".equals(event.getString("status"))));
+        assertEquals(2, events.get("com.ums.bms.engine.ProcessorInitial").size());
+        assertEquals(2, events.get("com.ums.bms.engine.ProcessorProcess").size());
+        RecordedEvent close = events.get("com.ums.bms.engine.ProcessorClose").get(0);
+        assertEquals("sink", close.getString("nodeId"));
+        assertEquals("closing", close.getString("processor"));
+        assertEquals(1, events.get("com.ums.bms.engine.RegistryLoad").size());
+    }
+
+    private static FlowConfig flow() {
+        return TestFlows.flow("jfr-flow", node("source", "noop"), node("sink", "closing", "source"));
+    }
+
+    @ProcessorScope(ScopeType.RUN)
+    static class ClosingProcessor implements Processor<String> {
+        @Override
+        public String process(Context context) {
+            return "closed";
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.ums.bms.engine.memo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/6/5
+ */
+public class MemoStoreTest {
+
+    @TempDir
+    Path memoDir;
+
+    @Test
+    void put_OverCapacity_EvictsLeastRecentlyUsed() {
+        // Arrange
+        LruMemoStore store = new LruMemoStore(100);
+        store.put("a", new byte[40]);
+        store.put("b", new byte[40]);
+        store.get("a");
+
+        // Act
+        store.put("c", new byte[40]);
+
+        // Assert
+        assertNotNull(store.get("a"));
+        assertNull(store.get("b"));
+        assertNotNull(store.get("c"));
+        assertEquals(80, store.size());
+    }
+
+    @Test
+    void put_LargerThanCapacity_IsNotCached() {
+        // Arrange
+        LruMemoStore store = new LruMemoStore(100);
+
+        // Act
+        store.put("a", new byte[101]);
+
+        // Assert
+        assertNull(store.get("a"));
+        assertEquals(0, store.count());
+    }
+
+    @Test
+    void put_DiskStore_RoundTripsAcrossInstances() {
+        // Arrange
+        new DiskMemoStore(memoDir).put("abc", List.of("row-1", "row-2"));
+
+        // Act
+        Object cached = new DiskMemoStore(memoDir).get("abc");
+
+        // Assert
+        assertEquals(List.of("row-1", "row-2"), cached);
+    }
+
+    @Test
+    void get_CorruptFile_DiscardsAndMisses() throws IOException {
+        // Arrange
+        DiskMemoStore store = new DiskMemoStore(memoDir);
+        Files.write(memoDir.resolve("abc.memo"), new byte[]{1, 2, 3});
+
+        // Act
+        Object cached = store.get("abc");
+
+        // Assert
+        assertNull(cached);
+        assertFalse(Files.exists(memoDir.resolve("abc.memo")));
+    }
+
+    @Test
+    void put_NotSerializable_IsSkipped() throws IOException {
+        // Arrange
+        DiskMemoStore store = new DiskMemoStore(memoDir);
+
+        // Act
+        store.put("abc", new Object());
+
+        // Assert
+        assertNull(store.get("abc"));
+        try (var files = Files.list(memoDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
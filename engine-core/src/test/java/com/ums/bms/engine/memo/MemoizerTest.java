@@ -0,0 +1,148 @@
+package com.ums.bms.engine.memo;
+
+import com.ums.bms.engine.Engine;
+import com.ums.bms.engine.EngineConfig;
+import com.ums.bms.engine.TestFlows;
+import com.ums.bms.engine.model.Context;
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.parser.FlowConfig;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import com.ums.bms.engine.processor.Processor;
+import com.ums.bms.engine.processor.ProcessorRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ums.bms.engine.TestFlows.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/6/5
+ */
+public class MemoizerTest {
+
+    @Test
+    void execute_SameInputs_SkipsProcessOnSecondRun() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        Engine engine = engine(calls, new LruMemoStore(1024 * 1024));
+        ExecutionPlan plan = engine.compile(flow());
+
+        // Act
+        Map<String, Object> first = engine.execute(plan, Map.of("region", "eu"));
+        Map<String, Object> second = engine.execute(plan, Map.of("region", "eu"));
+
+        // Assert
+        assertEquals("EU-DATA", first.get("sink"));
+        assertEquals("EU-DATA", second.get("sink"));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_ChangedInput_Recomputes() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        Engine engine = engine(calls, new LruMemoStore(1024 * 1024));
+        ExecutionPlan plan = engine.compile(flow());
+
+        // Act
+        engine.execute(plan, Map.of("region", "eu"));
+        Map<String, Object> results = engine.execute(plan, Map.of("region", "us"));
+
+        // Assert
+        assertEquals("US-DATA", results.get("sink"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void key_IrrelevantGlobalChanged_KeepsKey() {
+        // Arrange
+        Memoizer memoizer = new Memoizer(new LruMemoStore(1024));
+        Node node = node("sink", "upper", "source");
+        node.setParameters(Map.of(Memoizer.MEMOIZE, true, Memoizer.MEMO_GLOBALS, "region"));
+        Context first = context(Map.of("region", "eu", "requestId", "1"));
+        Context second = context(Map.of("region", "eu", "requestId", "2"));
+
+        // Act
+        String firstKey = memoizer.key(node, first);
+        String secondKey = memoizer.key(node, second);
+
+        // Assert
+        assertNotNull(firstKey);
+        assertEquals(firstKey, secondKey);
+    }
+
+    @Test
+    void key_UnorderedMapInput_IsStable() {
+        // Arrange
+        Memoizer memoizer = new Memoizer(new LruMemoStore(1024));
+        Node node = node("sink", "upper", "source");
+        node.setParameters(Map.of(Memoizer.MEMOIZE, true));
+        Map<String, Object> forward = new LinkedHashMap<>();
+        forward.put("a", 1);
+        forward.put("b", List.of("x"));
+        Map<String, Object> backward = new LinkedHashMap<>();
+        backward.put("b", List.of("x"));
+        backward.put("a", 1);
+        Context first = new Context();
+        first.setNodeResult("source", forward);
+        Context second = new Context();
+        second.setNodeResult("source", backward);
+
+        // Act & Assert
+        assertEquals(memoizer.key(node, first), memoizer.key(node, second));
+    }
+
+    @Test
+    void key_NotMemoizedOrOpaqueInput_ReturnsNull() {
+        // Arrange
+        Memoizer memoizer = new Memoizer(new LruMemoStore(1024));
+        Node plain = node("plain", "upper", "source");
+        Node memoized = node("sink", "upper", "source");
+        memoized.setParameters(Map.of(Memoizer.MEMOIZE, true));
+        Context context = new Context();
+        context.setNodeResult("source", new Object());
+
+        // Act & Assert
+        assertNull(memoizer.key(plain, context));
+        assertNull(memoizer.key(memoized, context));
+    }
+
+    private static Engine engine(AtomicInteger calls, MemoStore store) {
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("load", (Processor<String>) context -> context.getGlobalParameter("region") + "-data");
+        registry.register("upper", new Processor<String>() {
+            private Node node;
+
+            @Override
+            public void initial(Node node, Context context) {
+                this.node = node;
+            }
+
+            @Override
+            public String process(Context context) {
+                calls.incrementAndGet();
+                return context.getPrevResult(node).toString().toUpperCase();
+            }
+        });
+        return new Engine(registry, EngineConfig.builder().memoStore(store).build());
+    }
+
+    private static Context context(Map<String, Object> globals) {
+        Context context = new Context();
+        context.getGlobalParameters().putAll(globals);
+        context.setNodeResult("source", "data");
+        return context;
+    }
+
+    private static FlowConfig flow() {
+        Node sink = node("sink", "upper", "source");
+        sink.setParameters(new HashMap<>(Map.of(Memoizer.MEMOIZE, true, Memoizer.MEMO_GLOBALS, "")));
+        return TestFlows.flow("memo-flow", node("source", "load"), sink);
+    }
+}
@@ -0,0 +1,137 @@
+package com.ums.bms.engine.metrics;
+
+import com.ums.bms.engine.Engine;
+import com.ums.bms.engine.EngineConfig;
+import com.ums.bms.engine.TestFlows;
+import com.ums.bms.engine.model.ExecutionMode;
+import com.ums.bms.engine.model.NodeType;
+import com.ums.bms.engine.parser.FlowConfig;
+import com.ums.bms.engine.processor.Processor;
+import com.ums.bms.engine.processor.ProcessorRegistry;
+import com.ums.bms.engine.stream.StreamProcessor;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.ums.bms.engine.TestFlows.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/5/27
+ */
+public class MicrometerExecutionListenerTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private SimpleMeterRegistry meterRegistry;
+    private Engine engine;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("list", (Processor<List<String>>) context -> List.of("a", "b", "c"));
+        registry.register("amount", (Processor<Long>) context -> 1_000_000L);
+        registry.register("range", (StreamProcessor<Object, Integer>) (input, output, context) -> {
+            for (int i = 0; i < 5; i++) {
+                output.emit(i);
+            }
+        });
+        registry.register("drain", (StreamProcessor<Integer, Void>) (input, output, context) -> {
+            while (input.next() != null) {
+                // 丢弃记录
+            }
+        });
+        registry.register("fail", (Processor<String>) context -> {
+            throw new IllegalStateException("boom");
+        });
+        engine = new Engine(registry, EngineConfig.builder()
+                .mode(ExecutionMode.PARALLEL)
+                .executor(executor)
+                .listener(new MicrometerExecutionListener(meterRegistry))
+                .build());
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_Success_RecordsNodeTimersAndResultSize() {
+        // Act
+        engine.execute(flow("list", "list"));
+        engine.execute(flow("list", "list"));
+
+        // Assert
+        Timer process = meterRegistry.get("flow.node.process")
+                .tags("flow", "metrics-flow", "version", "1", "node", "sink", "processor", "list")
+                .timer();
+        assertEquals(2, process.count());
+        assertEquals(2, meterRegistry.get("flow.node.queue").tag("node", "source").timer().count());
+        assertEquals(2, meterRegistry.get("flow.node.initial").tag("node", "source").timer().count());
+        assertEquals(6, meterRegistry.get("flow.node.result.size").tag("node", "sink").summary().totalAmount());
+        assertEquals(2, meterRegistry.get("flow.run").tag("outcome", "success").timer().count());
+        assertEquals(0, meterRegistry.get("flow.runs.active").gauge().value());
+        assertEquals(0, meterRegistry.get("flow.nodes.ready").gauge().value());
+    }
+
+    @Test
+    void execute_NumericResult_SkipsResultSize() {
+        // Act
+        engine.execute(flow("list", "amount"));
+
+        // Assert
+        assertEquals(1, meterRegistry.get("flow.node.result.size").tag("node", "source").summary().count());
+        assertEquals(0, meterRegistry.get("flow.node.result.size").tag("node", "sink").summary().count());
+    }
+
+    @Test
+    void execute_StreamingFlow_RecordsOutputRecordCount() {
+        // Act
+        engine.execute(TestFlows.flow("metrics-flow", ExecutionMode.STREAMING,
+                node("source", NodeType.SOURCE, "range"),
+                node("sink", NodeType.SINK, "drain", "source")));
+
+        // Assert
+        assertEquals(5, meterRegistry.get("flow.node.result.size").tag("node", "source").summary().totalAmount());
+    }
+
+    @Test
+    void execute_Failure_CountsFailureAndResetsGauges() {
+        // Act
+        assertThrows(RuntimeException.class, () -> engine.execute(flow("fail", "list")));
+
+        // Assert
+        assertEquals(1, meterRegistry.get("flow.node.failures").tag("node", "source").counter().count());
+        assertEquals(1, meterRegistry.get("flow.run").tag("outcome", "failure").timer().count());
+        assertNull(meterRegistry.find("flow.node.process").tag("node", "sink").timer());
+        assertEquals(0, meterRegistry.get("flow.runs.active").gauge().value());
+        assertEquals(0, meterRegistry.get("flow.nodes.ready").gauge().value());
+    }
+
+    @Test
+    void sizeOf_SupportedTypes_ReturnsSize() {
+        // Act & Assert
+        assertEquals(2, MicrometerExecutionListener.sizeOf(List.of(1, 2)));
+        assertEquals(1, MicrometerExecutionListener.sizeOf(Map.of("k", "v")));
+        assertEquals(3, MicrometerExecutionListener.sizeOf("abc"));
+        assertEquals(-1, MicrometerExecutionListener.sizeOf(42L));
+        assertEquals(4, MicrometerExecutionListener.sizeOf(new int[4]));
+        assertEquals(-1, MicrometerExecutionListener.sizeOf(new Object()));
+        assertEquals(-1, MicrometerExecutionListener.sizeOf(null));
+    }
+
+    private static FlowConfig flow(String sourceProcessor, String sinkProcessor) {
+        return TestFlows.flow("metrics-flow",
+                node("source", NodeType.SOURCE, sourceProcessor),
+                node("sink", NodeType.SINK, sinkProcessor, "source"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.ums.bms.engine.model;
+
+import com.ums.bms.engine.TestFlows;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import com.ums.bms.engine.store.HeapResultStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.ums.bms.engine.TestFlows.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/6/3
+ */
+public class ContextTest {
+
+    @Test
+    void getInputs_PlanContext_ReadsSlotsInDepsOrder() {
+        // Arrange
+        ExecutionPlan plan = plan();
+        Context context = new Context(plan, new HeapResultStore(plan.size()));
+        Node sink = plan.node(plan.indexOf("sink"));
+        context.setResult(plan.indexOf("a"), "A");
+        context.setNodeResult("b", "B");
+
+        // Act
+        List<Object> inputs = context.getInputs(sink);
+
+        // Assert
+        assertEquals(List.of("B", "A"), inputs);
+        assertEquals("B", context.getPrevResult(sink));
+        assertEquals("A", context.getInput(sink, 1));
+        context.setResult(plan.indexOf("a"), "A2");
+        assertEquals("A2", inputs.get(1));
+    }
+
+    @Test
+    void getInputs_ByOrdinal_ReusesViewPerNode() {
+        // Arrange
+        ExecutionPlan plan = plan();
+        Context context = new Context(plan, new HeapResultStore(plan.size()));
+        int sink = plan.indexOf("sink");
+        context.setResult(plan.indexOf("a"), "A");
+        context.setResult(plan.indexOf("b"), "B");
+
+        // Act
+        List<Object> inputs = context.getInputs(sink);
+
+        // Assert
+        assertSame(inputs, context.getInputs(sink));
+        assertSame(inputs, context.getInputs(plan.node(sink)));
+        assertEquals(List.of("B", "A"), inputs);
+        assertEquals("A", context.getInput(sink, 1));
+    }
+
+    @Test
+    void getNodeResults_PlanContext_ViewSkipsReleasedSlots() {
+        // Arrange
+        ExecutionPlan plan = plan();
+        Context context = new Context(plan, new HeapResultStore(plan.size()));
+        context.setNodeResult("a", "A");
+        context.setNodeResult("sink", "S");
+
+        // Act
+        context.setNodeResult("a", null);
+
+        // Assert
+        assertEquals(Map.of("sink", "S"), Map.copyOf(context.getNodeResults()));
+        assertNull(context.getNodeResult("a"));
+        assertNull(context.getNodeResult("missing"));
+        assertThrows(IllegalArgumentException.class, () -> context.setNodeResult("missing", "x"));
+    }
+
+    @Test
+    void getInputs_DetachedContext_FallsBackToNodeIds() {
+        // Arrange
+        Context context = new Context();
+        Node node = vertex("sink", "a", "b");
+        context.setNodeResult("a", "A");
+        context.setNodeResult("b", "B");
+
+        // Act
+        List<Object> inputs = context.getInputs(node);
+
+        // Assert
+        assertEquals(List.of("A", "B"), inputs);
+        assertEquals("A", context.getPrevResult(node));
+        assertEquals(Map.of("a", "A", "b", "B"), context.getNodeResults());
+    }
+
+    private static ExecutionPlan plan() {
+        return TestFlows.plan(vertex("a"), vertex("b"), vertex("sink", "b", "a"));
+    }
+}
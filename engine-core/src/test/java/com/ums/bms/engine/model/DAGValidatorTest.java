@@ -0,0 +1,106 @@
+package com.ums.bms.engine.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.ums.bms.engine.TestFlows.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/5/23
+ */
+public class DAGValidatorTest {
+
+    @Test
+    void validate_DeepChain_DoesNotOverflowStack() {
+        // Arrange
+        int size = 200_000;
+        Node[] nodes = new Node[size];
+        for (int i = 0; i < size; i++) {
+            String id = "n" + i;
+            nodes[i] = i == 0 ? vertex(id) : vertex(id, "n" + (i - 1));
+        }
+
+        // Act
+        ValidationReport report = DAGValidator.validate(dag(nodes));
+
+        // Assert
+        assertTrue(report.isValid());
+        assertTrue(report.unreachableNodes().isEmpty());
+    }
+
+    @Test
+    void validate_DeepCycle_ReportsCyclePath() {
+        // Arrange
+        int size = 200_000;
+        Node[] nodes = new Node[size];
+        for (int i = 0; i < size; i++) {
+            String id = "n" + i;
+            nodes[i] = vertex(id, "n" + ((i + 1) % size));
+        }
+
+        // Act
+        ValidationReport report = DAGValidator.validate(dag(nodes));
+
+        // Assert
+        assertFalse(report.isValid());
+        assertEquals(size + 1, report.cycle().size());
+        assertEquals(report.cycle().get(0), report.cycle().get(size));
+    }
+
+    @Test
+    void validate_CycleWithDownstream_ReportsCycleAndUnreachable() {
+        // Arrange
+        DAGGraph dag = dag(
+                vertex("a"),
+                vertex("b", "a", "d"),
+                vertex("c", "b"),
+                vertex("d", "c"),
+                vertex("e", "d"));
+
+        // Act
+        ValidationReport report = DAGValidator.validate(dag);
+
+        // Assert
+        assertTrue(report.hasCycle());
+        assertEquals(List.of("b", "d", "c", "b"), report.cycle());
+        assertEquals(List.of("b", "c", "d", "e"), report.unreachableNodes());
+        assertFalse(dag.validate());
+    }
+
+    @Test
+    void validate_MissingDependencies_ReportsAll() {
+        // Arrange
+        DAGGraph dag = dag(
+                vertex("a", "ghost-1"),
+                vertex("b", "a", "ghost-2"),
+                vertex("c"));
+
+        // Act
+        ValidationReport report = DAGValidator.validate(dag);
+
+        // Assert
+        assertFalse(report.isValid());
+        assertFalse(report.hasCycle());
+        assertEquals(List.of(
+                new ValidationReport.MissingDependency("a", "ghost-1"),
+                new ValidationReport.MissingDependency("b", "ghost-2")), report.missingDependencies());
+        assertEquals(List.of("a", "b"), report.unreachableNodes());
+    }
+
+    @Test
+    void validate_DuplicateNodeIds_Invalid() {
+        // Arrange
+        DAGGraph dag = dag(vertex("a"));
+        dag.setDuplicateNodeIds(List.of("a"));
+
+        // Act
+        ValidationReport report = DAGValidator.validate(dag);
+
+        // Assert
+        assertFalse(report.isValid());
+        assertEquals(List.of("a"), report.duplicateNodeIds());
+    }
+}
@@ -0,0 +1,137 @@
+package com.ums.bms.engine.parser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ums.bms.engine.exception.FlowConfigParserException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/5/21
+ */
+public class FlowConfigParserTest {
+
+    private static final String JSON = """
+            {
+              "id": "test-flow",
+              "name": "testFlow",
+              "version": "1.0.0",
+              "dag": {
+                "nodes": [
+                  {"id": "node3", "type": "SINK", "deps": ["node2"]},
+                  {"id": "node2", "type": "PROCESSOR", "deps": ["node1"]},
+                  {"id": "node1", "type": "SOURCE", "parameters": {"file-path": "/tmp/in"}}
+                ]
+              }
+            }
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parse_JsonString_KeepsDeclarationOrder() {
+        // Act
+        FlowConfig result = FlowConfigParser.parse(JSON, FlowFormat.JSON);
+
+        // Assert
+        assertEquals("test-flow", result.getId());
+        assertEquals(List.of("node3", "node2", "node1"), List.copyOf(result.getDag().getNodes().keySet()));
+        assertEquals("/tmp/in", result.getDag().getNode("node1").getParameter("file-path"));
+    }
+
+    @Test
+    void parse_SmileBytesByContentType_ReturnsFlowConfig() throws IOException {
+        // Arrange
+        ObjectMapper json = FlowFormat.JSON.mapper();
+        byte[] smile = FlowFormat.SMILE.mapper().writeValueAsBytes(json.readTree(JSON));
+
+        // Act
+        FlowConfig result = FlowConfigParser.parse(smile, "application/x-jackson-smile");
+
+        // Assert
+        assertEquals("1.0.0", result.getVersion());
+        assertEquals(3, result.getDag().getNodes().size());
+        assertEquals(List.of("node2"), result.getDag().getNode("node3").getDeps());
+    }
+
+    @Test
+    void parse_YamlInputStreamAndPath_ReturnsFlowConfig() throws IOException {
+        // Arrange
+        String yaml = """
+                id: test-flow
+                name: testFlow
+                version: 1.0.0
+                dag:
+                  nodes:
+                    - id: node1
+                      type: PROCESSOR
+                """;
+        Path file = Files.writeString(tempDir.resolve("flow.yml"), yaml);
+
+        // Act
+        FlowConfig fromStream = YamlConfigParser.parse(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+        FlowConfig fromPath = FlowConfigParser.parse(file);
+
+        // Assert
+        assertEquals("test-flow", fromStream.getId());
+        assertEquals("test-flow", fromPath.getId());
+    }
+
+    @Test
+    void parse_JsonContentTypeWithCharset_ReturnsFlowConfig() {
+        // Act
+        FlowConfig result = FlowConfigParser.parse(JSON.getBytes(StandardCharsets.UTF_8),
+                "application/json; charset=UTF-8");
+
+        // Assert
+        assertEquals("testFlow", result.getName());
+    }
+
+    @Test
+    void parse_DuplicateNodeId_ThrowsException() {
+        // Arrange
+        String json = """
+                {"id": "f", "name": "f", "version": "1",
+                 "dag": {"nodes": [{"id": "a"}, {"id": "a"}]}}
+                """;
+
+        // Act & Assert
+        FlowConfigParserException exception = assertThrows(
+                FlowConfigParserException.class,
+                () -> FlowConfigParser.parse(json, FlowFormat.JSON)
+        );
+        assertTrue(exception.getMessage().contains("重复的节点ID: [a]"));
+        assertEquals(List.of("a"), exception.getReport().duplicateNodeIds());
+    }
+
+    @Test
+    void parse_UnsupportedContentType_ThrowsException() {
+        // Act & Assert
+        assertThrows(
+                FlowConfigParserException.class,
+                () -> FlowConfigParser.parse(new byte[0], "text/plain")
+        );
+    }
+
+    @Test
+    void parse_UnsupportedExtension_ThrowsException() throws IOException {
+        // Arrange
+        Path file = Files.writeString(tempDir.resolve("flow.txt"), JSON);
+
+        // Act & Assert
+        assertThrows(
+                FlowConfigParserException.class,
+                () -> FlowConfigParser.parse(file)
+        );
+    }
+}
@@ -0,0 +1,157 @@
+package com.ums.bms.engine.plan;
+
+import com.ums.bms.engine.exception.FlowConfigParserException;
+import com.ums.bms.engine.model.DAGGraph;
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.model.NodeType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static com.ums.bms.engine.TestFlows.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/5/6
+ */
+public class ExecutionPlanTest {
+
+    @Test
+    void compile_DiamondDag_BuildsAdjacencyAndInDegree() {
+        // Arrange
+        DAGGraph dag = dag(
+                node("file-input", NodeType.SOURCE, null),
+                node("operator-1", NodeType.PROCESSOR, null, "file-input"),
+                node("operator-2", NodeType.PROCESSOR, null, "file-input"),
+                node("sink", NodeType.SINK, null, "operator-1", "operator-2"));
+
+        // Act
+        ExecutionPlan plan = ExecutionPlan.compile(dag);
+
+        // Assert
+        assertEquals(4, plan.size());
+        int input = plan.indexOf("file-input");
+        int sink = plan.indexOf("sink");
+        assertEquals(-1, plan.indexOf("missing"));
+        assertArrayEquals(new int[]{input}, plan.sources());
+        assertArrayEquals(new int[]{sink}, plan.sinks());
+        assertEquals(0, plan.inDegree(input));
+        assertEquals(2, plan.inDegree(sink));
+        assertEquals(2, plan.successors(input).length);
+        assertEquals(0, plan.successors(sink).length);
+        assertEquals("sink", plan.node(sink).getId());
+    }
+
+    @Test
+    void compile_Chain_TopologicalOrderRespectsDeps() {
+        // Arrange
+        DAGGraph dag = dag(
+                node("c", NodeType.SINK, null, "b"),
+                node("b", NodeType.PROCESSOR, null, "a"),
+                node("a", NodeType.SOURCE, null));
+
+        // Act
+        ExecutionPlan plan = ExecutionPlan.compile(dag);
+
+        // Assert
+        int[] order = plan.topologicalOrder();
+        assertEquals("a", plan.node(order[0]).getId());
+        assertEquals("b", plan.node(order[1]).getId());
+        assertEquals("c", plan.node(order[2]).getId());
+    }
+
+    @Test
+    void compile_CounterCopy_DoesNotAffectPlan() {
+        // Arrange
+        ExecutionPlan plan = ExecutionPlan.compile(dag(
+                node("a", NodeType.SOURCE, null),
+                node("b", NodeType.SINK, null, "a")));
+
+        // Act
+        int[] counters = plan.newInDegreeCounters();
+        counters[plan.indexOf("b")]--;
+
+        // Assert
+        assertEquals(1, plan.inDegree(plan.indexOf("b")));
+    }
+
+    @Test
+    void compile_RetainParameter_MarksSinksAndRetainedNodes() {
+        // Arrange
+        Node retained = node("b", NodeType.PROCESSOR, null, "a");
+        retained.setParameters(Map.of(ExecutionPlan.RETAIN, true));
+
+        // Act
+        ExecutionPlan plan = ExecutionPlan.compile(dag(
+                node("a", NodeType.SOURCE, null),
+                retained,
+                node("c", NodeType.SINK, null, "b")));
+
+        // Assert
+        assertFalse(plan.retained(plan.indexOf("a")));
+        assertTrue(plan.retained(plan.indexOf("b")));
+        assertTrue(plan.retained(plan.indexOf("c")));
+    }
+
+    @Test
+    void ancestorClosure_Branch_ContainsOnlyUpstreamNodes() {
+        // Arrange
+        ExecutionPlan plan = ExecutionPlan.compile(dag(
+                node("a", NodeType.SOURCE, null),
+                node("b", NodeType.PROCESSOR, null, "a"),
+                node("c", NodeType.PROCESSOR, null, "a"),
+                node("d", NodeType.SINK, null, "b", "c")));
+
+        // Act
+        boolean[] closure = plan.ancestorClosure(plan.indexOf("b"));
+
+        // Assert
+        assertTrue(closure[plan.indexOf("a")]);
+        assertTrue(closure[plan.indexOf("b")]);
+        assertFalse(closure[plan.indexOf("c")]);
+        assertFalse(closure[plan.indexOf("d")]);
+    }
+
+    @Test
+    void compile_CyclicDag_ThrowsException() {
+        // Arrange
+        DAGGraph dag = dag(
+                node("node1", NodeType.PROCESSOR, null, "node2"),
+                node("node2", NodeType.PROCESSOR, null, "node1"));
+
+        // Act & Assert
+        FlowConfigParserException exception = assertThrows(
+                FlowConfigParserException.class,
+                () -> ExecutionPlan.compile(dag)
+        );
+        assertEquals("流程配置存在环.", exception.getMessage());
+    }
+
+    @Test
+    void compile_InvalidCondition_ThrowsException() {
+        // Arrange
+        Node node = node("a", NodeType.SOURCE, null);
+        node.setCondition("params['region'] ==");
+
+        // Act & Assert
+        FlowConfigParserException exception = assertThrows(
+                FlowConfigParserException.class,
+                () -> ExecutionPlan.compile(dag(node))
+        );
+        assertTrue(exception.getMessage().startsWith("节点a的条件表达式无效"));
+    }
+
+    @Test
+    void compile_MissingDependency_ThrowsException() {
+        // Arrange
+        DAGGraph dag = dag(node("node1", NodeType.PROCESSOR, null, "ghost"));
+
+        // Act & Assert
+        FlowConfigParserException exception = assertThrows(
+                FlowConfigParserException.class,
+                () -> ExecutionPlan.compile(dag)
+        );
+        assertTrue(exception.getMessage().contains("ghost"));
+    }
+}
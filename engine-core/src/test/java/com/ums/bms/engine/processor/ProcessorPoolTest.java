@@ -0,0 +1,218 @@
+package com.ums.bms.engine.processor;
+
+import com.ums.bms.engine.model.Context;
+import com.ums.bms.engine.model.Node;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/5/12
+ */
+public class ProcessorPoolTest {
+
+    static final AtomicInteger created = new AtomicInteger();
+    static final AtomicInteger initialized = new AtomicInteger();
+    static final AtomicInteger closed = new AtomicInteger();
+
+    ProcessorRegistry registry;
+    ProcessorPool pool;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ProcessorRegistry();
+        registry.register("node", NodeScoped.class, NodeScoped::new);
+        registry.register("run", RunScoped.class, RunScoped::new);
+        registry.register("shared", new RunScoped());
+        pool = new ProcessorPool(registry);
+        created.set(0);
+        initialized.set(0);
+        closed.set(0);
+    }
+
+    @Test
+    void acquire_NodeScope_ReusesInitializedInstance() {
+        // Arrange
+        Node node = node("node");
+
+        // Act
+        ProcessorLease first = pool.acquire(node);
+        first.initial(node, new Context());
+        first.close();
+        ProcessorLease second = pool.acquire(node);
+        second.initial(node, new Context());
+        second.close();
+
+        // Assert
+        assertSame(first.processor(), second.processor());
+        assertEquals(1, created.get());
+        assertEquals(1, initialized.get());
+        assertEquals(0, closed.get());
+    }
+
+    @Test
+    void acquire_NodeScopeAtPoolSize_WaitsForRelease() throws Exception {
+        // Arrange
+        Node node = node("node");
+        ProcessorLease first = pool.acquire(node);
+        first.initial(node, new Context());
+        ProcessorLease second = pool.acquire(node);
+        second.initial(node, new Context());
+        CompletableFuture<ProcessorLease> third = CompletableFuture.supplyAsync(() -> pool.acquire(node));
+
+        // Act
+        Thread.sleep(50);
+        boolean blocked = !third.isDone();
+        first.close();
+        ProcessorLease reused = third.get(5, TimeUnit.SECONDS);
+        reused.close();
+        second.close();
+
+        // Assert
+        assertTrue(blocked);
+        assertSame(first.processor(), reused.processor());
+        assertEquals(2, created.get());
+        assertEquals(2, pool.idleCount(node));
+        assertEquals(0, closed.get());
+    }
+
+    @Test
+    void release_AfterEvict_ClosesInsteadOfPooling() {
+        // Arrange
+        Node node = node("node");
+        ProcessorLease inFlight = pool.acquire(node);
+        inFlight.initial(node, new Context());
+
+        // Act
+        pool.evict(node);
+        inFlight.close();
+        ProcessorLease late = pool.acquire(node);
+        late.initial(node, new Context());
+        late.close();
+
+        // Assert
+        assertEquals(0, pool.idleCount(node));
+        assertEquals(2, closed.get());
+    }
+
+    @Test
+    void release_InvalidatedLease_ClosesInsteadOfPooling() {
+        // Arrange
+        Node node = node("node");
+        ProcessorLease lease = pool.acquire(node);
+        lease.initial(node, new Context());
+
+        // Act
+        lease.invalidate();
+        lease.close();
+
+        // Assert
+        assertEquals(0, pool.idleCount(node));
+        assertEquals(1, closed.get());
+    }
+
+    @Test
+    void acquire_NodesWithSameDefinition_UseSeparatePools() {
+        // Arrange
+        Node first = node("node");
+        Node second = node("node");
+        ProcessorLease lease = pool.acquire(first);
+        lease.initial(first, new Context());
+        lease.close();
+
+        // Act
+        ProcessorLease other = pool.acquire(second);
+
+        // Assert
+        assertNotSame(lease.processor(), other.processor());
+    }
+
+    @Test
+    void acquire_RunScope_CreatesAndClosesEachTime() {
+        // Arrange
+        Node node = node("run");
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            try (ProcessorLease lease = pool.acquire(node)) {
+                lease.initial(node, new Context());
+            }
+        }
+
+        // Assert
+        assertEquals(3, created.get());
+        assertEquals(3, initialized.get());
+        assertEquals(3, closed.get());
+    }
+
+    @Test
+    void acquire_SharedScope_ReturnsSingletonAndNeverCloses() {
+        // Arrange
+        Node node = node("shared");
+
+        // Act
+        ProcessorLease first = pool.acquire(node);
+        first.close();
+        ProcessorLease second = pool.acquire(node);
+        second.close();
+
+        // Assert
+        assertSame(first.processor(), second.processor());
+        assertEquals(0, closed.get());
+    }
+
+    @Test
+    void evict_ClosesIdleInstances() {
+        // Arrange
+        Node node = node("node");
+        ProcessorLease lease = pool.acquire(node);
+        lease.initial(node, new Context());
+        lease.close();
+
+        // Act
+        pool.evict(node);
+
+        // Assert
+        assertEquals(0, pool.idleCount(node));
+        assertEquals(1, closed.get());
+    }
+
+    private static Node node(String processor) {
+        Node node = new Node();
+        node.setId(processor + "-node");
+        node.setProcessor(processor);
+        return node;
+    }
+
+    @ProcessorScope(value = ScopeType.NODE, poolSize = 2)
+    static class NodeScoped extends RunScoped {
+    }
+
+    @ProcessorScope(ScopeType.RUN)
+    static class RunScoped implements Processor<Object> {
+        RunScoped() {
+            created.incrementAndGet();
+        }
+
+        @Override
+        public void initial(Node node, Context context) {
+            initialized.incrementAndGet();
+        }
+
+        @Override
+        public Object process(Context context) {
+            return null;
+        }
+
+        @Override
+        public void close() {
+            closed.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.ums.bms.engine.repository;
+
+import com.ums.bms.engine.plan.ExecutionPlan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/5/19
+ */
+public class FlowRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    FlowRepository repository;
+
+    @AfterEach
+    void close() {
+        if (repository != null) {
+            repository.close();
+        }
+    }
+
+    @Test
+    void loadAll_ValidAndInvalidFiles_CachesValidFlows() throws IOException {
+        // Arrange
+        write("a.yaml", flow("flow-a", "1.0.0", "node1"));
+        write("b.yml", flow("flow-b", "2.0.0", "node1"));
+        write("broken.yaml", "invalid: yaml: content: :");
+        write("ignored.txt", flow("flow-c", "1.0.0", "node1"));
+        repository = new FlowRepository(tempDir);
+
+        // Act
+        int loaded = repository.loadAll();
+
+        // Assert
+        assertEquals(2, loaded);
+        assertNotNull(repository.get("flow-a", "1.0.0"));
+        assertNotNull(repository.get("flow-b", "2.0.0"));
+        assertNull(repository.get("flow-c", "1.0.0"));
+        assertEquals(1, repository.get("flow-a", "1.0.0").plan().size());
+    }
+
+    @Test
+    void reload_ChangedFile_SwapsPlanAndKeepsOldReference() throws IOException {
+        // Arrange
+        Path file = write("a.yaml", flow("flow-a", "1.0.0", "node1"));
+        repository = new FlowRepository(tempDir);
+        repository.loadAll();
+        ExecutionPlan inFlight = repository.get("flow-a", "1.0.0").plan();
+        List<CompiledFlow> removed = new ArrayList<>();
+        repository.addRemovalListener(removed::add);
+
+        // Act
+        write("a.yaml", flow("flow-a", "1.0.0", "node1", "node2"));
+        repository.reload(file);
+
+        // Assert
+        assertEquals(2, repository.get("flow-a", "1.0.0").plan().size());
+        assertEquals(1, inFlight.size());
+        assertEquals(1, removed.size());
+        assertSame(inFlight, removed.get(0).plan());
+    }
+
+    @Test
+    void reload_InvalidChange_KeepsPreviousVersion() throws IOException {
+        // Arrange
+        Path file = write("a.yaml", flow("flow-a", "1.0.0", "node1"));
+        repository = new FlowRepository(tempDir);
+        repository.loadAll();
+
+        // Act
+        write("a.yaml", "id: flow-a\nname: broken\nversion: 1.0.0\ndag:\n  nodes: []\n");
+        boolean reloaded = repository.reload(file);
+
+        // Assert
+        assertFalse(reloaded);
+        assertNotNull(repository.get("flow-a", "1.0.0"));
+    }
+
+    @Test
+    void get_NullVersion_ReturnsLatest() throws IOException {
+        // Arrange
+        write("a-1.yaml", flow("flow-a", "1.9.0", "node1"));
+        write("a-2.yaml", flow("flow-a", "1.10.0", "node1"));
+        repository = new FlowRepository(tempDir);
+        repository.loadAll();
+
+        // Act
+        CompiledFlow flow = repository.get("flow-a", null);
+
+        // Assert
+        assertEquals("1.10.0", flow.version());
+        assertNull(repository.get(null, "1.9.0"));
+        assertNull(repository.get("missing", null));
+    }
+
+    @Test
+    void reload_VersionBumpAndDelete_UpdatesLatest() throws IOException {
+        // Arrange
+        write("a-1.yaml", flow("flow-a", "1.9.0", "node1"));
+        Path file = write("a-2.yaml", flow("flow-a", "1.10.0", "node1"));
+        repository = new FlowRepository(tempDir);
+        repository.loadAll();
+
+        // Act & Assert
+        assertEquals("1.10.0", repository.getLatest("flow-a").version());
+        Files.delete(file);
+        repository.reload(file);
+        assertEquals("1.9.0", repository.getLatest("flow-a").version());
+        assertNull(repository.get("flow-a", "1.10.0"));
+    }
+
+    @Test
+    void loadAll_FileDeletedSinceLastScan_RemovesFlow() throws IOException {
+        // Arrange
+        write("a.yaml", flow("flow-a", "1.0.0", "node1"));
+        Path deleted = write("b.yaml", flow("flow-b", "1.0.0", "node1"));
+        repository = new FlowRepository(tempDir);
+        repository.loadAll();
+        List<String> removed = new ArrayList<>();
+        repository.addRemovalListener(flow -> removed.add(flow.id()));
+        Files.delete(deleted);
+
+        // Act
+        int loaded = repository.loadAll();
+
+        // Assert
+        assertEquals(1, loaded);
+        assertNotNull(repository.get("flow-a", "1.0.0"));
+        assertNull(repository.get("flow-b", "1.0.0"));
+        assertTrue(removed.contains("flow-b"));
+    }
+
+    @Test
+    void watch_FileCreated_LoadsFlow() throws Exception {
+        // Arrange
+        repository = new FlowRepository(tempDir);
+        repository.loadAll();
+        repository.watch();
+
+        // Act
+        write("new.yaml", flow("flow-new", "1.0.0", "node1"));
+
+        // Assert
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (repository.get("flow-new", "1.0.0") == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertNotNull(repository.get("flow-new", "1.0.0"));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(tempDir.resolve(name), content);
+    }
+
+    private static String flow(String id, String version, String... nodeIds) {
+        StringBuilder yaml = new StringBuilder(String.format("""
+                id: %s
+                name: %s
+                version: %s
+                dag:
+                  nodes:
+                """, id, id, version));
+        for (String nodeId : nodeIds) {
+            yaml.append("    - id: ").append(nodeId).append("\n")
+                    .append("      type: PROCESSOR\n");
+        }
+        return yaml.toString();
+    }
+}
@@ -0,0 +1,148 @@
+package com.ums.bms.engine.scheduler;
+
+import com.ums.bms.engine.plan.ExecutionPlan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.ums.bms.engine.TestFlows.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/5/7
+ */
+public class ParallelSchedulerTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void schedule_SiblingBranches_RunConcurrently() {
+        // Arrange
+        ExecutionPlan plan = diamond();
+        CountDownLatch siblings = new CountDownLatch(2);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        // Act
+        new ParallelScheduler(executor).schedule(plan, ordinal -> {
+            String id = plan.node(ordinal).getId();
+            if (id.startsWith("operator")) {
+                siblings.countDown();
+                try {
+                    // 两个分支必须同时运行才能通过
+                    assertTrue(siblings.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            order.add(id);
+        });
+
+        // Assert
+        assertEquals(4, order.size());
+        assertEquals("file-input", order.get(0));
+        assertEquals("sink", order.get(3));
+    }
+
+    @Test
+    void schedule_NodeFails_PropagatesAndStopsSuccessors() {
+        // Arrange
+        ExecutionPlan plan = diamond();
+        List<String> executed = new CopyOnWriteArrayList<>();
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> new ParallelScheduler(executor).schedule(plan, ordinal -> {
+                    String id = plan.node(ordinal).getId();
+                    if (id.equals("operator-1")) {
+                        throw new IllegalStateException("boom");
+                    }
+                    executed.add(id);
+                }));
+        assertEquals("boom", exception.getMessage());
+        assertFalse(executed.contains("sink"));
+    }
+
+    @Test
+    void schedule_NodeFails_WaitsForStartedSiblingBeforeThrowing() {
+        // Arrange
+        ExecutionPlan plan = diamond();
+        List<String> finished = new CopyOnWriteArrayList<>();
+        CountDownLatch started = new CountDownLatch(1);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> new ParallelScheduler(executor).schedule(plan, ordinal -> {
+                    String id = plan.node(ordinal).getId();
+                    try {
+                        if (id.equals("operator-1")) {
+                            started.await(5, TimeUnit.SECONDS);
+                            throw new IllegalStateException("boom");
+                        }
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    if (id.equals("operator-2")) {
+                        started.countDown();
+                        try {
+                            Thread.sleep(100);
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                    finished.add(id);
+                }));
+        assertTrue(finished.contains("operator-2"));
+    }
+
+    @Test
+    void schedule_OnReadyThrows_FailsAfterStartedNodesReturn() {
+        // Arrange
+        ExecutionPlan plan = diamond();
+        List<String> executed = new CopyOnWriteArrayList<>();
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new ParallelScheduler(executor).schedule(plan, ordinal -> {
+                    if (plan.node(ordinal).getId().equals("sink")) {
+                        throw new IllegalStateException("listener failed");
+                    }
+                }, ordinal -> executed.add(plan.node(ordinal).getId())));
+        assertEquals("listener failed", exception.getMessage());
+        assertFalse(executed.contains("sink"));
+        assertTrue(executed.containsAll(List.of("file-input", "operator-1", "operator-2")));
+    }
+
+    @Test
+    void schedule_OnReadyThrowsForSource_FailsWithoutRunningNodes() {
+        // Arrange
+        ExecutionPlan plan = diamond();
+        List<String> executed = new CopyOnWriteArrayList<>();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> new ParallelScheduler(executor).schedule(plan,
+                ordinal -> {
+                    throw new IllegalStateException("listener failed");
+                }, ordinal -> executed.add(plan.node(ordinal).getId())));
+        assertTrue(executed.isEmpty());
+    }
+
+    private static ExecutionPlan diamond() {
+        return plan(
+                vertex("file-input"),
+                vertex("operator-1", "file-input"),
+                vertex("operator-2", "file-input"),
+                vertex("sink", "operator-1", "operator-2"));
+    }
+}
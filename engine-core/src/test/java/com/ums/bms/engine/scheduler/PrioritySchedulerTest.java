@@ -0,0 +1,138 @@
+package com.ums.bms.engine.scheduler;
+
+import com.ums.bms.engine.plan.ExecutionPlan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.ums.bms.engine.TestFlows.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/6/16
+ */
+public class PrioritySchedulerTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @TempDir
+    Path statsDir;
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void schedule_NoHistory_StartsLongestChainFirst() {
+        // Arrange
+        ExecutionPlan plan = plan(
+                vertex("leaf-1"),
+                vertex("leaf-2"),
+                vertex("chain-1"),
+                vertex("chain-2", "chain-1"),
+                vertex("chain-3", "chain-2"));
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        // Act
+        new PriorityScheduler(executor, 1, null).schedule(plan, ordinal -> order.add(plan.node(ordinal).getId()));
+
+        // Assert: 剩余路径相同时按序号执行
+        assertEquals(List.of("chain-1", "chain-2", "leaf-1", "leaf-2", "chain-3"), order);
+    }
+
+    @Test
+    void schedule_WeightedDurations_StartsSlowNodeFirst() {
+        // Arrange
+        ExecutionPlan plan = plan(
+                vertex("fast-1"),
+                vertex("fast-2", "fast-1"),
+                vertex("slow"));
+        NodeDurationStats stats = new NodeDurationStats(1);
+        stats.record(null, "fast-1", 10);
+        stats.record(null, "fast-2", 10);
+        stats.record(null, "slow", 1_000);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        // Act
+        new PriorityScheduler(executor, 1, stats).schedule(plan, ordinal -> order.add(plan.node(ordinal).getId()));
+
+        // Assert
+        assertEquals(List.of("slow", "fast-1", "fast-2"), order);
+    }
+
+    @Test
+    void schedule_NodeFails_PropagatesAndStopsSuccessors() {
+        // Arrange
+        ExecutionPlan plan = plan(vertex("a"), vertex("b", "a"), vertex("c"));
+        List<String> executed = new CopyOnWriteArrayList<>();
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> new PriorityScheduler(executor, 2, null).schedule(plan, ordinal -> {
+                    String id = plan.node(ordinal).getId();
+                    if (id.equals("a")) {
+                        throw new IllegalStateException("boom");
+                    }
+                    executed.add(id);
+                }));
+        assertEquals("boom", exception.getMessage());
+        assertFalse(executed.contains("b"));
+    }
+
+    @Test
+    void schedule_OnReadyThrowsForSuccessor_Fails() {
+        // Arrange
+        ExecutionPlan plan = plan(vertex("a"), vertex("b", "a"), vertex("c"));
+        List<String> executed = new CopyOnWriteArrayList<>();
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new PriorityScheduler(executor, 1, null).schedule(plan, ordinal -> {
+                    if (plan.node(ordinal).getId().equals("b")) {
+                        throw new IllegalStateException("listener failed");
+                    }
+                }, ordinal -> executed.add(plan.node(ordinal).getId())));
+        assertEquals("listener failed", exception.getMessage());
+        assertFalse(executed.contains("b"));
+    }
+
+    @Test
+    void schedule_OnReadyThrowsForSource_FailsWithoutRunningNodes() {
+        // Arrange
+        ExecutionPlan plan = plan(vertex("a"), vertex("b", "a"));
+        List<String> executed = new CopyOnWriteArrayList<>();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> new PriorityScheduler(executor, 2, null).schedule(plan,
+                ordinal -> {
+                    throw new IllegalStateException("listener failed");
+                }, ordinal -> executed.add(plan.node(ordinal).getId())));
+        assertTrue(executed.isEmpty());
+    }
+
+    @Test
+    void record_Ewma_PersistsAcrossInstances() {
+        // Arrange
+        Path file = statsDir.resolve("durations.json");
+        NodeDurationStats stats = new NodeDurationStats(0.5, file, 0);
+        stats.record("flow", "node", 100);
+        stats.record("flow", "node", 200);
+
+        // Act
+        stats.close();
+        NodeDurationStats reloaded = new NodeDurationStats(0.5, file, 0);
+
+        // Assert
+        assertEquals(150, reloaded.get("flow", "node"));
+        assertEquals(-1, reloaded.get("flow", "missing"));
+        assertEquals(-1, reloaded.get("other", "node"));
+    }
+}
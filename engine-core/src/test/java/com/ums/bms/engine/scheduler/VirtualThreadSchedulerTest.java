@@ -0,0 +1,67 @@
+package com.ums.bms.engine.scheduler;
+
+import com.ums.bms.engine.model.DAGGraph;
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/5/8
+ */
+public class VirtualThreadSchedulerTest {
+
+    private final ExecutorService executor = VirtualThreadScheduler.newVirtualThreadExecutor();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void schedule_ProcessorPermits_CapsConcurrencyPerProcessor() {
+        // Arrange
+        Map<String, Node> nodes = new LinkedHashMap<>();
+        for (int i = 0; i < 16; i++) {
+            Node node = new Node();
+            node.setId("io-" + i);
+            node.setProcessor(i % 2 == 0 ? "jdbc" : "http");
+            nodes.put(node.getId(), node);
+        }
+        DAGGraph dag = new DAGGraph();
+        dag.setNodes(nodes);
+        ExecutionPlan plan = ExecutionPlan.compile(dag);
+        AtomicInteger jdbcRunning = new AtomicInteger();
+        AtomicInteger maxJdbc = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+
+        // Act
+        new VirtualThreadScheduler(executor, 8, Map.of("jdbc", 2)).schedule(plan, ordinal -> {
+            boolean jdbc = "jdbc".equals(plan.node(ordinal).getProcessor());
+            if (jdbc) {
+                maxJdbc.accumulateAndGet(jdbcRunning.incrementAndGet(), Math::max);
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            if (jdbc) {
+                jdbcRunning.decrementAndGet();
+            }
+            completed.incrementAndGet();
+        });
+
+        // Assert
+        assertEquals(16, completed.get());
+        assertTrue(maxJdbc.get() <= 2);
+    }
+}
@@ -0,0 +1,192 @@
+package com.ums.bms.engine.store;
+
+import com.ums.bms.engine.Engine;
+import com.ums.bms.engine.EngineConfig;
+import com.ums.bms.engine.TestFlows;
+import com.ums.bms.engine.parser.FlowConfig;
+import com.ums.bms.engine.processor.Processor;
+import com.ums.bms.engine.processor.ProcessorRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.ums.bms.engine.TestFlows.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/5/30
+ */
+public class SpillingResultStoreTest {
+
+    @TempDir
+    Path spillDir;
+
+    @Test
+    void put_BelowThreshold_KeepsResultOnHeap() {
+        // Arrange
+        SpillingResultStore store = new SpillingResultStore(1, spillDir, 1024, false);
+        byte[] small = new byte[16];
+
+        // Act
+        store.put(0, small);
+
+        // Assert
+        assertFalse(store.isSpilled(0));
+        assertSame(small, store.get(0));
+    }
+
+    @Test
+    void put_LargeBytes_SpillsAndReadsBackZeroCopy() throws IOException {
+        // Arrange
+        SpillingResultStore store = new SpillingResultStore(1, spillDir, 1024, false);
+        byte[] large = bytes(64 * 1024);
+
+        // Act
+        store.put(0, large);
+
+        // Assert
+        assertTrue(store.isSpilled(0));
+        assertEquals(large.length, store.getSpilledBytes());
+        assertArrayEquals(large, (byte[]) store.get(0));
+        List<ByteBuffer> buffers = store.getBuffers(0);
+        assertEquals(1, buffers.size());
+        assertTrue(buffers.get(0).isReadOnly());
+        assertEquals(ByteBuffer.wrap(large), buffers.get(0));
+        try (Stream<Path> files = Files.list(spillDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void put_LargeBufferUncompressed_ReadsBackMappedView() {
+        // Arrange
+        SpillingResultStore store = new SpillingResultStore(1, spillDir, 1024, false);
+        ByteBuffer direct = ByteBuffer.allocateDirect(8 * 1024);
+        direct.put(bytes(8 * 1024)).flip();
+
+        // Act
+        store.put(0, direct);
+
+        // Assert
+        ByteBuffer read = (ByteBuffer) store.get(0);
+        assertTrue(read.isDirect());
+        assertEquals(direct, read);
+    }
+
+    @Test
+    void put_CompressedString_RoundTripsWithoutBufferView() {
+        // Arrange
+        SpillingResultStore store = new SpillingResultStore(1, spillDir, 1024, true);
+        String text = "record,".repeat(10_000);
+
+        // Act
+        store.put(0, text);
+
+        // Assert
+        assertTrue(store.isSpilled(0));
+        assertTrue(store.getSpilledBytes() < text.length());
+        assertEquals(text, store.get(0));
+        assertNull(store.getBuffers(0));
+    }
+
+    @Test
+    void put_CompressedSerializableList_RoundTrips() {
+        // Arrange
+        SpillingResultStore store = new SpillingResultStore(1, spillDir, 1024, true);
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            rows.add("row-" + i);
+        }
+
+        // Act
+        store.put(0, rows);
+
+        // Assert
+        assertTrue(store.isSpilled(0));
+        assertEquals(rows, store.get(0));
+    }
+
+    @Test
+    void get_CompressedSerializableTwice_DecodesOnce() {
+        // Arrange
+        SpillingResultStore store = new SpillingResultStore(1, spillDir, 1024, true);
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            rows.add("row-" + i);
+        }
+        store.put(0, rows);
+
+        // Act
+        Object first = store.get(0);
+        Object second = store.get(0);
+
+        // Assert
+        assertEquals(rows, first);
+        assertSame(first, second);
+        assertTrue(store.contains(0));
+    }
+
+    @Test
+    void remove_SpilledResult_ReleasesSpilledBytes() {
+        // Arrange
+        SpillingResultStore store = new SpillingResultStore(1, spillDir, 1024, false);
+        store.put(0, bytes(4096));
+
+        // Act
+        store.remove(0);
+
+        // Assert
+        assertEquals(0, store.getSpilledBytes());
+        assertNull(store.get(0));
+    }
+
+    @Test
+    void execute_SpillingStore_ConsumerReadsBufferView() {
+        // Arrange
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("produce", (Processor<byte[]>) context -> bytes(32 * 1024));
+        registry.register("checksum", (Processor<Long>) context -> {
+            long sum = 0;
+            for (ByteBuffer buffer : context.getNodeResultBuffers("source")) {
+                while (buffer.hasRemaining()) {
+                    sum += buffer.get();
+                }
+            }
+            return sum;
+        });
+        Engine engine = new Engine(registry, EngineConfig.builder()
+                .resultStore(size -> new SpillingResultStore(size, spillDir, 1024, false))
+                .build());
+
+        // Act
+        Map<String, Object> results = engine.execute(flow());
+
+        // Assert
+        long expected = 0;
+        for (byte b : bytes(32 * 1024)) {
+            expected += b;
+        }
+        assertEquals(expected, results.get("sink"));
+    }
+
+    private static byte[] bytes(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i * 31);
+        }
+        return bytes;
+    }
+
+    private static FlowConfig flow() {
+        return TestFlows.flow("spill-flow", node("source", "produce"), node("sink", "checksum", "source"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.ums.bms.engine.stream;
+
+import com.ums.bms.engine.Engine;
+import com.ums.bms.engine.model.Context;
+import com.ums.bms.engine.model.ExecutionMode;
+import com.ums.bms.engine.processor.Processor;
+import com.ums.bms.engine.processor.ProcessorRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static com.ums.bms.engine.TestFlows.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/5/15
+ */
+public class BatchProcessorTest {
+
+    @Test
+    void execute_StreamingBatchSink_GroupsRecordsByBatchSize() {
+        // Arrange
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("range", (StreamProcessor<Object, Integer>) (input, output, context) -> {
+            for (int i = 0; i < 95; i++) {
+                output.emit(i);
+            }
+        });
+        registry.register("insert", recording(batchSizes));
+
+        // Act
+        new Engine(registry).execute(flow("batch-flow", ExecutionMode.STREAMING,
+                node("source", "range"),
+                withParameters(node("sink", "insert", "source"),
+                        Map.of(BatchProcessor.BATCH_SIZE, 10, BatchProcessor.BATCH_LINGER_MS, 1000))));
+
+        // Assert
+        assertEquals(95, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 10));
+        assertEquals(10, batchSizes.get(0));
+    }
+
+    @Test
+    void execute_StreamingBatchSink_FlushesPartialBatchAfterLinger() {
+        // Arrange
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("slow", (StreamProcessor<Object, Integer>) (input, output, context) -> {
+            for (int i = 0; i < 3; i++) {
+                output.emit(i);
+            }
+            Thread.sleep(500);
+            for (int i = 0; i < 3; i++) {
+                output.emit(i);
+            }
+        });
+        registry.register("insert", recording(batchSizes));
+
+        // Act
+        new Engine(registry).execute(flow("batch-flow", ExecutionMode.STREAMING,
+                node("source", "slow"),
+                withParameters(node("sink", "insert", "source"),
+                        Map.of(BatchProcessor.BATCH_SIZE, 100, BatchProcessor.BATCH_LINGER_MS, 50))));
+
+        // Assert
+        assertEquals(List.of(3, 3), batchSizes);
+    }
+
+    @Test
+    void execute_SerialBatchProcessor_ChunksCollectionResults() {
+        // Arrange
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("rows", (Processor<List<Integer>>) context -> IntStream.range(0, 25).boxed().toList());
+        registry.register("insert", recording(batchSizes));
+
+        // Act
+        Map<String, Object> results = new Engine(registry).execute(flow("batch-flow", ExecutionMode.SERIAL,
+                node("source", "rows"),
+                withParameters(node("sink", "insert", "source"), Map.of(BatchProcessor.BATCH_SIZE, "10"))));
+
+        // Assert
+        assertEquals(List.of(10, 10, 5), batchSizes);
+        assertEquals(25, ((List<?>) results.get("sink")).size());
+    }
+
+    private static BatchProcessor<Integer, Integer> recording(List<Integer> batchSizes) {
+        return new BatchProcessor<>() {
+            @Override
+            public void processBatch(List<Integer> batch, RecordEmitter<Integer> output, Context context)
+                    throws InterruptedException {
+                batchSizes.add(batch.size());
+                for (Integer record : batch) {
+                    output.emit(record);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,192 @@
+package com.ums.bms.engine.stream;
+
+import com.ums.bms.engine.Engine;
+import com.ums.bms.engine.TestFlows;
+import com.ums.bms.engine.model.Context;
+import com.ums.bms.engine.model.ExecutionMode;
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.model.NodeType;
+import com.ums.bms.engine.parser.FlowConfig;
+import com.ums.bms.engine.processor.Processor;
+import com.ums.bms.engine.processor.ProcessorRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.ums.bms.engine.TestFlows.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/5/14
+ */
+public class StreamingPipelineTest {
+
+    static final int RECORDS = 10_000;
+
+    @Test
+    void execute_StreamingFlow_OverlapsStagesWithBoundedBuffers() {
+        // Arrange
+        AtomicLong sum = new AtomicLong();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger emitted = new AtomicInteger();
+        AtomicInteger consumed = new AtomicInteger();
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("range", (StreamProcessor<Object, Integer>) (input, output, context) -> {
+            for (int i = 1; i <= RECORDS; i++) {
+                output.emit(i);
+                maxInFlight.accumulateAndGet(emitted.incrementAndGet() - consumed.get(), Math::max);
+            }
+        });
+        registry.register("double", (StreamProcessor<Integer, Integer>) (input, output, context) -> {
+            Integer record;
+            while ((record = input.next()) != null) {
+                output.emit(record * 2);
+            }
+        });
+        registry.register("sum", (StreamProcessor<Integer, Void>) (input, output, context) -> {
+            Integer record;
+            while ((record = input.next()) != null) {
+                sum.addAndGet(record);
+                consumed.incrementAndGet();
+            }
+        });
+
+        // Act
+        Map<String, Object> results = new Engine(registry).execute(flow(
+                stage("source", NodeType.SOURCE, "range"),
+                stage("operator", NodeType.PROCESSOR, "double", "source"),
+                stage("forward", NodeType.PROCESSOR, null, "operator"),
+                stage("sink", NodeType.SINK, "sum", "forward")));
+
+        // Assert
+        assertEquals((long) RECORDS * (RECORDS + 1), sum.get());
+        assertEquals((long) RECORDS, results.get("source"));
+        assertEquals((long) RECORDS, results.get("forward"));
+        // 三个缓冲区各8条记录, 加上每个阶段手上的一条
+        assertTrue(maxInFlight.get() <= 3 * 8 + 4, "in flight: " + maxInFlight.get());
+    }
+
+    @Test
+    void execute_FanOutAndJoin_BroadcastsAndMergesRecords() {
+        // Arrange
+        AtomicLong count = new AtomicLong();
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("range", (StreamProcessor<Object, Integer>) (input, output, context) -> {
+            for (int i = 0; i < 100; i++) {
+                output.emit(i);
+            }
+        });
+        registry.register("count", (StreamProcessor<Object, Void>) (input, output, context) -> {
+            while (input.next() != null) {
+                count.incrementAndGet();
+            }
+        });
+
+        // Act
+        new Engine(registry).execute(flow(
+                stage("source", NodeType.SOURCE, "range"),
+                stage("left", NodeType.PROCESSOR, null, "source"),
+                stage("right", NodeType.PROCESSOR, null, "source"),
+                stage("sink", NodeType.SINK, "count", "left", "right")));
+
+        // Assert
+        assertEquals(200, count.get());
+    }
+
+    @Test
+    void execute_ConsumerStopsEarly_DoesNotBlockProducer() {
+        // Arrange
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("range", (StreamProcessor<Object, Integer>) (input, output, context) -> {
+            for (int i = 0; i < RECORDS; i++) {
+                output.emit(i);
+            }
+        });
+        registry.register("first", (StreamProcessor<Integer, Integer>) (input, output, context) ->
+                output.emit(input.next()));
+
+        // Act
+        Map<String, Object> results = new Engine(registry).execute(flow(
+                stage("source", NodeType.SOURCE, "range"),
+                stage("sink", NodeType.SINK, "first", "source")));
+
+        // Assert
+        assertEquals(1L, results.get("sink"));
+    }
+
+    @Test
+    void execute_StageFails_CancelsPipeline() {
+        // Arrange
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("endless", (StreamProcessor<Object, Integer>) (input, output, context) -> {
+            while (true) {
+                output.emit(1);
+            }
+        });
+        registry.register("failing", (StreamProcessor<Integer, Void>) (input, output, context) -> {
+            input.next();
+            throw new IllegalStateException("boom");
+        });
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> new Engine(registry).execute(flow(
+                stage("source", NodeType.SOURCE, "endless"),
+                stage("sink", NodeType.SINK, "failing", "source"))));
+        assertEquals("Error executing node: sink", exception.getMessage());
+    }
+
+    @Test
+    void execute_StageFails_WaitsForRunningStagesBeforeThrowing() {
+        // Arrange
+        AtomicBoolean stopped = new AtomicBoolean();
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("endless", (StreamProcessor<Object, Integer>) (input, output, context) -> {
+            try {
+                while (true) {
+                    output.emit(1);
+                }
+            } finally {
+                // 收到中断后仍需要一段时间才能停止
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+                while (System.nanoTime() < deadline) {
+                    Thread.onSpinWait();
+                }
+                stopped.set(true);
+            }
+        });
+        registry.register("failing", (StreamProcessor<Integer, Void>) (input, output, context) -> {
+            input.next();
+            throw new IllegalStateException("boom");
+        });
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> new Engine(registry).execute(flow(
+                stage("source", NodeType.SOURCE, "endless"),
+                stage("sink", NodeType.SINK, "failing", "source"))));
+        assertTrue(stopped.get());
+    }
+
+    @Test
+    void execute_PlainProcessorInStreamingFlow_ThrowsException() {
+        // Arrange
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("plain", (Processor<String>) (Context context) -> "value");
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> new Engine(registry).execute(flow(
+                stage("source", NodeType.SOURCE, "plain"))));
+    }
+
+    private static FlowConfig flow(Node... nodes) {
+        return TestFlows.flow("stream-flow", ExecutionMode.STREAMING, nodes);
+    }
+
+    private static Node stage(String id, NodeType type, String processor, String... deps) {
+        return withParameters(node(id, type, processor, deps), Map.of(StreamingPipeline.BUFFER_SIZE, 8));
+    }
+}
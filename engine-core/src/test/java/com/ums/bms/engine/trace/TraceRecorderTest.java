@@ -0,0 +1,156 @@
+package com.ums.bms.engine.trace;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ums.bms.engine.Engine;
+import com.ums.bms.engine.EngineConfig;
+import com.ums.bms.engine.TestFlows;
+import com.ums.bms.engine.model.ExecutionMode;
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.parser.FlowConfig;
+import com.ums.bms.engine.plan.ExecutionPlan;
+import com.ums.bms.engine.processor.Processor;
+import com.ums.bms.engine.processor.ProcessorRegistry;
+import com.ums.bms.engine.runtime.ExecutionInstance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.ums.bms.engine.TestFlows.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author violet
+ * @since 2025/5/28
+ */
+public class TraceRecorderTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void run_Sampled_RecordsTimelineAndCriticalPath() {
+        // Arrange
+        TraceRecorder recorder = new TraceRecorder(1, 4);
+        Engine engine = engine(recorder);
+        ExecutionPlan plan = engine.compile(flow());
+
+        // Act
+        ExecutionInstance instance = engine.run(plan, null);
+
+        // Assert
+        RunTrace trace = recorder.get(instance.getRunId());
+        assertNotNull(trace);
+        assertTrue(trace.isFinished());
+        assertFalse(trace.isFailed());
+        for (int i = 0; i < plan.size(); i++) {
+            assertEquals(Node.NodeStatus.COMPLETED, trace.getStatus(i));
+            assertTrue(trace.getReadyNanos(i) <= trace.getStartedNanos(i));
+            assertTrue(trace.getStartedNanos(i) <= trace.getEndedNanos(i));
+            assertNotNull(trace.getThreadName(i));
+        }
+        int[] path = trace.criticalPath();
+        assertEquals(3, path.length);
+        assertEquals("source", plan.node(path[0]).getId());
+        assertEquals("slow", plan.node(path[1]).getId());
+        assertEquals("sink", plan.node(path[2]).getId());
+    }
+
+    @Test
+    void toJson_Sampled_ExportsChromeTraceEvents() throws Exception {
+        // Arrange
+        TraceRecorder recorder = new TraceRecorder(1, 4);
+        Engine engine = engine(recorder);
+        ExecutionInstance instance = engine.run(engine.compile(flow()), null);
+
+        // Act
+        String json = ChromeTraceExporter.toJson(recorder.get(instance.getRunId()));
+
+        // Assert
+        JsonNode events = new ObjectMapper().readTree(json).get("traceEvents");
+        Map<String, JsonNode> slices = new HashMap<>();
+        int waits = 0;
+        for (JsonNode event : events) {
+            String phase = event.get("ph").asText();
+            if ("X".equals(phase) && !"run".equals(event.get("cat").asText())) {
+                slices.put(event.get("name").asText(), event);
+            } else if ("b".equals(phase)) {
+                waits++;
+            }
+        }
+        assertEquals(4, slices.size());
+        assertEquals(4, waits);
+        assertEquals("COMPLETED", slices.get("slow").get("args").get("status").asText());
+        assertTrue(slices.get("slow").get("args").get("critical").asBoolean());
+        assertFalse(slices.get("fast").get("args").get("critical").asBoolean());
+        assertTrue(slices.get("slow").get("dur").asDouble() >= 20_000);
+    }
+
+    @Test
+    void run_NotSampled_RecordsNothing() {
+        // Arrange
+        TraceRecorder recorder = new TraceRecorder(0, 4);
+        Engine engine = engine(recorder);
+
+        // Act
+        ExecutionInstance instance = engine.run(engine.compile(flow()), null);
+
+        // Assert
+        assertNull(recorder.get(instance.getRunId()));
+        assertTrue(recorder.recent().isEmpty());
+    }
+
+    @Test
+    void recent_OverCapacity_KeepsNewestRuns() {
+        // Arrange
+        TraceRecorder recorder = new TraceRecorder(1, 2);
+        Engine engine = engine(recorder);
+        ExecutionPlan plan = engine.compile(flow());
+
+        // Act
+        engine.run(plan, null);
+        String second = engine.run(plan, null).getRunId();
+        String third = engine.run(plan, null).getRunId();
+
+        // Assert
+        List<RunTrace> recent = recorder.recent();
+        assertEquals(2, recent.size());
+        assertEquals(third, recent.get(0).getRunId());
+        assertEquals(second, recent.get(1).getRunId());
+    }
+
+    private Engine engine(TraceRecorder recorder) {
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("noop", (Processor<String>) context -> "ok");
+        registry.register("sleep", (Processor<String>) context -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "slept";
+        });
+        return new Engine(registry, EngineConfig.builder()
+                .mode(ExecutionMode.PARALLEL)
+                .executor(executor)
+                .listener(recorder)
+                .build());
+    }
+
+    private static FlowConfig flow() {
+        return TestFlows.flow("trace-flow",
+                node("source", "noop"),
+                node("fast", "noop", "source"),
+                node("slow", "sleep", "source"),
+                node("sink", "noop", "fast", "slow"));
+    }
+}
@@ -0,0 +1,203 @@
+package com.ums.bms.engine.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ums.bms.engine.Engine;
+import com.ums.bms.engine.EngineConfig;
+import com.ums.bms.engine.dispatch.FlowScheduler;
+import com.ums.bms.engine.dispatch.FlowSchedulerConfig;
+import com.ums.bms.engine.dispatch.RunHandle;
+import com.ums.bms.engine.model.Node;
+import com.ums.bms.engine.processor.Processor;
+import com.ums.bms.engine.processor.ProcessorRegistry;
+import com.ums.bms.engine.repository.FlowRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * @author violet
+ * @since 2025/6/25
+ */
+public class RunControllerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final RunEventPublisher events = new RunEventPublisher(16, 5000);
+    private FlowRepository flows;
+    private FlowScheduler scheduler;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.writeString(tempDir.resolve("gated.yaml"), """
+                id: gated
+                name: gated
+                version: 1.0.0
+                dag:
+                  nodes:
+                    - id: gate
+                      type: SOURCE
+                      processor: gate
+                    - id: echo
+                      type: SINK
+                      processor: echo
+                      deps: [gate]
+                """);
+        flows = new FlowRepository(tempDir);
+        flows.loadAll();
+        Engine engine = new Engine(registry(), EngineConfig.builder().listener(events).build());
+        scheduler = new FlowScheduler(engine, FlowSchedulerConfig.builder().workers(2).build());
+        mvc = MockMvcBuilders.standaloneSetup(new RunController(flows, scheduler, events)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        gate.countDown();
+        scheduler.close();
+        flows.close();
+        events.close();
+    }
+
+    @Test
+    void submit_KnownFlow_ReturnsRunIdAndStreamsNodeEvents() throws Exception {
+        // Arrange
+        String runId = submit("{\"flowId\":\"gated\",\"parameters\":{\"value\":\"hello\"}}");
+        MvcResult stream = mvc.perform(get("/runs/" + runId + "/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Act
+        gate.countDown();
+        events.get(runId).result().get(5, TimeUnit.SECONDS);
+
+        // Assert
+        // 最终状态由运行结束回调推送, 可能晚于结果完成
+        String body = stream.getResponse().getContentAsString();
+        for (int i = 0; i < 100 && !body.contains("\"state\":\"SUCCEEDED\""); i++) {
+            Thread.sleep(10);
+            body = stream.getResponse().getContentAsString();
+        }
+        assertTrue(body.contains("event:node"));
+        assertTrue(body.contains("\"node\":\"echo\",\"status\":\"COMPLETED\",\"resultType\":\"String\""));
+        assertFalse(body.contains("hello"));
+        assertTrue(body.contains("\"state\":\"SUCCEEDED\""));
+        mvc.perform(get("/runs/" + runId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("SUCCEEDED"))
+                .andExpect(jsonPath("$.flowId").value("gated"))
+                .andExpect(jsonPath("$.results.echo").value("hello"));
+    }
+
+    @Test
+    void cancel_RunningRun_StopsBeforeNextNode() throws Exception {
+        // Arrange
+        String runId = submit("{\"flowId\":\"gated\",\"version\":\"1.0.0\"}");
+        RunHandle handle = events.get(runId);
+        while (handle.getInstance() == null || handle.getInstance().getStatus("gate") != Node.NodeStatus.RUNNING) {
+            Thread.sleep(5);
+        }
+
+        // Act
+        mvc.perform(delete("/runs/" + runId)).andExpect(status().isAccepted());
+        gate.countDown();
+
+        // Assert
+        assertThrows(Exception.class, () -> handle.result().get(5, TimeUnit.SECONDS));
+        mvc.perform(get("/runs/" + runId))
+                .andExpect(jsonPath("$.state").value("CANCELLED"))
+                .andExpect(jsonPath("$.nodes.gate").value("COMPLETED"))
+                .andExpect(jsonPath("$.nodes.echo").value("PENDING"));
+        mvc.perform(delete("/runs/" + runId)).andExpect(status().isConflict());
+    }
+
+    @Test
+    void submit_RetentionExceededWithRunningHead_EvictsFinishedRuns() throws Exception {
+        // Arrange
+        String head = submit("{\"flowId\":\"gated\"}");
+        String second = submit("{\"flowId\":\"gated\"}");
+        awaitGate(head);
+        awaitGate(second);
+        List<String> cancelled = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 16; i++) {
+            String runId = submit("{\"flowId\":\"gated\"}");
+            mvc.perform(delete("/runs/" + runId)).andExpect(status().isAccepted());
+            cancelled.add(runId);
+        }
+
+        // Assert
+        assertNotNull(events.get(head));
+        assertNotNull(events.get(second));
+        assertNull(events.get(cancelled.get(0)));
+        assertNull(events.get(cancelled.get(1)));
+        assertNotNull(events.get(cancelled.get(2)));
+        mvc.perform(get("/runs/" + cancelled.get(0))).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void submit_UnknownFlowOrTarget_ReturnsClientError() throws Exception {
+        // Act & Assert
+        mvc.perform(post("/runs").contentType(MediaType.APPLICATION_JSON).content("{\"flowId\":\"missing\"}"))
+                .andExpect(status().isNotFound());
+        mvc.perform(post("/runs").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"flowId\":\"gated\",\"targets\":[\"ghost\"]}"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/runs").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/runs/unknown")).andExpect(status().isNotFound());
+    }
+
+    private void awaitGate(String runId) throws InterruptedException {
+        RunHandle handle = events.get(runId);
+        while (handle.getInstance() == null || handle.getInstance().getStatus("gate") != Node.NodeStatus.RUNNING) {
+            Thread.sleep(5);
+        }
+    }
+
+    private String submit(String body) throws Exception {
+        MvcResult result = mvc.perform(post("/runs").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn();
+        return mapper.readTree(result.getResponse().getContentAsString()).get("runId").asText();
+    }
+
+    private ProcessorRegistry registry() {
+        ProcessorRegistry registry = new ProcessorRegistry();
+        registry.register("gate", (Processor<String>) context -> {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "open";
+        });
+        registry.register("echo", (Processor<Object>) context -> context.getGlobalParameters().get("value"));
+        return registry;
+    }
+}